@@ -0,0 +1,108 @@
+package com.challenge.agenda_processor.benchmarks;
+
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.codec.EventSerializer;
+import com.challenge.vote_events.events.AgendaOpenedEvent;
+import com.challenge.vote_events.events.AgendaResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the binary event codec against the JSON serializer used before it
+ * <p>
+ * Both sides go through the Kafka serializer and deserializer, as the producer and the consumers do. The size of each
+ * encoded event is printed in the setup, run with ./gradlew jmh and compare the throughput of each codec
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class EventCodecBenchmark {
+    private static final String TOPIC = "agenda-finished";
+
+    private AgendaResult result;
+    private AgendaOpenedEvent opened;
+
+    private EventSerializer<Object> binarySerializer;
+    private EventDeserializer<AgendaResult> binaryResultDeserializer;
+    private EventDeserializer<AgendaOpenedEvent> binaryOpenedDeserializer;
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<AgendaResult> jsonResultDeserializer;
+    private JsonDeserializer<AgendaOpenedEvent> jsonOpenedDeserializer;
+
+    private byte[] binaryResult;
+    private byte[] binaryOpened;
+    private byte[] jsonResult;
+    private byte[] jsonOpened;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        LocalDateTime expiration = LocalDateTime.now().plusMinutes(5);
+        result = new AgendaResult(123456L, "Reforma do estatuto", "Votação da reforma do estatuto da cooperativa",
+                15230, 9871, "YES");
+        opened = new AgendaOpenedEvent(123456L, expiration, expiration.atZone(ZoneId.systemDefault()).toInstant());
+
+        binarySerializer = new EventSerializer<>();
+        binaryResultDeserializer = new EventDeserializer<>(AgendaResult.class);
+        binaryOpenedDeserializer = new EventDeserializer<>(AgendaOpenedEvent.class);
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.setAddTypeInfo(false);
+        jsonResultDeserializer = new JsonDeserializer<>(AgendaResult.class, false);
+        jsonOpenedDeserializer = new JsonDeserializer<>(AgendaOpenedEvent.class, false);
+
+        binaryResult = binarySerializer.serialize(TOPIC, result);
+        binaryOpened = binarySerializer.serialize(TOPIC, opened);
+        jsonResult = jsonSerializer.serialize(TOPIC, result);
+        jsonOpened = jsonSerializer.serialize(TOPIC, opened);
+
+        System.out.printf("%nAgendaResult: binary %d bytes, json %d bytes%n", binaryResult.length, jsonResult.length);
+        System.out.printf("AgendaOpenedEvent: binary %d bytes, json %d bytes%n", binaryOpened.length, jsonOpened.length);
+    }
+
+    @Benchmark
+    public byte[] serializeResultBinary(){
+        return binarySerializer.serialize(TOPIC, result);
+    }
+
+    @Benchmark
+    public byte[] serializeResultJson(){
+        return jsonSerializer.serialize(TOPIC, result);
+    }
+
+    @Benchmark
+    public AgendaResult deserializeResultBinary(){
+        return binaryResultDeserializer.deserialize(TOPIC, binaryResult);
+    }
+
+    @Benchmark
+    public AgendaResult deserializeResultJson(){
+        return jsonResultDeserializer.deserialize(TOPIC, jsonResult);
+    }
+
+    @Benchmark
+    public byte[] serializeOpenedBinary(){
+        return binarySerializer.serialize(TOPIC, opened);
+    }
+
+    @Benchmark
+    public byte[] serializeOpenedJson(){
+        return jsonSerializer.serialize(TOPIC, opened);
+    }
+
+    @Benchmark
+    public AgendaOpenedEvent deserializeOpenedBinary(){
+        return binaryOpenedDeserializer.deserialize(TOPIC, binaryOpened);
+    }
+
+    @Benchmark
+    public AgendaOpenedEvent deserializeOpenedJson(){
+        return jsonOpenedDeserializer.deserialize(TOPIC, jsonOpened);
+    }
+}
@@ -0,0 +1,102 @@
+package com.challenge.agenda_processor.benchmarks;
+
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.services.VoteRangeCountTask;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parallel vote count of a very large Agenda by the degree of parallelism
+ * <p>
+ * The votes are kept in an in memory H2 database with the same (agenda_id, vote) index of the Vote table, and the
+ * ranges are counted by the VoteRangeCountTask used by the ParallelVoteCounter. The connection pool has one
+ * connection per worker, as in production the parallelism is bounded by the datasource pool. The single GROUP BY
+ * is the baseline. Run with ./gradlew jmh and compare the scores of each parallelism with the available cores
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ParallelVoteCountBenchmark {
+    private static final long AGENDA_ID = 1L;
+    private static final long OTHER_AGENDA_ID = 2L;
+    private static final int BATCH_SIZE = 10_000;
+    private static final String COUNT_RANGE =
+            "SELECT COUNT(*) FROM vote WHERE agenda_id = ? AND vote = ? AND id >= ? AND id < ?";
+
+    @Param({"4000000"})
+    public int votes;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"250000"})
+    public long chunkSize;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:parallel-votes;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(parallelism + 1);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        pool = new ForkJoinPool(parallelism);
+
+        jdbcTemplate.execute("CREATE TABLE vote (id BIGINT PRIMARY KEY, vote VARCHAR(3), associate_id BIGINT, agenda_id BIGINT)");
+        jdbcTemplate.execute("CREATE INDEX idx_vote_agenda_vote ON vote (agenda_id, vote)");
+
+        // one vote in ten belongs to another Agenda, as the ids come from a sequence shared by all the Agendas
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for(long id = 1; id <= votes; id++){
+            long agendaId = id % 10 == 0 ? OTHER_AGENDA_ID : AGENDA_ID;
+            batch.add(new Object[]{id, id % 3 == 0 ? VoteConstants.NO : VoteConstants.YES, id, agendaId});
+            if(batch.size() == BATCH_SIZE){
+                jdbcTemplate.batchUpdate("INSERT INTO vote (id, vote, associate_id, agenda_id) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        if(!batch.isEmpty())
+            jdbcTemplate.batchUpdate("INSERT INTO vote (id, vote, associate_id, agenda_id) VALUES (?, ?, ?, ?)", batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        pool.shutdown();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public VoteTally parallelRanges(){
+        return pool.invoke(new VoteRangeCountTask(AGENDA_ID, 1, votes + 1L, chunkSize,
+                (agendaId, vote, fromId, toId) -> jdbcTemplate.queryForObject(COUNT_RANGE, Long.class, agendaId, vote, fromId, toId)));
+    }
+
+    @Benchmark
+    public VoteTally groupByVote(){
+        long[] totals = new long[2];
+        jdbcTemplate.query("SELECT vote, COUNT(*) FROM vote WHERE agenda_id = ? GROUP BY vote", rs -> {
+            if(VoteConstants.YES.equals(rs.getString(1)))
+                totals[0] = rs.getLong(2);
+            else if(VoteConstants.NO.equals(rs.getString(1)))
+                totals[1] = rs.getLong(2);
+        }, AGENDA_ID);
+
+        return new VoteTally(AGENDA_ID, totals[0], totals[1]);
+    }
+}
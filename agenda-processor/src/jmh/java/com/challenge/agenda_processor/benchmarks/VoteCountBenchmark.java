@@ -0,0 +1,102 @@
+package com.challenge.agenda_processor.benchmarks;
+
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteCount;
+import com.challenge.agenda_processor.dto.VoteTally;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the vote count of an Agenda with 1M votes, loading every vote against the GROUP BY query
+ * <p>
+ * The votes are kept in an in memory H2 database and the loaded votes are plain rows, lighter than the JPA entities
+ * that were loaded before, so the difference is the minimum. The gc profiler reports the allocation per count
+ * (gc.alloc.rate.norm). Run with ./gradlew jmh
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class VoteCountBenchmark {
+    private static final long AGENDA_ID = 1L;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000000"})
+    public int votes;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:votes;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE vote (id BIGINT PRIMARY KEY, vote VARCHAR(3), associate_id BIGINT, agenda_id BIGINT)");
+        jdbcTemplate.execute("CREATE INDEX idx_vote_agenda_vote ON vote (agenda_id, vote)");
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for(long id = 1; id <= votes; id++){
+            batch.add(new Object[]{id, id % 3 == 0 ? VoteConstants.NO : VoteConstants.YES, id, AGENDA_ID});
+            if(batch.size() == BATCH_SIZE){
+                jdbcTemplate.batchUpdate("INSERT INTO vote (id, vote, associate_id, agenda_id) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        if(!batch.isEmpty())
+            jdbcTemplate.batchUpdate("INSERT INTO vote (id, vote, associate_id, agenda_id) VALUES (?, ?, ?, ?)", batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public VoteTally loadAllVotes(){
+        Set<VoteRow> rows = new HashSet<>(jdbcTemplate.query(
+                "SELECT id, vote, associate_id, agenda_id FROM vote WHERE agenda_id = ?",
+                (rs, i) -> new VoteRow(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4)),
+                AGENDA_ID));
+
+        long votesYes = 0;
+        long votesNo = 0;
+        for(VoteRow row : rows){
+            if(row.vote().equals(VoteConstants.YES))
+                votesYes++;
+            else if(row.vote().equals(VoteConstants.NO))
+                votesNo++;
+        }
+
+        return new VoteTally(AGENDA_ID, votesYes, votesNo);
+    }
+
+    @Benchmark
+    public VoteTally groupByVote(){
+        List<VoteCount> counts = jdbcTemplate.query(
+                "SELECT agenda_id, vote, COUNT(*) FROM vote WHERE agenda_id = ? GROUP BY agenda_id, vote",
+                (rs, i) -> new VoteCount(rs.getLong(1), rs.getString(2), rs.getLong(3)),
+                AGENDA_ID);
+
+        long votesYes = 0;
+        long votesNo = 0;
+        for(VoteCount count : counts){
+            if(VoteConstants.YES.equals(count.vote()))
+                votesYes = count.total();
+            else if(VoteConstants.NO.equals(count.vote()))
+                votesNo = count.total();
+        }
+
+        return new VoteTally(AGENDA_ID, votesYes, votesNo);
+    }
+
+    private record VoteRow(long id, String vote, long associateId, long agendaId) {}
+}
@@ -1,12 +1,21 @@
 package com.challenge.agenda_processor.configurations;
 
-import com.challenge.agenda_processor.dto.AgendaOpenedEvent;
+import com.challenge.agenda_processor.consumers.AgendaOpenedConsumer;
+import com.challenge.agenda_processor.consumers.AgendaOpenedRebalanceListener;
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.events.AgendaOpenedEvent;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -19,17 +28,36 @@ public class KafkaConsumerConfig {
     @Value("${KAFKA_URL}")
     private String kafkaUtl;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${agenda.opened.partitions:6}")
+    private int partitions;
+
+    @Bean
+    public NewTopic agendaOpenedTopic(){
+        return TopicBuilder.name(AgendaOpenedConsumer.AGENDA_OPENED_TOPIC)
+                .partitions(partitions)
+                .build();
+    }
+
+    // reads the offsets of the vote intake of vote-challenge, see VoteCastBacklog
+    @Bean(destroyMethod = "close")
+    public Admin voteCastAdmin(){
+        return Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaUtl + ":9092"));
+    }
+
     @Bean
     public ConsumerFactory<String, AgendaOpenedEvent> agendaOpenedConsumerFactory(){
-        JsonDeserializer<AgendaOpenedEvent> deserializer = new JsonDeserializer<>(AgendaOpenedEvent.class);
-        deserializer.setRemoveTypeHeaders(false);
-        deserializer.addTrustedPackages("*");
-        deserializer.setUseTypeMapperForKey(true);
+        // reads the JSON records still in the topic from before the binary codec
+        JsonDeserializer<AgendaOpenedEvent> legacyDeserializer = new JsonDeserializer<>(AgendaOpenedEvent.class, false);
+        EventDeserializer<AgendaOpenedEvent> deserializer = new EventDeserializer<>(AgendaOpenedEvent.class, legacyDeserializer);
 
         return new DefaultKafkaConsumerFactory<>(
                 Map.of(
                         ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaUtl + ":9092",
                         ConsumerConfig.GROUP_ID_CONFIG, "agenda-processor",
+                        ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName(),
                         ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
                         ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, deserializer
                 ),
@@ -39,10 +67,20 @@ public class KafkaConsumerConfig {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, AgendaOpenedEvent> agendaOpenedKafkaListenerContainerFactory(){
+    public ConcurrentKafkaListenerContainerFactory<String, AgendaOpenedEvent> agendaOpenedKafkaListenerContainerFactory(
+            AgendaOpenedRebalanceListener rebalanceListener){
         ConcurrentKafkaListenerContainerFactory<String, AgendaOpenedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(agendaOpenedConsumerFactory());
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        if(virtualThreads)
+            factory.getContainerProperties().setListenerTaskExecutor(virtualThreadExecutor("agenda-opened-"));
         return factory;
     }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix){
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
 }
@@ -1,16 +0,0 @@
-package com.challenge.agenda_processor.configurations;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-
-@Configuration
-public class SchedulerConfig {
-
-    @Bean
-    public ScheduledExecutorService scheduler(){
-        return Executors.newScheduledThreadPool(10);
-    }
-}
@@ -0,0 +1,6 @@
+package com.challenge.agenda_processor.constants;
+
+public class TallyConstants {
+    // saved by vote-challenge when an Agenda is opened, the tallies without it miss the votes cast before they existed
+    public static final int OPENING_STRIPE = -1;
+}
@@ -0,0 +1,105 @@
+package com.challenge.agenda_processor.consumers;
+
+import com.challenge.agenda_processor.schedulers.AgendaExpirationScheduler;
+import com.challenge.agenda_processor.services.AgendaRecoveryService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Class that ties the close of the Agendas to the agenda-opened partitions owned by this instance
+ * <p>
+ * The events are keyed by the Agenda id, so every Agenda belongs to one partition. When partitions are assigned the
+ * open Agendas of those partitions are recovered from the database in background, and when partitions are revoked or
+ * lost their schedules are cancelled, so the new owner takes them over.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AgendaOpenedRebalanceListener implements ConsumerAwareRebalanceListener {
+    private final AgendaExpirationScheduler scheduler;
+    private final AgendaRecoveryService recoveryService;
+    private final Set<Integer> ownedPartitions;
+    private volatile int partitionCount;
+
+    @Autowired
+    public AgendaOpenedRebalanceListener(AgendaExpirationScheduler scheduler, AgendaRecoveryService recoveryService) {
+        this.scheduler = scheduler;
+        this.recoveryService = recoveryService;
+        this.ownedPartitions = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Method that finds the partition of an Agenda, the same way the producer partitions a String key
+     * @param agendaId the id of the Agenda
+     * @param partitionCount the number of partitions of the topic
+     * @return the partition of the Agenda
+     */
+    public static int partitionFor(Long agendaId, int partitionCount){
+        byte[] key = String.valueOf(agendaId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % partitionCount;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions){
+        Set<Integer> assigned = partitionsOf(partitions);
+        if(assigned.isEmpty())
+            return;
+
+        partitionCount = consumer.partitionsFor(AgendaOpenedConsumer.AGENDA_OPENED_TOPIC).size();
+        ownedPartitions.addAll(assigned);
+
+        log.info("Try to recover the open Agendas of partitions {}", assigned);
+        int count = partitionCount;
+        recoveryService.recover(agendaId -> {
+            int partition = partitionFor(agendaId, count);
+            return assigned.contains(partition) && ownedPartitions.contains(partition);
+        });
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions){
+        release(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions){
+        release(partitions);
+    }
+
+    /**
+     * Method to get the agenda-opened partitions owned by this instance
+     * @return a copy of the owned partitions
+     */
+    public Set<Integer> getOwnedPartitions(){
+        return Set.copyOf(ownedPartitions);
+    }
+
+    private void release(Collection<TopicPartition> partitions){
+        Set<Integer> revoked = partitionsOf(partitions);
+        if(revoked.isEmpty() || partitionCount == 0)
+            return;
+
+        ownedPartitions.removeAll(revoked);
+        int count = partitionCount;
+        int cancelled = scheduler.cancelIf(agendaId -> revoked.contains(partitionFor(agendaId, count)));
+        log.info("Partitions {} released, {} scheduled Agendas cancelled", revoked, cancelled);
+    }
+
+    private Set<Integer> partitionsOf(Collection<TopicPartition> partitions){
+        return partitions.stream()
+                .filter(partition -> AgendaOpenedConsumer.AGENDA_OPENED_TOPIC.equals(partition.topic()))
+                .map(TopicPartition::partition)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,8 @@
+package com.challenge.agenda_processor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represent an open Agenda read by the recovery, with only the columns needed to schedule its close
+ */
+public record OpenAgenda(Long id, LocalDateTime expiration) {}
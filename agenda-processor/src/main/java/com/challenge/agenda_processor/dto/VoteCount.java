@@ -0,0 +1,6 @@
+package com.challenge.agenda_processor.dto;
+
+/**
+ * The number of votes of an Agenda with the same value
+ */
+public record VoteCount(Long agendaId, String vote, long total) {}
@@ -0,0 +1,10 @@
+package com.challenge.agenda_processor.dto;
+
+/**
+ * Represent the lowest and the highest Vote id of an Agenda
+ */
+public record VoteIdRange(Long agendaId, Long minId, Long maxId) {
+    public long span(){
+        return maxId - minId + 1;
+    }
+}
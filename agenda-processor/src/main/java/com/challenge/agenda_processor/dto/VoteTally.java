@@ -0,0 +1,6 @@
+package com.challenge.agenda_processor.dto;
+
+/**
+ * The counted votes of an Agenda
+ */
+public record VoteTally(Long agendaId, long votesYes, long votesNo) {}
@@ -0,0 +1,5 @@
+package com.challenge.agenda_processor.interfaces;
+
+public interface IVoteRangeCounter {
+    long count(Long agendaId, String vote, long fromId, long toId);
+}
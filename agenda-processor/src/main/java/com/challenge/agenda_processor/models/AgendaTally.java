@@ -0,0 +1,25 @@
+package com.challenge.agenda_processor.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stripe of the running vote counters of an Agenda, maintained by vote-challenge when a vote is saved
+ */
+@Entity
+@Table(name = "agenda_tally")
+@IdClass(AgendaTallyId.class)
+@NoArgsConstructor
+@Getter
+public class AgendaTally {
+    @Id
+    private Long agendaId;
+    @Id
+    private int stripe;
+    private long votesYes;
+    private long votesNo;
+}
@@ -0,0 +1,20 @@
+package com.challenge.agenda_processor.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite id of the AgendaTally entity
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class AgendaTallyId implements Serializable {
+    private Long agendaId;
+    private int stripe;
+}
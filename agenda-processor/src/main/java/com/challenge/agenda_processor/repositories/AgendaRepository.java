@@ -1,13 +1,32 @@
 package com.challenge.agenda_processor.repositories;
 
+import com.challenge.agenda_processor.dto.OpenAgenda;
 import com.challenge.agenda_processor.models.Agenda;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface AgendaRepository extends CrudRepository<Agenda, Long> {
-    Optional<Set<Agenda>> findByIsOpen(boolean isOpen);
+    @Query("select new com.challenge.agenda_processor.dto.OpenAgenda(a.id, a.expiration) from Agenda a " +
+            "where a.isOpen = true and (a.expiration > :expiration or (a.expiration = :expiration and a.id > :id)) " +
+            "order by a.expiration, a.id")
+    List<OpenAgenda> findOpenAfter(@Param("expiration") LocalDateTime expiration, @Param("id") Long id, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Agenda a where a.id in :ids and a.isOpen = true order by a.id")
+    List<Agenda> findOpenByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Agenda a set a.isOpen = false where a.id in :ids and a.isOpen = true")
+    int closeAllIfOpen(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,23 @@
+package com.challenge.agenda_processor.repositories;
+
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.models.AgendaTally;
+import com.challenge.agenda_processor.models.AgendaTallyId;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AgendaTallyRepository extends CrudRepository<AgendaTally, AgendaTallyId> {
+
+    // only the tallies started when the Agenda was opened, the ones with the opening stripe, hold all of its votes
+    @Query("select new com.challenge.agenda_processor.dto.VoteTally(t.agendaId, coalesce(sum(t.votesYes), 0L), coalesce(sum(t.votesNo), 0L)) " +
+            "from AgendaTally t where t.agendaId in :agendaIds and exists (select 1 from AgendaTally o " +
+            "where o.agendaId = t.agendaId and o.stripe = :openingStripe) group by t.agendaId")
+    List<VoteTally> sumCompleteByAgendaIds(@Param("agendaIds") Collection<Long> agendaIds,
+                                           @Param("openingStripe") int openingStripe);
+}
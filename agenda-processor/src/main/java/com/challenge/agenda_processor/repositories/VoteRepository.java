@@ -1,13 +1,29 @@
 package com.challenge.agenda_processor.repositories;
 
+import com.challenge.agenda_processor.dto.VoteCount;
+import com.challenge.agenda_processor.dto.VoteIdRange;
 import com.challenge.agenda_processor.models.Vote;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface VoteRepository extends CrudRepository<Vote, Long> {
-    Optional<Set<Vote>> findAllByAgendaId(Long agendaId);
+
+    @Query("select new com.challenge.agenda_processor.dto.VoteCount(v.agenda.id, v.vote, count(v)) " +
+            "from Vote v where v.agenda.id in :agendaIds group by v.agenda.id, v.vote")
+    List<VoteCount> countByAgendaIdsGroupByVote(@Param("agendaIds") Collection<Long> agendaIds);
+
+    @Query("select new com.challenge.agenda_processor.dto.VoteIdRange(v.agenda.id, min(v.id), max(v.id)) " +
+            "from Vote v where v.agenda.id in :agendaIds group by v.agenda.id")
+    List<VoteIdRange> findIdRangesByAgendaIds(@Param("agendaIds") Collection<Long> agendaIds);
+
+    @Query("select count(v) from Vote v " +
+            "where v.agenda.id = :agendaId and v.vote = :vote and v.id >= :fromId and v.id < :toId")
+    long countByAgendaIdAndVoteInIdRange(@Param("agendaId") Long agendaId, @Param("vote") String vote,
+                                         @Param("fromId") long fromId, @Param("toId") long toId);
 }
@@ -0,0 +1,206 @@
+package com.challenge.agenda_processor.schedulers;
+
+import com.challenge.agenda_processor.services.AgendaCloseService;
+import com.challenge.agenda_processor.services.VoteCastBacklog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Class that schedules the close of the opened Agendas
+ * <p>
+ * The deadlines are kept in a hierarchical timing wheel, so scheduling and cancelling cost the same with any number of
+ * pending Agendas. A single ticker thread moves the wheel and only hands the expired Agendas off to a bounded pool of
+ * close workers, the database and kafka work never runs on the ticker. The Agendas expired in the same tick are closed
+ * together, in batches of at most close-batch-size. An Agenda whose votes sent to the async intake were not all read yet
+ * waits for them, checked again every drain check interval. When the close queue is full the Agenda is scheduled again
+ * for the next tick, and when the close fails it is retried after the retry delay.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AgendaExpirationScheduler {
+    private final AgendaCloseService closeService;
+    private final VoteCastBacklog voteCastBacklog;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final ConcurrentHashMap<Long, HierarchicalTimingWheel.Timeout<Long>> pending;
+    private final ThreadPoolExecutor closeWorkers;
+    private final long tickMillis;
+    private final long retryDelayMillis;
+    private final long drainCheckMillis;
+    private final int closeBatchSize;
+    private volatile boolean running;
+    private Thread ticker;
+
+    @Autowired
+    public AgendaExpirationScheduler(AgendaCloseService closeService, VoteCastBacklog voteCastBacklog,
+                                     @Value("${agenda.expiration.tick:100ms}") Duration tick,
+                                     @Value("${agenda.expiration.wheel-size:512}") int wheelSize,
+                                     @Value("${agenda.expiration.levels:4}") int levels,
+                                     @Value("${agenda.expiration.close-workers:10}") int closeWorkers,
+                                     @Value("${agenda.expiration.close-queue-capacity:10000}") int closeQueueCapacity,
+                                     @Value("${agenda.expiration.retry-delay:5s}") Duration retryDelay,
+                                     @Value("${agenda.expiration.close-batch-size:500}") int closeBatchSize,
+                                     @Value("${vote.intake.drain.check-interval:1s}") Duration drainCheck,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads){
+        this.closeService = closeService;
+        this.voteCastBacklog = voteCastBacklog;
+        this.tickMillis = tick.toMillis();
+        this.retryDelayMillis = retryDelay.toMillis();
+        this.drainCheckMillis = drainCheck.toMillis();
+        this.closeBatchSize = closeBatchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, levels, System.currentTimeMillis());
+        this.pending = new ConcurrentHashMap<>();
+
+        ThreadFactory factory = virtualThreads
+                ? Thread.ofVirtual().name("agenda-close-", 0).factory()
+                : Thread.ofPlatform().name("agenda-close-", 0).factory();
+        this.closeWorkers = new ThreadPoolExecutor(closeWorkers, closeWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(closeQueueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    public void start(){
+        running = true;
+        ticker = Thread.ofPlatform().name("agenda-expiration-ticker").daemon().start(this::tick);
+    }
+
+    @PreDestroy
+    public void stop(){
+        running = false;
+        if(ticker != null)
+            ticker.interrupt();
+
+        closeWorkers.shutdown();
+    }
+
+    /**
+     * Method that schedules the close of an Agenda, replacing its previous schedule
+     * @param agendaId the id of the Agenda
+     * @param expiresAt the moment the Agenda expires, a past moment closes it in the next tick
+     */
+    public void schedule(Long agendaId, Instant expiresAt){
+        HierarchicalTimingWheel.Timeout<Long> timeout = wheel.schedule(agendaId, expiresAt.toEpochMilli());
+        HierarchicalTimingWheel.Timeout<Long> previous = pending.put(agendaId, timeout);
+
+        if(previous != null)
+            wheel.cancel(previous);
+
+        log.debug("Agenda with id '{}' scheduled to close at {}", agendaId, expiresAt);
+    }
+
+    /**
+     * Method that cancels the scheduled close of an Agenda
+     * @param agendaId the id of the Agenda
+     * @return true if the Agenda had a pending close
+     */
+    public boolean cancel(Long agendaId){
+        HierarchicalTimingWheel.Timeout<Long> timeout = pending.remove(agendaId);
+
+        return timeout != null && wheel.cancel(timeout);
+    }
+
+    /**
+     * Method that cancels the scheduled close of the Agendas accepted by the filter
+     * @param filter the filter of the Agenda ids who will be cancelled
+     * @return the number of cancelled Agendas
+     */
+    public int cancelIf(Predicate<Long> filter){
+        int cancelled = 0;
+        for(Long agendaId : pending.keySet()){
+            if(filter.test(agendaId) && cancel(agendaId))
+                cancelled++;
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Method to get the number of Agendas waiting to close
+     * @return the number of pending Agendas
+     */
+    public int pendingCount(){
+        return pending.size();
+    }
+
+    private void tick(){
+        while(running){
+            long now = System.currentTimeMillis();
+            long nextTick = (Math.floorDiv(now, tickMillis) + 1) * tickMillis;
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(nextTick - now));
+
+            if(Thread.currentThread().isInterrupted())
+                break;
+
+            List<HierarchicalTimingWheel.Timeout<Long>> expired = wheel.advance(System.currentTimeMillis());
+            if(!expired.isEmpty())
+                dispatch(expired);
+        }
+    }
+
+    private void dispatch(List<HierarchicalTimingWheel.Timeout<Long>> expired){
+        List<Long> agendaIds = new ArrayList<>(expired.size());
+        for(HierarchicalTimingWheel.Timeout<Long> timeout : expired){
+            if(pending.remove(timeout.getValue(), timeout))
+                agendaIds.add(timeout.getValue());
+        }
+
+        for(int start = 0; start < agendaIds.size(); start += closeBatchSize){
+            List<Long> batch = List.copyOf(agendaIds.subList(start, Math.min(start + closeBatchSize, agendaIds.size())));
+            try{
+                closeWorkers.execute(() -> close(batch));
+            } catch (RejectedExecutionException ex){
+                if(!running)
+                    return;
+
+                log.warn("Close queue is full, {} Agendas will be closed in the next tick", batch.size());
+                batch.forEach(agendaId -> retry(agendaId, tickMillis));
+            }
+        }
+    }
+
+    private void close(List<Long> agendaIds){
+        try{
+            List<Long> drained = voteCastBacklog.drained(agendaIds);
+            if(drained.size() < agendaIds.size()){
+                Set<Long> ready = new HashSet<>(drained);
+                log.info("{} Agendas still have votes to read in the intake, check again in {}ms",
+                        agendaIds.size() - drained.size(), drainCheckMillis);
+                agendaIds.stream().filter(agendaId -> !ready.contains(agendaId))
+                        .forEach(agendaId -> retry(agendaId, drainCheckMillis));
+            }
+
+            if(!drained.isEmpty())
+                closeService.closeAll(drained);
+        } catch (RuntimeException ex){
+            log.error("Fail to close Agendas {}, retry in {}ms", agendaIds, retryDelayMillis, ex);
+            if(running)
+                agendaIds.forEach(agendaId -> retry(agendaId, retryDelayMillis));
+        }
+    }
+
+    // a newer schedule of the same Agenda wins over the retry
+    private void retry(Long agendaId, long delayMillis){
+        HierarchicalTimingWheel.Timeout<Long> retry = wheel.schedule(agendaId, System.currentTimeMillis() + delayMillis);
+        if(pending.putIfAbsent(agendaId, retry) != null)
+            wheel.cancel(retry);
+    }
+}
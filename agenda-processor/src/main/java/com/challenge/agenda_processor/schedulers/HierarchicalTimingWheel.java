@@ -0,0 +1,231 @@
+package com.challenge.agenda_processor.schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel, a timer with O(1) schedule and cancel and a constant cost per tick
+ * <p>
+ * The time is divided in ticks of tickMillis. Level 0 has one bucket per tick, each bucket of level L covers
+ * wheelSize^L ticks. A timeout is placed in the lowest level that can hold its delay and, when the time reaches the
+ * start of its bucket in an upper level, it is moved down until it reaches level 0, where it expires. The buckets are
+ * intrusive doubly linked lists, so a timeout is cancelled by unlinking it. Timeouts beyond the span of the top level
+ * wait in the top level and are placed again each time it turns.
+ * </p>
+ * <p>
+ * The wheel does not read the clock nor run the expired values, the owner calls {@link #advance(long)} from its
+ * ticker thread with the current epoch millis. A timeout never expires before its deadline, and expires at most one
+ * tick after it when the wheel is advanced on time.
+ * </p>
+ * @param <T> the type of the scheduled values
+ */
+public class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int mask;
+    private final Bucket<T>[][] levels;
+    private final long maxSpanTicks;
+    private final ReentrantLock lock;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis the duration of a tick in millis
+     * @param wheelSize the number of buckets of each level, must be a power of two
+     * @param levelCount the number of levels
+     * @param startMillis the current epoch millis
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis){
+        if(tickMillis < 1)
+            throw new IllegalArgumentException("Tick must be at least 1 millisecond");
+
+        if(wheelSize < 2 || Integer.bitCount(wheelSize) != 1)
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+
+        if(levelCount < 1 || (long) Integer.numberOfTrailingZeros(wheelSize) * levelCount > 62)
+            throw new IllegalArgumentException("Invalid number of levels " + levelCount);
+
+        this.tickMillis = tickMillis;
+        this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = new Bucket[levelCount][wheelSize];
+        for(Bucket<T>[] level : levels)
+            for(int i = 0; i < wheelSize; i++)
+                level[i] = new Bucket<>();
+
+        this.maxSpanTicks = 1L << (wheelBits * levelCount);
+        this.lock = new ReentrantLock();
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Method that schedules a value
+     * @param value the value returned by advance when the deadline is reached
+     * @param deadlineMillis the epoch millis of the deadline
+     * @return the Timeout used to cancel the value
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis){
+        Timeout<T> timeout = new Timeout<>(value, deadlineMillis, -Math.floorDiv(-deadlineMillis, tickMillis));
+
+        lock.lock();
+        try{
+            place(timeout);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+
+        return timeout;
+    }
+
+    /**
+     * Method that cancels a scheduled value
+     * @param timeout the Timeout returned by schedule
+     * @return true if the value was cancelled, false if it already expired or was cancelled
+     */
+    public boolean cancel(Timeout<T> timeout){
+        lock.lock();
+        try{
+            if(timeout.bucket == null)
+                return false;
+
+            timeout.bucket.remove(timeout);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Method that moves the wheel until the given time
+     * @param nowMillis the current epoch millis
+     * @return the Timeouts that reached their deadline, in the order they expired
+     */
+    public List<Timeout<T>> advance(long nowMillis){
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<Timeout<T>> expired = new ArrayList<>();
+
+        lock.lock();
+        try{
+            while(currentTick < targetTick){
+                currentTick++;
+                cascade(expired);
+
+                Bucket<T> bucket = levels[0][(int) (currentTick & mask)];
+                for(Timeout<T> timeout = bucket.head; timeout != null; timeout = bucket.head){
+                    bucket.remove(timeout);
+                    expired.add(timeout);
+                }
+            }
+
+            size -= expired.size();
+        } finally {
+            lock.unlock();
+        }
+
+        return expired;
+    }
+
+    public int size(){
+        lock.lock();
+        try{
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTickMillis(){
+        return tickMillis;
+    }
+
+    private void cascade(List<Timeout<T>> expired){
+        for(int level = levels.length - 1; level > 0; level--){
+            int shift = wheelBits * level;
+            if((currentTick & ((1L << shift) - 1)) != 0)
+                continue;
+
+            Bucket<T> bucket = levels[level][(int) ((currentTick >>> shift) & mask)];
+            for(Timeout<T> timeout = bucket.head; timeout != null; timeout = bucket.head){
+                bucket.remove(timeout);
+                if(timeout.deadlineTick <= currentTick)
+                    expired.add(timeout);
+                else
+                    place(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout){
+        long deadlineTick = timeout.deadlineTick;
+        if(deadlineTick <= currentTick)
+            deadlineTick = currentTick + 1;
+
+        // a deadline beyond the top level waits in the last bucket the top level can address
+        long delay = Math.min(deadlineTick - currentTick, maxSpanTicks - 1);
+        long placedTick = currentTick + delay;
+
+        int level = 0;
+        while(level < levels.length - 1 && delay >= (1L << (wheelBits * (level + 1))))
+            level++;
+
+        levels[level][(int) ((placedTick >>> (wheelBits * level)) & mask)].add(timeout);
+    }
+
+    /**
+     * The handle of a scheduled value
+     */
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineMillis, long deadlineTick){
+            this.value = value;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getValue(){
+            return value;
+        }
+
+        public long getDeadlineMillis(){
+            return deadlineMillis;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout){
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if(head != null)
+                head.prev = timeout;
+
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout){
+            if(timeout.prev != null)
+                timeout.prev.next = timeout.next;
+            else
+                head = timeout.next;
+
+            if(timeout.next != null)
+                timeout.next.prev = timeout.prev;
+
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.challenge.agenda_processor.services;
+
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.models.Agenda;
+import com.challenge.agenda_processor.repositories.AgendaRepository;
+import com.challenge.vote_events.constants.EventHeaderConstants;
+import com.challenge.vote_events.events.AgendaResult;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class that closes the expired Agendas and publishes their results
+ */
+@Slf4j
+@Service
+public class AgendaCloseService {
+    private final AgendaRepository repository;
+    private final KafkaTemplate<String, AgendaResult> kafkaTemplate;
+    private final VoteCountService voteCountService;
+
+    @Autowired
+    public AgendaCloseService(AgendaRepository repository, KafkaTemplate<String, AgendaResult> kafkaTemplate,
+                              VoteCountService voteCountService) {
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.voteCountService = voteCountService;
+    }
+
+    /**
+     * Method that closes an Agenda and sends its result to kafka
+     * @param agendaId the id of the Agenda who will be closed
+     * @return true if this call closed the Agenda, false if it was already closed or doesn't exist
+     */
+    @Transactional
+    public boolean close(Long agendaId){
+        return closeAll(List.of(agendaId)) == 1;
+    }
+
+    /**
+     * Method that closes many Agendas at once and sends their results to kafka
+     * <p>
+     * The open Agendas are locked with SELECT ... FOR UPDATE and closed with a single bulk UPDATE, so when more than
+     * one instance or a stale schedule tries to close the same Agenda only the first one publishes the result. The
+     * votes of all of them are counted together, and the results are sent as one batch inside the transaction: if
+     * the send fails the Agendas stay open and the close can be retried. A commit that fails after the send also
+     * leads to a retry, so each result carries an idempotency key made of the agendaId and its expiration, the same
+     * for every retry of a close and new when the Agenda is reopened, and the consumers drop the repeated ones
+     * </p>
+     * @param agendaIds the ids of the Agendas who will be closed
+     * @return the number of Agendas closed by this call
+     */
+    @Transactional
+    public int closeAll(Collection<Long> agendaIds){
+        log.info("Start close {} Agendas", agendaIds.size());
+        List<Agenda> agendas = repository.findOpenByIdInForUpdate(agendaIds);
+        if(agendas.isEmpty()){
+            log.info("Agendas {} are already closed", agendaIds);
+            return 0;
+        }
+
+        List<Long> openIds = agendas.stream().map(Agenda::getId).toList();
+        repository.closeAllIfOpen(openIds);
+
+        log.info("Calculate voting result for {} Agendas", openIds.size());
+        Map<Long, VoteTally> tallies = voteCountService.countVotes(openIds);
+
+        List<CompletableFuture<?>> sent = new ArrayList<>(agendas.size());
+        for(Agenda agenda : agendas)
+            sent.add(kafkaTemplate.send(toRecord(agenda, tallies.get(agenda.getId()))));
+
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+        log.info("{} Agendas were close and their results were sent to kafka", agendas.size());
+        return agendas.size();
+    }
+
+    private ProducerRecord<String, AgendaResult> toRecord(Agenda agenda, VoteTally tally){
+        ProducerRecord<String, AgendaResult> record = new ProducerRecord<>("agenda-finished",
+                String.valueOf(agenda.getId()), toResult(agenda, tally));
+        String idempotencyKey = agenda.getId() + "-" + agenda.getExpiration();
+        record.headers().add(EventHeaderConstants.IDEMPOTENCY_KEY, idempotencyKey.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private AgendaResult toResult(Agenda agenda, VoteTally tally){
+        int votesYes = Math.toIntExact(tally.votesYes());
+        int votesNo = Math.toIntExact(tally.votesNo());
+
+        String voteWin;
+
+        if(votesYes > votesNo)
+            voteWin = VoteConstants.YES;
+        else if(votesNo > votesYes)
+            voteWin = VoteConstants.NO;
+        else
+            voteWin = VoteConstants.DRAW;
+
+        return new AgendaResult(agenda.getId(), agenda.getName(), agenda.getDetails(), votesYes, votesNo, voteWin);
+    }
+}
@@ -0,0 +1,179 @@
+package com.challenge.agenda_processor.services;
+
+import com.challenge.agenda_processor.dto.OpenAgenda;
+import com.challenge.agenda_processor.repositories.AgendaRepository;
+import com.challenge.agenda_processor.schedulers.AgendaExpirationScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Class that recovers the open Agendas after a restart or a partition assignment
+ * <p>
+ * The open Agendas are read in pages ordered by expiration, using the (is_open, expiration) index and the last
+ * expiration and id read as cursor, so the memory used doesn't depend on the backlog. The overdue Agendas come first
+ * and are closed in parallel batches, each one a single bulk close, and the page waits its batches before the next
+ * one is read. The others are registered with the scheduler page by page. The recovery runs in its own thread, so
+ * the consumers and the readiness of the application don't wait for it.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AgendaRecoveryService {
+    private static final LocalDateTime FIRST_EXPIRATION = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AgendaRepository repository;
+    private final AgendaExpirationScheduler scheduler;
+    private final AgendaCloseService closeService;
+    private final VoteCastBacklog voteCastBacklog;
+    private final int pageSize;
+    private final int batchSize;
+    private final ExecutorService coordinator;
+    private final ExecutorService closeWorkers;
+    private final AtomicInteger running;
+    private final Counter scanned;
+    private final Counter closed;
+    private final Counter scheduled;
+    private final Counter failed;
+    private final Timer duration;
+
+    @Autowired
+    public AgendaRecoveryService(AgendaRepository repository, AgendaExpirationScheduler scheduler,
+                                 AgendaCloseService closeService, VoteCastBacklog voteCastBacklog,
+                                 @Value("${agenda.recovery.page-size:1000}") int pageSize,
+                                 @Value("${agenda.recovery.batch-size:50}") int batchSize,
+                                 @Value("${agenda.recovery.workers:8}") int workers,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 MeterRegistry meterRegistry){
+        this.repository = repository;
+        this.scheduler = scheduler;
+        this.closeService = closeService;
+        this.voteCastBacklog = voteCastBacklog;
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+        this.coordinator = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("agenda-recovery").daemon().factory());
+        this.closeWorkers = Executors.newFixedThreadPool(workers, virtualThreads
+                ? Thread.ofVirtual().name("agenda-recovery-close-", 0).factory()
+                : Thread.ofPlatform().name("agenda-recovery-close-", 0).daemon().factory());
+        this.running = new AtomicInteger();
+
+        this.scanned = meterRegistry.counter("agenda.recovery.agendas", "result", "scanned");
+        this.closed = meterRegistry.counter("agenda.recovery.agendas", "result", "closed");
+        this.scheduled = meterRegistry.counter("agenda.recovery.agendas", "result", "scheduled");
+        this.failed = meterRegistry.counter("agenda.recovery.agendas", "result", "failed");
+        this.duration = meterRegistry.timer("agenda.recovery.duration");
+        Gauge.builder("agenda.recovery.running", running, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("agenda.expiration.pending", scheduler, AgendaExpirationScheduler::pendingCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop(){
+        coordinator.shutdownNow();
+        closeWorkers.shutdownNow();
+    }
+
+    /**
+     * Method that starts the recovery of the open Agendas accepted by the filter
+     * @param filter the filter of the Agenda ids owned by this instance, tested again for every Agenda
+     * @return a CompletableFuture completed when all the accepted Agendas were closed or scheduled
+     */
+    public CompletableFuture<Void> recover(Predicate<Long> filter){
+        running.incrementAndGet();
+        return CompletableFuture.runAsync(() -> duration.record(() -> recoverPages(filter)), coordinator)
+                .whenComplete((ignored, error) -> {
+                    running.decrementAndGet();
+                    if(error != null)
+                        log.error("Fail to recover the open Agendas", error);
+                });
+    }
+
+    private void recoverPages(Predicate<Long> filter){
+        log.info("Try to recover the open Agendas");
+        LocalDateTime lastExpiration = FIRST_EXPIRATION;
+        Long lastId = 0L;
+        long recovered = 0;
+
+        while(true){
+            List<OpenAgenda> page = repository.findOpenAfter(lastExpiration, lastId, PageRequest.of(0, pageSize));
+            if(page.isEmpty())
+                break;
+
+            scanned.increment(page.size());
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> overdue = new ArrayList<>();
+            for(OpenAgenda agenda : page){
+                if(!filter.test(agenda.id()))
+                    continue;
+
+                recovered++;
+                if(agenda.expiration().isAfter(now)){
+                    scheduler.schedule(agenda.id(), agenda.expiration().atZone(ZoneId.systemDefault()).toInstant());
+                    scheduled.increment();
+                } else {
+                    overdue.add(agenda.id());
+                }
+            }
+            closeInBatches(overdue);
+
+            OpenAgenda last = page.getLast();
+            lastExpiration = last.expiration();
+            lastId = last.id();
+            if(page.size() < pageSize)
+                break;
+        }
+
+        log.info("Recovery finished, {} open Agendas closed or scheduled", recovered);
+    }
+
+    private void closeInBatches(List<Long> overdue){
+        if(overdue.isEmpty())
+            return;
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for(int start = 0; start < overdue.size(); start += batchSize){
+            List<Long> batch = overdue.subList(start, Math.min(start + batchSize, overdue.size()));
+            batches.add(CompletableFuture.runAsync(() -> closeBatch(batch), closeWorkers));
+        }
+
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void closeBatch(List<Long> agendaIds){
+        try{
+            List<Long> drained = voteCastBacklog.drained(agendaIds);
+            if(drained.size() < agendaIds.size()){
+                // the scheduler waits the votes still in the intake before closing them
+                Set<Long> ready = new HashSet<>(drained);
+                agendaIds.stream().filter(agendaId -> !ready.contains(agendaId))
+                        .forEach(agendaId -> scheduler.schedule(agendaId, Instant.now()));
+            }
+
+            if(!drained.isEmpty())
+                closed.increment(closeService.closeAll(drained));
+        } catch (RuntimeException ex){
+            log.error("Fail to close {} overdue Agendas, hand them to the scheduler", agendaIds.size(), ex);
+            failed.increment(agendaIds.size());
+            agendaIds.forEach(agendaId -> scheduler.schedule(agendaId, Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.challenge.agenda_processor.services;
+
+import com.challenge.agenda_processor.dto.VoteIdRange;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.repositories.VoteRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that counts the votes of very large Agendas in parallel
+ * <p>
+ * The Vote ids of the Agenda are split in ranges counted at the same time on a dedicated fork-join pool. Every range
+ * is an index range scan on (agenda_id, vote) that takes its own connection while the close transaction keeps holding
+ * the connection of its worker, so the parallelism is bounded by the connections left by the close and recovery
+ * workers, and the parallel count is disabled when there are less than two of them.
+ * </p>
+ * <p>
+ * The ids come from a sequence shared by all the Agendas, so the id span is only an upper bound of the votes. An
+ * Agenda is counted in parallel when the index statistics also estimate at least the parallel threshold of votes.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ParallelVoteCounter {
+    private static final String ESTIMATE_VOTES = "EXPLAIN SELECT 1 FROM vote WHERE agenda_id = ?";
+
+    private final VoteRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final long threshold;
+
+    @Autowired
+    public ParallelVoteCounter(VoteRepository repository, JdbcTemplate jdbcTemplate,
+                               @Value("${vote.count.parallelism:4}") int parallelism,
+                               @Value("${vote.count.chunk-size:250000}") long chunkSize,
+                               @Value("${vote.count.parallel-threshold:1000000}") long threshold,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                               @Value("${agenda.expiration.close-workers:10}") int closeWorkers,
+                               @Value("${agenda.recovery.workers:8}") int recoveryWorkers){
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        int freeConnections = poolSize - closeWorkers - recoveryWorkers;
+        int boundedParallelism = Math.min(parallelism, freeConnections);
+        // no compensation threads, a blocked join must not open more connections than the bound
+        this.pool = boundedParallelism >= 2
+                ? new ForkJoinPool(boundedParallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                        boundedParallelism, boundedParallelism, 1, forkJoinPool -> true, 60, TimeUnit.SECONDS)
+                : null;
+        this.chunkSize = chunkSize;
+        this.threshold = threshold;
+
+        if(pool == null)
+            log.warn("Parallel vote count is disabled, only {} of the {} connections are left by the close and recovery workers",
+                    Math.max(freeConnections, 0), poolSize);
+        else if(boundedParallelism < parallelism)
+            log.warn("Parallel vote count bounded to {} by the free connections of the pool", boundedParallelism);
+    }
+
+    @PreDestroy
+    public void stop(){
+        if(pool != null)
+            pool.shutdownNow();
+    }
+
+    /**
+     * Method that checks if the votes of a range are worth counting in parallel
+     * @param range the VoteIdRange of the Agenda
+     * @return true if the parallel count is enabled and the estimated votes reach the parallel threshold
+     */
+    public boolean accepts(VoteIdRange range){
+        if(pool == null || range.span() < threshold)
+            return false;
+
+        return estimateVotes(range.agendaId()) >= threshold;
+    }
+
+    /**
+     * Method that counts the votes of an Agenda in parallel
+     * @param range the VoteIdRange of the Agenda
+     * @return the VoteTally of the Agenda
+     */
+    public VoteTally count(VoteIdRange range){
+        log.debug("Count votes of Agenda with agendaId: '{}' in parallel, ids {} to {}", range.agendaId(), range.minId(), range.maxId());
+        return pool.invoke(new VoteRangeCountTask(range.agendaId(), range.minId(), range.maxId() + 1, chunkSize,
+                repository::countByAgendaIdAndVoteInIdRange));
+    }
+
+    // the rows estimated by the optimizer from the index, cheap but not exact
+    private long estimateVotes(Long agendaId){
+        try{
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList(ESTIMATE_VOTES, agendaId);
+            if(!plan.isEmpty() && plan.get(0).get("rows") instanceof Number rows)
+                return rows.longValue();
+        } catch (DataAccessException e){
+            log.warn("Could not estimate the votes of Agenda with agendaId: '{}'", agendaId, e);
+        }
+
+        return 0;
+    }
+}
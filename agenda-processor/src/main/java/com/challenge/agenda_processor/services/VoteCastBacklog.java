@@ -0,0 +1,169 @@
+package com.challenge.agenda_processor.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Class that tells when the votes accepted by the async intake of vote-challenge were all read for an Agenda
+ * <p>
+ * The votes are sent into the vote-cast topic keyed by the Agenda id, so all the votes of an Agenda are in the same
+ * partition. The first time an Agenda is checked the end offset of its partition is kept as its target: every vote
+ * answered with a receipt before that moment is before it. The Agenda is drained when the offset committed by the
+ * vote-challenge consumer group reaches the target, or after the max wait, so a stopped intake doesn't hold the close
+ * forever. When the topic doesn't exist the async intake was never used and every Agenda is drained.
+ * </p>
+ */
+@Slf4j
+@Component
+public class VoteCastBacklog {
+    private final Admin admin;
+    private final String topic;
+    private final String groupId;
+    private final boolean enabled;
+    private final long maxWaitMillis;
+    private final long requestTimeoutMillis;
+    private final ConcurrentHashMap<Long, Target> targets;
+    private volatile int partitions;
+
+    @Autowired
+    public VoteCastBacklog(Admin admin,
+                           @Value("${vote.intake.topic:vote-cast}") String topic,
+                           @Value("${vote.intake.group:vote-challenge}") String groupId,
+                           @Value("${vote.intake.drain.enabled:true}") boolean enabled,
+                           @Value("${vote.intake.drain.max-wait:30s}") Duration maxWait,
+                           @Value("${vote.intake.drain.request-timeout:5s}") Duration requestTimeout){
+        this.admin = admin;
+        this.topic = topic;
+        this.groupId = groupId;
+        this.enabled = enabled;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.requestTimeoutMillis = requestTimeout.toMillis();
+        this.targets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method that keeps the Agendas whose votes accepted by the async intake were all read
+     * @param agendaIds the ids of the Agendas about to close
+     * @return the ids of the Agendas that can be closed now, in the same order
+     * @throws KafkaException when the offsets cannot be read, so the close is retried
+     */
+    public List<Long> drained(Collection<Long> agendaIds){
+        if(!enabled || agendaIds.isEmpty())
+            return List.copyOf(agendaIds);
+
+        int partitionCount = partitionCount();
+        if(partitionCount == 0)
+            return List.copyOf(agendaIds);
+
+        long now = System.currentTimeMillis();
+        // a target left behind by an Agenda closed by another instance is dropped once it is long overdue
+        targets.values().removeIf(target -> now - target.deadline() > maxWaitMillis);
+        addTargets(agendaIds, partitionCount, now);
+
+        Map<TopicPartition, OffsetAndMetadata> committed =
+                get(admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata());
+
+        List<Long> drained = new ArrayList<>(agendaIds.size());
+        for(Long agendaId : agendaIds){
+            Target target = targets.get(agendaId);
+            if(target == null){
+                drained.add(agendaId);
+                continue;
+            }
+
+            OffsetAndMetadata offset = committed.get(target.partition());
+            long position = offset != null ? offset.offset() : 0;
+            if(position >= target.offset()){
+                targets.remove(agendaId);
+                drained.add(agendaId);
+            } else if(now >= target.deadline()){
+                log.warn("Votes of Agenda '{}' still not read after {}ms, partition {} at {} of {}, close anyway",
+                        agendaId, maxWaitMillis, target.partition().partition(), position, target.offset());
+                targets.remove(agendaId);
+                drained.add(agendaId);
+            } else {
+                log.debug("Agenda '{}' waits the intake of partition {}, at {} of {}",
+                        agendaId, target.partition().partition(), position, target.offset());
+            }
+        }
+
+        return drained;
+    }
+
+    private void addTargets(Collection<Long> agendaIds, int partitionCount, long now){
+        Map<Long, TopicPartition> missing = new HashMap<>();
+        for(Long agendaId : agendaIds){
+            if(!targets.containsKey(agendaId))
+                missing.put(agendaId, partitionOf(agendaId, partitionCount));
+        }
+        if(missing.isEmpty())
+            return;
+
+        Map<TopicPartition, OffsetSpec> specs = new HashMap<>();
+        missing.values().forEach(partition -> specs.put(partition, OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = get(admin.listOffsets(specs).all());
+
+        missing.forEach((agendaId, partition) -> targets.putIfAbsent(agendaId,
+                new Target(partition, endOffsets.get(partition).offset(), now + maxWaitMillis)));
+    }
+
+    // the same partition the default partitioner of the producer picks for the key
+    private TopicPartition partitionOf(Long agendaId, int partitionCount){
+        byte[] key = String.valueOf(agendaId).getBytes(StandardCharsets.UTF_8);
+        return new TopicPartition(topic, Utils.toPositive(Utils.murmur2(key)) % partitionCount);
+    }
+
+    private int partitionCount(){
+        if(partitions > 0)
+            return partitions;
+
+        try{
+            partitions = get(admin.describeTopics(List.of(topic)).allTopicNames()).get(topic).partitions().size();
+            return partitions;
+        } catch (UnknownTopicOrPartitionException ex){
+            log.debug("Topic '{}' doesn't exist, the async intake was never used", topic);
+            return 0;
+        }
+    }
+
+    private <T> T get(KafkaFuture<T> future){
+        try{
+            return future.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex){
+            if(ex.getCause() instanceof KafkaException kafkaEx)
+                throw kafkaEx;
+
+            throw new KafkaException(ex.getCause());
+        } catch (TimeoutException ex){
+            throw new KafkaException("Offsets of topic '" + topic + "' not read in time", ex);
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new KafkaException(ex);
+        }
+    }
+
+    private record Target(TopicPartition partition, long offset, long deadline) {}
+}
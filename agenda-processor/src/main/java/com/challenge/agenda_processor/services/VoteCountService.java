@@ -0,0 +1,96 @@
+package com.challenge.agenda_processor.services;
+
+import com.challenge.agenda_processor.constants.TallyConstants;
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteCount;
+import com.challenge.agenda_processor.dto.VoteIdRange;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.repositories.AgendaTallyRepository;
+import com.challenge.agenda_processor.repositories.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that counts the votes of the Agendas
+ */
+@Slf4j
+@Service
+public class VoteCountService {
+    private final VoteRepository voteRepository;
+    private final AgendaTallyRepository tallyRepository;
+    private final ParallelVoteCounter parallelVoteCounter;
+
+    @Autowired
+    public VoteCountService(VoteRepository voteRepository, AgendaTallyRepository tallyRepository,
+                            ParallelVoteCounter parallelVoteCounter) {
+        this.voteRepository = voteRepository;
+        this.tallyRepository = tallyRepository;
+        this.parallelVoteCounter = parallelVoteCounter;
+    }
+
+    /**
+     * Method that counts the votes of an Agenda
+     * @param agendaId the id of the Agenda
+     * @return the VoteTally of the Agenda
+     */
+    public VoteTally countVotes(Long agendaId){
+        return countVotes(List.of(agendaId)).get(agendaId);
+    }
+
+    /**
+     * Method that counts the votes of many Agendas at once
+     * <p>
+     * The running tallies kept by vote-challenge are read with a single query. Only the tallies started when the Agenda
+     * was opened are used, an Agenda opened before the tallies were maintained only has the votes cast after that.
+     * The Agendas without such tally are counted by the database without loading their votes, the very large ones in
+     * parallel ranges of ids and all the others with a single GROUP BY
+     * </p>
+     * @param agendaIds the ids of the Agendas
+     * @return the VoteTally of every Agenda by its id, with zero votes when the Agenda has no votes
+     */
+    public Map<Long, VoteTally> countVotes(Collection<Long> agendaIds){
+        Map<Long, VoteTally> tallies = new HashMap<>();
+        for(VoteTally tally : tallyRepository.sumCompleteByAgendaIds(agendaIds, TallyConstants.OPENING_STRIPE))
+            tallies.put(tally.agendaId(), tally);
+
+        List<Long> untallied = agendaIds.stream().filter(agendaId -> !tallies.containsKey(agendaId)).toList();
+        if(!untallied.isEmpty()){
+            log.debug("{} Agendas don't have tally, count their votes", untallied.size());
+            List<Long> grouped = new ArrayList<>();
+            for(VoteIdRange range : voteRepository.findIdRangesByAgendaIds(untallied)){
+                if(parallelVoteCounter.accepts(range))
+                    tallies.put(range.agendaId(), parallelVoteCounter.count(range));
+                else
+                    grouped.add(range.agendaId());
+            }
+
+            if(!grouped.isEmpty())
+                countGrouped(grouped, tallies);
+        }
+
+        for(Long agendaId : agendaIds)
+            tallies.putIfAbsent(agendaId, new VoteTally(agendaId, 0, 0));
+
+        return tallies;
+    }
+
+    private void countGrouped(List<Long> agendaIds, Map<Long, VoteTally> tallies){
+        Map<Long, long[]> totals = new HashMap<>();
+        for(VoteCount count : voteRepository.countByAgendaIdsGroupByVote(agendaIds)){
+            long[] total = totals.computeIfAbsent(count.agendaId(), agendaId -> new long[2]);
+            if(VoteConstants.YES.equals(count.vote()))
+                total[0] = count.total();
+            else if(VoteConstants.NO.equals(count.vote()))
+                total[1] = count.total();
+        }
+
+        totals.forEach((agendaId, total) -> tallies.put(agendaId, new VoteTally(agendaId, total[0], total[1])));
+    }
+}
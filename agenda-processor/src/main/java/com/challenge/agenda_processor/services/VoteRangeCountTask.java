@@ -0,0 +1,55 @@
+package com.challenge.agenda_processor.services;
+
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.interfaces.IVoteRangeCounter;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task that counts the votes of an Agenda inside a range of Vote ids
+ * <p>
+ * The range is split in halves until it is not bigger than the chunk size, each chunk is counted by the
+ * IVoteRangeCounter and the partial tallies are summed on the way back
+ * </p>
+ */
+public class VoteRangeCountTask extends RecursiveTask<VoteTally> {
+    private final Long agendaId;
+    private final long fromId;
+    private final long toId;
+    private final long chunkSize;
+    private final IVoteRangeCounter counter;
+
+    /**
+     * @param agendaId the id of the Agenda
+     * @param fromId the first Vote id of the range, inclusive
+     * @param toId the last Vote id of the range, exclusive
+     * @param chunkSize the biggest range counted by a single call of the counter
+     * @param counter the counter of the votes of a range
+     */
+    public VoteRangeCountTask(Long agendaId, long fromId, long toId, long chunkSize, IVoteRangeCounter counter){
+        this.agendaId = agendaId;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.chunkSize = chunkSize;
+        this.counter = counter;
+    }
+
+    @Override
+    protected VoteTally compute(){
+        if(toId - fromId <= chunkSize){
+            long votesYes = counter.count(agendaId, VoteConstants.YES, fromId, toId);
+            long votesNo = counter.count(agendaId, VoteConstants.NO, fromId, toId);
+            return new VoteTally(agendaId, votesYes, votesNo);
+        }
+
+        long middle = fromId + (toId - fromId) / 2;
+        VoteRangeCountTask left = new VoteRangeCountTask(agendaId, fromId, middle, chunkSize, counter);
+        VoteRangeCountTask right = new VoteRangeCountTask(agendaId, middle, toId, chunkSize, counter);
+        left.fork();
+        VoteTally rightTally = right.compute();
+        VoteTally leftTally = left.join();
+
+        return new VoteTally(agendaId, leftTally.votesYes() + rightTally.votesYes(), leftTally.votesNo() + rightTally.votesNo());
+    }
+}
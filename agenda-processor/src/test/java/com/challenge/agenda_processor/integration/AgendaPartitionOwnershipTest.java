@@ -0,0 +1,191 @@
+package com.challenge.agenda_processor.integration;
+
+import com.challenge.agenda_processor.consumers.AgendaOpenedConsumer;
+import com.challenge.agenda_processor.consumers.AgendaOpenedRebalanceListener;
+import com.challenge.agenda_processor.dto.OpenAgenda;
+import com.challenge.agenda_processor.models.Agenda;
+import com.challenge.agenda_processor.repositories.AgendaRepository;
+import com.challenge.agenda_processor.schedulers.AgendaExpirationScheduler;
+import com.challenge.agenda_processor.services.AgendaCloseService;
+import com.challenge.agenda_processor.services.AgendaRecoveryService;
+import com.challenge.agenda_processor.services.VoteCastBacklog;
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.codec.EventSerializer;
+import com.challenge.vote_events.events.AgendaOpenedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs several agenda-processor instances against an embedded broker and checks that every open Agenda is scheduled
+ * by exactly one of them while partitions move between the instances
+ */
+public class AgendaPartitionOwnershipTest {
+    private static final int PARTITIONS = 4;
+    private static final String TOPIC = AgendaOpenedConsumer.AGENDA_OPENED_TOPIC;
+
+    private EmbeddedKafkaBroker broker;
+    private Set<Agenda> openAgendas;
+    private AgendaRepository repository;
+
+    @BeforeEach
+    void setUp(){
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        openAgendas = ConcurrentHashMap.newKeySet();
+        for(long id = 1; id <= 20; id++)
+            openAgendas.add(agenda(id));
+
+        repository = mock(AgendaRepository.class);
+        when(repository.findOpenAfter(any(LocalDateTime.class), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            LocalDateTime expiration = invocation.getArgument(0);
+            Long id = invocation.getArgument(1);
+            Pageable page = invocation.getArgument(2);
+            return openAgendas.stream()
+                    .filter(agenda -> agenda.getExpiration().isAfter(expiration)
+                            || (agenda.getExpiration().isEqual(expiration) && agenda.getId() > id))
+                    .sorted(Comparator.comparing(Agenda::getExpiration).thenComparing(Agenda::getId))
+                    .limit(page.getPageSize())
+                    .map(agenda -> new OpenAgenda(agenda.getId(), agenda.getExpiration()))
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown(){
+        broker.destroy();
+    }
+
+    @Test
+    void instances_shouldSplitAgendas_byOwnedPartitions(){
+        Instance first = new Instance("first");
+        Instance second = new Instance("second");
+        try{
+            first.start();
+            await().atMost(Duration.ofSeconds(30)).until(() -> first.scheduler.pendingCount() == 20);
+
+            second.start();
+            await().atMost(Duration.ofSeconds(30)).until(() ->
+                    first.listener.getOwnedPartitions().size() == PARTITIONS / 2
+                            && second.listener.getOwnedPartitions().size() == PARTITIONS / 2
+                            && first.scheduler.pendingCount() + second.scheduler.pendingCount() == 20);
+
+            Set<Integer> owned = new HashSet<>(first.listener.getOwnedPartitions());
+            owned.retainAll(second.listener.getOwnedPartitions());
+            assertTrue(owned.isEmpty());
+
+            KafkaTemplate<String, AgendaOpenedEvent> template = template();
+            for(long id = 100; id < 108; id++){
+                Agenda agenda = agenda(id);
+                openAgendas.add(agenda);
+                template.send(TOPIC, String.valueOf(id), new AgendaOpenedEvent(id, agenda.getExpiration(),
+                        agenda.getExpiration().atZone(ZoneId.systemDefault()).toInstant()));
+            }
+            await().atMost(Duration.ofSeconds(30)).until(() ->
+                    first.scheduler.pendingCount() + second.scheduler.pendingCount() == 28);
+
+            second.stop();
+            await().atMost(Duration.ofSeconds(60)).until(() ->
+                    first.listener.getOwnedPartitions().size() == PARTITIONS
+                            && first.scheduler.pendingCount() == 28);
+            assertEquals(0, second.scheduler.pendingCount());
+        } finally {
+            first.stop();
+            second.stop();
+        }
+    }
+
+    private Agenda agenda(long id){
+        Agenda agenda = new Agenda("Agenda " + id, "", LocalDateTime.now().plusHours(1), new HashSet<>(), true);
+        ReflectionTestUtils.setField(agenda, "id", id);
+        return agenda;
+    }
+
+    private KafkaTemplate<String, AgendaOpenedEvent> template(){
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class)));
+    }
+
+    private class Instance {
+        private final AgendaExpirationScheduler scheduler;
+        private final AgendaRecoveryService recoveryService;
+        private final AgendaOpenedRebalanceListener listener;
+        private final KafkaMessageListenerContainer<String, AgendaOpenedEvent> container;
+
+        private Instance(String name){
+            AgendaCloseService closeService = mock(AgendaCloseService.class);
+            VoteCastBacklog voteCastBacklog = new VoteCastBacklog(null, "vote-cast", "vote-challenge", false,
+                    Duration.ofSeconds(30), Duration.ofSeconds(5));
+            scheduler = new AgendaExpirationScheduler(closeService, voteCastBacklog, Duration.ofMillis(100), 64, 4,
+                    1, 100, Duration.ofSeconds(1), 500, Duration.ofSeconds(1), false);
+            recoveryService = new AgendaRecoveryService(repository, scheduler, closeService, voteCastBacklog, 5, 5, 1,
+                    false, new SimpleMeterRegistry());
+            listener = new AgendaOpenedRebalanceListener(scheduler, recoveryService);
+            AgendaOpenedConsumer consumer = new AgendaOpenedConsumer(scheduler);
+
+            EventDeserializer<AgendaOpenedEvent> deserializer = new EventDeserializer<>(AgendaOpenedEvent.class);
+            DefaultKafkaConsumerFactory<String, AgendaOpenedEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                    Map.of(
+                            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                            ConsumerConfig.GROUP_ID_CONFIG, "agenda-processor",
+                            ConsumerConfig.CLIENT_ID_CONFIG, name,
+                            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                            ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName()
+                    ),
+                    new StringDeserializer(),
+                    deserializer
+            );
+
+            ContainerProperties properties = new ContainerProperties(TOPIC);
+            properties.setConsumerRebalanceListener(listener);
+            properties.setMessageListener((MessageListener<String, AgendaOpenedEvent>) record -> consumer.scheduleAgenda(record.value()));
+            container = new KafkaMessageListenerContainer<>(consumerFactory, properties);
+        }
+
+        private void start(){
+            scheduler.start();
+            container.start();
+        }
+
+        private void stop(){
+            container.stop();
+            recoveryService.stop();
+            scheduler.stop();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.challenge.agenda_processor.unit.consumers;
+
+import com.challenge.agenda_processor.consumers.AgendaOpenedConsumer;
+import com.challenge.agenda_processor.consumers.AgendaOpenedRebalanceListener;
+import com.challenge.agenda_processor.schedulers.AgendaExpirationScheduler;
+import com.challenge.agenda_processor.services.AgendaRecoveryService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AgendaOpenedRebalanceListenerTest {
+    private static final int PARTITIONS = 4;
+    private static final String TOPIC = AgendaOpenedConsumer.AGENDA_OPENED_TOPIC;
+
+    @Mock
+    private AgendaExpirationScheduler scheduler;
+
+    @Mock
+    private AgendaRecoveryService recoveryService;
+
+    @Mock
+    private Consumer<String, Object> consumer;
+
+    @InjectMocks
+    private AgendaOpenedRebalanceListener listener;
+
+    @Test
+    void onPartitionsAssigned_shouldRecoverOnlyAgendasOfAssignedPartitions(){
+        when(consumer.partitionsFor(TOPIC)).thenReturn(partitionInfos());
+        when(recoveryService.recover(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        listener.onPartitionsAssigned(consumer, List.of(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1)));
+
+        Predicate<Long> filter = captureRecoveryFilter();
+        for(long id = 1; id <= 20; id++)
+            assertEquals(AgendaOpenedRebalanceListener.partitionFor(id, PARTITIONS) <= 1, filter.test(id));
+        assertEquals(Set.of(0, 1), listener.getOwnedPartitions());
+    }
+
+    @Test
+    void onPartitionsRevokedBeforeCommit_shouldCancelAgendasOfRevokedPartitions(){
+        when(consumer.partitionsFor(TOPIC)).thenReturn(partitionInfos());
+        when(recoveryService.recover(any())).thenReturn(CompletableFuture.completedFuture(null));
+        listener.onPartitionsAssigned(consumer, List.of(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1)));
+
+        listener.onPartitionsRevokedBeforeCommit(consumer, List.of(new TopicPartition(TOPIC, 1)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Predicate<Long>> filter = ArgumentCaptor.forClass(Predicate.class);
+        verify(scheduler, times(1)).cancelIf(filter.capture());
+        Predicate<Long> recoveryFilter = captureRecoveryFilter();
+        for(long id = 1; id <= 20; id++){
+            int partition = AgendaOpenedRebalanceListener.partitionFor(id, PARTITIONS);
+            assertEquals(partition == 1, filter.getValue().test(id));
+            assertEquals(partition == 0, recoveryFilter.test(id));
+        }
+        assertEquals(Set.of(0), listener.getOwnedPartitions());
+    }
+
+    @Test
+    void onPartitionsAssigned_shouldIgnoreOtherTopics(){
+        listener.onPartitionsAssigned(consumer, List.of(new TopicPartition("other-topic", 0)));
+
+        verifyNoInteractions(recoveryService, scheduler);
+    }
+
+    @Test
+    void partitionFor_shouldKeepAgendaInPartitionRange(){
+        for(long id = -50; id <= 50; id++){
+            int partition = AgendaOpenedRebalanceListener.partitionFor(id, PARTITIONS);
+            assertTrue(partition >= 0 && partition < PARTITIONS);
+        }
+    }
+
+    private Predicate<Long> captureRecoveryFilter(){
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Predicate<Long>> filter = ArgumentCaptor.forClass(Predicate.class);
+        verify(recoveryService, times(1)).recover(filter.capture());
+        return filter.getValue();
+    }
+
+    private List<PartitionInfo> partitionInfos(){
+        return List.of(
+                new PartitionInfo(TOPIC, 0, null, null, null),
+                new PartitionInfo(TOPIC, 1, null, null, null),
+                new PartitionInfo(TOPIC, 2, null, null, null),
+                new PartitionInfo(TOPIC, 3, null, null, null));
+    }
+}
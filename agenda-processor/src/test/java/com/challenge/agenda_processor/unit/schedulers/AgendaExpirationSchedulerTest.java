@@ -0,0 +1,118 @@
+package com.challenge.agenda_processor.unit.schedulers;
+
+import com.challenge.agenda_processor.schedulers.AgendaExpirationScheduler;
+import com.challenge.agenda_processor.services.AgendaCloseService;
+import com.challenge.agenda_processor.services.VoteCastBacklog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AgendaExpirationSchedulerTest {
+    @Mock
+    private AgendaCloseService closeService;
+
+    @Mock
+    private VoteCastBacklog voteCastBacklog;
+
+    private AgendaExpirationScheduler scheduler;
+
+    @BeforeEach
+    void setUp(){
+        lenient().when(voteCastBacklog.drained(anyCollection())).thenAnswer(i -> List.copyOf(i.<Collection<Long>>getArgument(0)));
+        scheduler = new AgendaExpirationScheduler(closeService, voteCastBacklog, Duration.ofMillis(10), 64, 3, 2, 100,
+                Duration.ofMillis(50), 2, Duration.ofMillis(50), false);
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown(){
+        scheduler.stop();
+    }
+
+    @Test
+    void schedule_shouldCloseAgenda_whenItExpires(){
+        scheduler.schedule(1L, Instant.now().plusMillis(50));
+
+        verify(closeService, after(20).never()).closeAll(List.of(1L));
+        verify(closeService, timeout(1000).times(1)).closeAll(List.of(1L));
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    void schedule_shouldCloseAgendaInNextTick_whenAlreadyExpired(){
+        scheduler.schedule(1L, Instant.now().minusSeconds(60));
+
+        verify(closeService, timeout(1000).times(1)).closeAll(List.of(1L));
+    }
+
+    @Test
+    void schedule_shouldReplacePreviousSchedule_whenAgendaIsScheduledAgain(){
+        scheduler.schedule(1L, Instant.now().plusMillis(30));
+        scheduler.schedule(1L, Instant.now().plusSeconds(60));
+
+        verify(closeService, after(300).never()).closeAll(List.of(1L));
+        assertEquals(1, scheduler.pendingCount());
+    }
+
+    @Test
+    void cancel_shouldNotCloseAgenda(){
+        scheduler.schedule(1L, Instant.now().plusMillis(30));
+
+        assertTrue(scheduler.cancel(1L));
+        verify(closeService, after(300).never()).closeAll(anyList());
+        assertFalse(scheduler.cancel(1L));
+    }
+
+    @Test
+    void schedule_shouldWaitIntakeBacklog_beforeClosingAgenda(){
+        when(voteCastBacklog.drained(List.of(1L))).thenReturn(List.of(), List.of(1L));
+        scheduler.schedule(1L, Instant.now());
+
+        verify(closeService, timeout(1000).times(1)).closeAll(List.of(1L));
+        verify(voteCastBacklog, times(2)).drained(List.of(1L));
+    }
+
+    @Test
+    void schedule_shouldRetryClose_whenCloseFails(){
+        when(closeService.closeAll(List.of(1L))).thenThrow(new RuntimeException("database down")).thenReturn(1);
+        scheduler.schedule(1L, Instant.now());
+
+        verify(closeService, timeout(1000).times(2)).closeAll(List.of(1L));
+    }
+
+    @Test
+    void schedule_shouldCloseAgendasOfTheSameTick_inBatches(){
+        Instant expiresAt = Instant.now().plusMillis(50);
+        for(long id = 1; id <= 5; id++)
+            scheduler.schedule(id, expiresAt);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> batches = ArgumentCaptor.forClass(List.class);
+        verify(closeService, timeout(1000).times(3)).closeAll(batches.capture());
+        List<Long> closed = batches.getAllValues().stream().flatMap(List::stream).sorted().toList();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), closed);
+        assertTrue(batches.getAllValues().stream().allMatch(batch -> batch.size() <= 2));
+    }
+
+    @Test
+    void cancelIf_shouldCancelOnlyAcceptedAgendas(){
+        for(long id = 1; id <= 10; id++)
+            scheduler.schedule(id, Instant.now().plusSeconds(60));
+
+        assertEquals(5, scheduler.cancelIf(id -> id % 2 == 0));
+        assertEquals(5, scheduler.pendingCount());
+    }
+}
@@ -0,0 +1,94 @@
+package com.challenge.agenda_processor.unit.schedulers;
+
+import com.challenge.agenda_processor.schedulers.HierarchicalTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+
+    @Test
+    void advance_shouldExpireTimeout_onlyAfterItsDeadline(){
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, 3, 0);
+        wheel.schedule("agenda", 35);
+
+        assertTrue(wheel.advance(30).isEmpty());
+        List<HierarchicalTimingWheel.Timeout<String>> expired = wheel.advance(40);
+
+        assertEquals(1, expired.size());
+        assertEquals("agenda", expired.get(0).getValue());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldCascadeTimeouts_fromUpperLevels(){
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 4, 3, 0);
+        for(long deadline = 1; deadline <= 60; deadline++)
+            wheel.schedule(deadline, deadline);
+
+        for(long now = 1; now <= 60; now++){
+            List<HierarchicalTimingWheel.Timeout<Long>> expired = wheel.advance(now);
+
+            assertEquals(1, expired.size());
+            assertEquals(now, expired.get(0).getValue());
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldKeepTimeout_whenDeadlineIsBeyondTheWheelSpan(){
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 4, 2, 0);
+        wheel.schedule("far", 100);
+
+        assertTrue(wheel.advance(99).isEmpty());
+        assertEquals(1, wheel.advance(100).size());
+    }
+
+    @Test
+    void schedule_shouldExpireInNextTick_whenDeadlineAlreadyPassed(){
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, 2, 1000);
+        wheel.schedule("late", 500);
+
+        assertEquals(1, wheel.advance(1010).size());
+    }
+
+    @Test
+    void cancel_shouldRemoveTimeout_beforeItExpires(){
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 8, 2, 0);
+        HierarchicalTimingWheel.Timeout<String> first = wheel.schedule("first", 5);
+        wheel.schedule("second", 5);
+
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+
+        List<HierarchicalTimingWheel.Timeout<String>> expired = wheel.advance(5);
+        assertEquals(1, expired.size());
+        assertEquals("second", expired.get(0).getValue());
+        assertFalse(wheel.cancel(expired.get(0)));
+    }
+
+    @Test
+    void advance_shouldExpireEachTimeout_inTheWindowOfItsDeadline(){
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 64, 4, 0);
+        for(long i = 100_000; i > 0; i--)
+            wheel.schedule(i, i);
+
+        int total = 0;
+        for(long now = 1000; now <= 100_000; now += 1000){
+            for(HierarchicalTimingWheel.Timeout<Long> timeout : wheel.advance(now)){
+                assertTrue(timeout.getValue() > now - 1000 && timeout.getValue() <= now);
+                total++;
+            }
+        }
+
+        assertEquals(100_000, total);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenWheelSizeIsNotPowerOfTwo(){
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(10, 10, 2, 0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.challenge.agenda_processor.unit.services;
+
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.models.Agenda;
+import com.challenge.agenda_processor.repositories.AgendaRepository;
+import com.challenge.agenda_processor.services.AgendaCloseService;
+import com.challenge.agenda_processor.services.VoteCountService;
+import com.challenge.vote_events.constants.EventHeaderConstants;
+import com.challenge.vote_events.events.AgendaResult;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AgendaCloseServiceTest {
+    private static final LocalDateTime EXPIRATION = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private AgendaRepository repository;
+
+    @Mock
+    private KafkaTemplate<String, AgendaResult> kafkaTemplate;
+
+    @Mock
+    private VoteCountService voteCountService;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, AgendaResult>> records;
+
+    @InjectMocks
+    private AgendaCloseService service;
+
+    @Test
+    void close_shouldPublishResult_whenAgendaWasOpen(){
+        when(repository.findOpenByIdInForUpdate(List.of(1L))).thenReturn(List.of(agenda(1L)));
+        when(voteCountService.countVotes(List.of(1L))).thenReturn(Map.of(1L, new VoteTally(1L, 5, 2)));
+        CompletableFuture<SendResult<String, AgendaResult>> sent = CompletableFuture.completedFuture(null);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+
+        assertTrue(service.close(1L));
+        verify(repository, times(1)).closeAllIfOpen(List.of(1L));
+        verify(kafkaTemplate, times(1)).send(records.capture());
+        assertRecord(records.getValue(), 1L, new AgendaResult(1L, "Agenda 1", "Details", 5, 2, VoteConstants.YES));
+    }
+
+    @Test
+    void close_shouldNotPublish_whenAgendaIsAlreadyClosed(){
+        when(repository.findOpenByIdInForUpdate(List.of(1L))).thenReturn(List.of());
+
+        assertFalse(service.close(1L));
+        verify(repository, never()).closeAllIfOpen(any());
+        verifyNoInteractions(voteCountService, kafkaTemplate);
+    }
+
+    @Test
+    void closeAll_shouldCloseCountAndPublish_onceForAllOpenAgendas(){
+        List<Long> agendaIds = List.of(1L, 2L, 3L);
+        when(repository.findOpenByIdInForUpdate(agendaIds)).thenReturn(List.of(agenda(1L), agenda(3L)));
+        when(voteCountService.countVotes(List.of(1L, 3L))).thenReturn(Map.of(
+                1L, new VoteTally(1L, 1, 4),
+                3L, new VoteTally(3L, 2, 2)));
+        CompletableFuture<SendResult<String, AgendaResult>> sent = CompletableFuture.completedFuture(null);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+
+        assertEquals(2, service.closeAll(agendaIds));
+        verify(repository, times(1)).closeAllIfOpen(List.of(1L, 3L));
+        verify(voteCountService, times(1)).countVotes(List.of(1L, 3L));
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertRecord(records.getAllValues().get(0), 1L, new AgendaResult(1L, "Agenda 1", "Details", 1, 4, VoteConstants.NO));
+        assertRecord(records.getAllValues().get(1), 3L, new AgendaResult(3L, "Agenda 3", "Details", 2, 2, VoteConstants.DRAW));
+        verify(kafkaTemplate, times(1)).flush();
+    }
+
+    @Test
+    void closeAll_shouldThrowException_whenResultIsNotSent(){
+        when(repository.findOpenByIdInForUpdate(List.of(1L))).thenReturn(List.of(agenda(1L)));
+        when(voteCountService.countVotes(List.of(1L))).thenReturn(Map.of(1L, new VoteTally(1L, 0, 0)));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("kafka down")));
+
+        assertThrows(RuntimeException.class, () -> service.closeAll(List.of(1L)));
+    }
+
+    private void assertRecord(ProducerRecord<String, AgendaResult> record, Long agendaId, AgendaResult result){
+        assertEquals("agenda-finished", record.topic());
+        assertEquals(String.valueOf(agendaId), record.key());
+        assertEquals(result, record.value());
+        assertEquals(agendaId + "-" + EXPIRATION, new String(
+                record.headers().lastHeader(EventHeaderConstants.IDEMPOTENCY_KEY).value(), StandardCharsets.UTF_8));
+    }
+
+    private Agenda agenda(Long id){
+        Agenda agenda = new Agenda("Agenda " + id, "Details", EXPIRATION, new HashSet<>(), true);
+        ReflectionTestUtils.setField(agenda, "id", id);
+        return agenda;
+    }
+}
@@ -0,0 +1,112 @@
+package com.challenge.agenda_processor.unit.services;
+
+import com.challenge.agenda_processor.dto.OpenAgenda;
+import com.challenge.agenda_processor.repositories.AgendaRepository;
+import com.challenge.agenda_processor.schedulers.AgendaExpirationScheduler;
+import com.challenge.agenda_processor.services.AgendaCloseService;
+import com.challenge.agenda_processor.services.AgendaRecoveryService;
+import com.challenge.agenda_processor.services.VoteCastBacklog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AgendaRecoveryServiceTest {
+    @Mock
+    private AgendaRepository repository;
+
+    @Mock
+    private AgendaExpirationScheduler scheduler;
+
+    @Mock
+    private AgendaCloseService closeService;
+
+    @Mock
+    private VoteCastBacklog voteCastBacklog;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AgendaRecoveryService service;
+
+    @BeforeEach
+    void setUp(){
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(voteCastBacklog.drained(anyCollection())).thenAnswer(i -> List.copyOf(i.<Collection<Long>>getArgument(0)));
+        service = new AgendaRecoveryService(repository, scheduler, closeService, voteCastBacklog, 2, 1, 2, false, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown(){
+        service.stop();
+    }
+
+    @Test
+    void recover_shouldCloseOverdueAndScheduleTheOthers_pageByPage(){
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        LocalDateTime future = LocalDateTime.now().plusHours(1);
+        when(repository.findOpenAfter(any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new OpenAgenda(1L, past), new OpenAgenda(2L, past)))
+                .thenReturn(List.of(new OpenAgenda(3L, future)));
+        when(closeService.closeAll(anyList())).thenReturn(1);
+
+        service.recover(agendaId -> true).join();
+
+        verify(closeService, times(1)).closeAll(List.of(1L));
+        verify(closeService, times(1)).closeAll(List.of(2L));
+        verify(scheduler, times(1)).schedule(eq(3L), any(Instant.class));
+        verify(repository, times(1)).findOpenAfter(eq(past), eq(2L), any(Pageable.class));
+        assertEquals(2.0, meterRegistry.counter("agenda.recovery.agendas", "result", "closed").count());
+        assertEquals(1.0, meterRegistry.counter("agenda.recovery.agendas", "result", "scheduled").count());
+    }
+
+    @Test
+    void recover_shouldSkipAgendas_notAcceptedByFilter(){
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        when(repository.findOpenAfter(any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new OpenAgenda(1L, past)));
+
+        service.recover(agendaId -> agendaId != 1L).join();
+
+        verifyNoInteractions(closeService, scheduler);
+        assertEquals(1.0, meterRegistry.counter("agenda.recovery.agendas", "result", "scanned").count());
+    }
+
+    @Test
+    void recover_shouldHandAgendaToScheduler_whenCloseFails(){
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        when(repository.findOpenAfter(any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new OpenAgenda(1L, past)));
+        when(closeService.closeAll(List.of(1L))).thenThrow(new RuntimeException("database down"));
+
+        service.recover(agendaId -> true).join();
+
+        verify(scheduler, times(1)).schedule(eq(1L), any(Instant.class));
+        assertEquals(1.0, meterRegistry.counter("agenda.recovery.agendas", "result", "failed").count());
+    }
+
+    @Test
+    void recover_shouldHandAgendaToScheduler_whenIntakeStillHasItsVotes(){
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        when(repository.findOpenAfter(any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new OpenAgenda(1L, past)));
+        when(voteCastBacklog.drained(List.of(1L))).thenReturn(List.of());
+
+        service.recover(agendaId -> true).join();
+
+        verify(closeService, never()).closeAll(anyList());
+        verify(scheduler, times(1)).schedule(eq(1L), any(Instant.class));
+    }
+}
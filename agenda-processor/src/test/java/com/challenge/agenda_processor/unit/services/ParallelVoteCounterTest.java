@@ -0,0 +1,78 @@
+package com.challenge.agenda_processor.unit.services;
+
+import com.challenge.agenda_processor.dto.VoteIdRange;
+import com.challenge.agenda_processor.repositories.VoteRepository;
+import com.challenge.agenda_processor.services.ParallelVoteCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ParallelVoteCounterTest {
+    private static final long THRESHOLD = 1_000_000;
+
+    @Mock
+    private VoteRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ParallelVoteCounter counter(int poolSize){
+        return new ParallelVoteCounter(repository, jdbcTemplate, 4, 250_000, THRESHOLD, poolSize, 10, 8);
+    }
+
+    @Test
+    void accepts_shouldReturnFalse_whenIdSpanIsBelowThreshold(){
+        ParallelVoteCounter counter = counter(24);
+        try{
+            assertFalse(counter.accepts(new VoteIdRange(1L, 1L, THRESHOLD - 1)));
+            verifyNoInteractions(jdbcTemplate);
+        } finally {
+            counter.stop();
+        }
+    }
+
+    @Test
+    void accepts_shouldReturnFalse_whenEstimatedVotesAreBelowThreshold(){
+        ParallelVoteCounter counter = counter(24);
+        when(jdbcTemplate.queryForList(anyString(), eq(1L))).thenReturn(List.of(Map.of("rows", 1_000L)));
+        try{
+            assertFalse(counter.accepts(new VoteIdRange(1L, 1L, 50_000_000L)));
+        } finally {
+            counter.stop();
+        }
+    }
+
+    @Test
+    void accepts_shouldReturnTrue_whenEstimatedVotesReachThreshold(){
+        ParallelVoteCounter counter = counter(24);
+        when(jdbcTemplate.queryForList(anyString(), eq(1L))).thenReturn(List.of(Map.of("rows", 2_000_000L)));
+        try{
+            assertTrue(counter.accepts(new VoteIdRange(1L, 1L, 50_000_000L)));
+        } finally {
+            counter.stop();
+        }
+    }
+
+    @Test
+    void accepts_shouldReturnFalse_whenWorkersHoldAllConnections(){
+        ParallelVoteCounter counter = counter(10);
+        try{
+            assertFalse(counter.accepts(new VoteIdRange(1L, 1L, 50_000_000L)));
+            verifyNoInteractions(jdbcTemplate);
+        } finally {
+            counter.stop();
+        }
+    }
+}
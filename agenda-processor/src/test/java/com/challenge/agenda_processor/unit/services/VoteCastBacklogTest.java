@@ -0,0 +1,120 @@
+package com.challenge.agenda_processor.unit.services;
+
+import com.challenge.agenda_processor.services.VoteCastBacklog;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteCastBacklogTest {
+    private static final int PARTITIONS = 6;
+
+    @Mock
+    private Admin admin;
+
+    @Mock
+    private DescribeTopicsResult describeResult;
+
+    @Mock
+    private ListOffsetsResult offsetsResult;
+
+    @Mock
+    private ListConsumerGroupOffsetsResult groupOffsetsResult;
+
+    private VoteCastBacklog backlog(Duration maxWait){
+        return new VoteCastBacklog(admin, "vote-cast", "vote-challenge", true, maxWait, Duration.ofSeconds(1));
+    }
+
+    private TopicPartition partitionOf(Long agendaId){
+        byte[] key = String.valueOf(agendaId).getBytes(StandardCharsets.UTF_8);
+        return new TopicPartition("vote-cast", Utils.toPositive(Utils.murmur2(key)) % PARTITIONS);
+    }
+
+    private void givenTopic(){
+        Node node = new Node(0, "localhost", 9092);
+        List<TopicPartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(i -> new TopicPartitionInfo(i, node, List.of(node), List.of(node)))
+                .toList();
+        when(admin.describeTopics(List.of("vote-cast"))).thenReturn(describeResult);
+        when(describeResult.allTopicNames())
+                .thenReturn(KafkaFuture.completedFuture(Map.of("vote-cast", new TopicDescription("vote-cast", false, partitions))));
+    }
+
+    private void givenEndOffset(TopicPartition partition, long offset){
+        when(admin.listOffsets(anyMap())).thenReturn(offsetsResult);
+        when(offsetsResult.all()).thenReturn(KafkaFuture.completedFuture(
+                Map.of(partition, new ListOffsetsResult.ListOffsetsResultInfo(offset, -1, Optional.empty()))));
+    }
+
+    @Test
+    void drained_shouldWaitAgenda_untilCommittedOffsetReachesEndOffsetOfFirstCheck(){
+        TopicPartition partition = partitionOf(1L);
+        givenTopic();
+        givenEndOffset(partition, 10);
+        when(admin.listConsumerGroupOffsets("vote-challenge")).thenReturn(groupOffsetsResult);
+        when(groupOffsetsResult.partitionsToOffsetAndMetadata())
+                .thenReturn(KafkaFuture.completedFuture(Map.of(partition, new OffsetAndMetadata(5))))
+                .thenReturn(KafkaFuture.completedFuture(Map.of(partition, new OffsetAndMetadata(10))));
+        VoteCastBacklog backlog = backlog(Duration.ofMinutes(1));
+
+        assertEquals(List.of(), backlog.drained(List.of(1L)));
+        assertEquals(List.of(1L), backlog.drained(List.of(1L)));
+        verify(admin, times(1)).listOffsets(anyMap());
+        verify(admin, times(1)).describeTopics(List.of("vote-cast"));
+    }
+
+    @Test
+    void drained_shouldReturnAgenda_whenMaxWaitIsOver(){
+        TopicPartition partition = partitionOf(1L);
+        givenTopic();
+        givenEndOffset(partition, 10);
+        when(admin.listConsumerGroupOffsets("vote-challenge")).thenReturn(groupOffsetsResult);
+        when(groupOffsetsResult.partitionsToOffsetAndMetadata()).thenReturn(KafkaFuture.completedFuture(Map.of()));
+
+        assertEquals(List.of(1L), backlog(Duration.ZERO).drained(List.of(1L)));
+    }
+
+    @Test
+    void drained_shouldReturnAllAgendas_whenTopicDoesNotExist(){
+        KafkaFutureImpl<Map<String, TopicDescription>> missing = new KafkaFutureImpl<>();
+        missing.completeExceptionally(new UnknownTopicOrPartitionException("vote-cast"));
+        when(admin.describeTopics(List.of("vote-cast"))).thenReturn(describeResult);
+        when(describeResult.allTopicNames()).thenReturn(missing);
+
+        assertEquals(List.of(1L, 2L), backlog(Duration.ofMinutes(1)).drained(List.of(1L, 2L)));
+        verify(admin, never()).listConsumerGroupOffsets(anyString());
+    }
+
+    @Test
+    void drained_shouldNotReadOffsets_whenDisabled(){
+        VoteCastBacklog backlog = new VoteCastBacklog(admin, "vote-cast", "vote-challenge", false,
+                Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+        assertEquals(List.of(1L), backlog.drained(List.of(1L)));
+        verifyNoInteractions(admin);
+    }
+}
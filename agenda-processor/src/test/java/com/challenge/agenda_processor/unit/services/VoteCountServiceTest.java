@@ -0,0 +1,100 @@
+package com.challenge.agenda_processor.unit.services;
+
+import com.challenge.agenda_processor.constants.TallyConstants;
+import com.challenge.agenda_processor.dto.VoteCount;
+import com.challenge.agenda_processor.dto.VoteIdRange;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.repositories.AgendaTallyRepository;
+import com.challenge.agenda_processor.repositories.VoteRepository;
+import com.challenge.agenda_processor.services.ParallelVoteCounter;
+import com.challenge.agenda_processor.services.VoteCountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteCountServiceTest {
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private AgendaTallyRepository tallyRepository;
+
+    @Mock
+    private ParallelVoteCounter parallelVoteCounter;
+
+    @InjectMocks
+    private VoteCountService service;
+
+    @Test
+    void countVotes_shouldUseTally_whenAgendaHasTallySinceOpening(){
+        when(tallyRepository.sumCompleteByAgendaIds(List.of(1L), TallyConstants.OPENING_STRIPE)).thenReturn(List.of(new VoteTally(1L, 7, 3)));
+
+        assertEquals(new VoteTally(1L, 7, 3), service.countVotes(1L));
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void countVotes_shouldGroupVotes_whenAgendaHasNoTally(){
+        VoteIdRange range = new VoteIdRange(1L, 10L, 25L);
+        when(tallyRepository.sumCompleteByAgendaIds(List.of(1L), TallyConstants.OPENING_STRIPE)).thenReturn(List.of());
+        when(voteRepository.findIdRangesByAgendaIds(List.of(1L))).thenReturn(List.of(range));
+        when(parallelVoteCounter.accepts(range)).thenReturn(false);
+        when(voteRepository.countByAgendaIdsGroupByVote(List.of(1L))).thenReturn(List.of(
+                new VoteCount(1L, "YES", 5), new VoteCount(1L, "NO", 2), new VoteCount(1L, "MAYBE", 9)));
+
+        assertEquals(new VoteTally(1L, 5, 2), service.countVotes(1L));
+        verify(parallelVoteCounter, never()).count(any());
+    }
+
+    @Test
+    void countVotes_shouldCountInParallel_whenAgendaIsLarge(){
+        VoteIdRange range = new VoteIdRange(1L, 1L, 50_000_000L);
+        when(tallyRepository.sumCompleteByAgendaIds(List.of(1L), TallyConstants.OPENING_STRIPE)).thenReturn(List.of());
+        when(voteRepository.findIdRangesByAgendaIds(List.of(1L))).thenReturn(List.of(range));
+        when(parallelVoteCounter.accepts(range)).thenReturn(true);
+        when(parallelVoteCounter.count(range)).thenReturn(new VoteTally(1L, 30_000_000, 20_000_000));
+
+        assertEquals(new VoteTally(1L, 30_000_000, 20_000_000), service.countVotes(1L));
+        verify(voteRepository, never()).countByAgendaIdsGroupByVote(any());
+    }
+
+    @Test
+    void countVotes_shouldReturnZero_whenAgendaHasNoVotes(){
+        when(tallyRepository.sumCompleteByAgendaIds(List.of(1L), TallyConstants.OPENING_STRIPE)).thenReturn(List.of());
+        when(voteRepository.findIdRangesByAgendaIds(List.of(1L))).thenReturn(List.of());
+
+        assertEquals(new VoteTally(1L, 0, 0), service.countVotes(1L));
+        verifyNoInteractions(parallelVoteCounter);
+        verify(voteRepository, never()).countByAgendaIdsGroupByVote(any());
+    }
+
+    @Test
+    void countVotes_shouldCountManyAgendas_withOneQueryPerPath(){
+        List<Long> agendaIds = List.of(1L, 2L, 3L, 4L);
+        VoteIdRange second = new VoteIdRange(2L, 1L, 40L);
+        VoteIdRange third = new VoteIdRange(3L, 5L, 90L);
+        when(tallyRepository.sumCompleteByAgendaIds(agendaIds, TallyConstants.OPENING_STRIPE)).thenReturn(List.of(new VoteTally(1L, 7, 3)));
+        when(voteRepository.findIdRangesByAgendaIds(List.of(2L, 3L, 4L))).thenReturn(List.of(second, third));
+        when(parallelVoteCounter.accepts(any())).thenReturn(false);
+        when(voteRepository.countByAgendaIdsGroupByVote(List.of(2L, 3L))).thenReturn(List.of(
+                new VoteCount(2L, "YES", 4), new VoteCount(3L, "NO", 6), new VoteCount(3L, "YES", 1)));
+
+        Map<Long, VoteTally> result = service.countVotes(agendaIds);
+
+        assertEquals(Map.of(
+                1L, new VoteTally(1L, 7, 3),
+                2L, new VoteTally(2L, 4, 0),
+                3L, new VoteTally(3L, 1, 6),
+                4L, new VoteTally(4L, 0, 0)), result);
+        verify(voteRepository, times(1)).countByAgendaIdsGroupByVote(any());
+    }
+}
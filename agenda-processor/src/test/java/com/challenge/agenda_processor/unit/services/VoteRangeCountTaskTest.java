@@ -0,0 +1,67 @@
+package com.challenge.agenda_processor.unit.services;
+
+import com.challenge.agenda_processor.constants.VoteConstants;
+import com.challenge.agenda_processor.dto.VoteTally;
+import com.challenge.agenda_processor.interfaces.IVoteRangeCounter;
+import com.challenge.agenda_processor.services.VoteRangeCountTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VoteRangeCountTaskTest {
+
+    // every third id is a NO vote, the others are YES
+    private static final IVoteRangeCounter COUNTER = (agendaId, vote, fromId, toId) -> {
+        long no = Math.floorDiv(toId - 1, 3) - Math.floorDiv(fromId - 1, 3);
+        return VoteConstants.NO.equals(vote) ? no : (toId - fromId) - no;
+    };
+
+    @Test
+    void compute_shouldSumAllChunks(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try{
+            VoteTally tally = pool.invoke(new VoteRangeCountTask(1L, 1, 1_000_001, 1000, COUNTER));
+
+            assertEquals(new VoteTally(1L, 666_667, 333_333), tally);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void compute_shouldCountInChunks_notBiggerThanChunkSize(){
+        AtomicInteger calls = new AtomicInteger();
+        IVoteRangeCounter counter = (agendaId, vote, fromId, toId) -> {
+            calls.incrementAndGet();
+            assertTrue(toId - fromId <= 100);
+            return COUNTER.count(agendaId, vote, fromId, toId);
+        };
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try{
+            VoteTally tally = pool.invoke(new VoteRangeCountTask(1L, 1, 1001, 100, counter));
+
+            assertEquals(new VoteTally(1L, 667, 333), tally);
+            assertEquals(32, calls.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void compute_shouldCountOnce_whenRangeIsSmall(){
+        AtomicInteger calls = new AtomicInteger();
+        IVoteRangeCounter counter = (agendaId, vote, fromId, toId) -> {
+            calls.incrementAndGet();
+            return COUNTER.count(agendaId, vote, fromId, toId);
+        };
+
+        VoteTally tally = new VoteRangeCountTask(1L, 1, 11, 100, counter).invoke();
+
+        assertEquals(new VoteTally(1L, 7, 3), tally);
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,107 @@
+package com.challenge.vote_challenge.benchmarks;
+
+import com.challenge.vote_challenge.services.AgendaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark of the Agenda listing with every Agenda and its votes against the keyset pages of summaries
+ * <p>
+ * It runs the statements of AgendaService against an in memory H2 database filled with 10k Agendas of 1k votes each.
+ * The full listing reads the Agendas and then the votes of each one, like the lazy collection walked by AgendaDto,
+ * the pages read the summaries after a random cursor and the tallies of the page, and optionally the first votes of
+ * each Agenda. Over the network each of the N+1 queries also pays a round trip. The setup needs a few GB of heap, run with
+ * ./gradlew jmh
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AgendaListingBenchmark {
+    private static final String SUMMARIES = "SELECT id, name, details, expiration, is_open FROM agenda WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String VOTES = "SELECT v.agenda_id, v.id, v.vote, s.id, s.cpf FROM vote v JOIN associate s ON s.id = v.associate_id ";
+
+    @Param({"10000"})
+    private int agendas;
+
+    @Param({"1000"})
+    private int votesPerAgenda;
+
+    @Param({"50"})
+    private int pageSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:agendas;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE agenda (id BIGINT PRIMARY KEY, name VARCHAR(30), details VARCHAR(255), " +
+                "expiration TIMESTAMP, is_open BOOLEAN)");
+        jdbcTemplate.execute("CREATE TABLE associate (id BIGINT PRIMARY KEY, cpf VARCHAR(11))");
+        jdbcTemplate.execute("CREATE TABLE vote (id BIGINT PRIMARY KEY, vote VARCHAR(3), associate_id BIGINT, agenda_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE agenda_tally (agenda_id BIGINT, stripe INT, votes_yes BIGINT, votes_no BIGINT, " +
+                "PRIMARY KEY (agenda_id, stripe))");
+
+        jdbcTemplate.update("INSERT INTO agenda SELECT X, 'Agenda ' || X, 'Details', CURRENT_TIMESTAMP, FALSE " +
+                "FROM SYSTEM_RANGE(1, ?)", agendas);
+        jdbcTemplate.update("INSERT INTO associate SELECT X, '97525134090' FROM SYSTEM_RANGE(1, ?)", votesPerAgenda);
+        jdbcTemplate.update("INSERT INTO vote SELECT X, CASEWHEN(MOD(X, 2) = 0, 'YES', 'NO'), MOD(X, ?) + 1, (X - 1) / ? + 1 " +
+                "FROM SYSTEM_RANGE(1, ?)", votesPerAgenda, votesPerAgenda, (long) agendas * votesPerAgenda);
+        jdbcTemplate.execute("CREATE INDEX idx_vote_agenda_vote ON vote (agenda_id, vote)");
+        jdbcTemplate.execute("INSERT INTO agenda_tally SELECT agenda_id, 0, SUM(CASEWHEN(vote = 'YES', 1, 0)), " +
+                "SUM(CASEWHEN(vote = 'NO', 1, 0)) FROM vote GROUP BY agenda_id");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int fullListingWithVotes(){
+        List<Map<String, Object>> all = jdbcTemplate.queryForList("SELECT id, name, details, expiration, is_open FROM agenda");
+        int rows = all.size();
+        rows += jdbcTemplate.queryForList("SELECT agenda_id, SUM(votes_yes), SUM(votes_no) FROM agenda_tally GROUP BY agenda_id").size();
+        for(Map<String, Object> agenda : all)
+            rows += jdbcTemplate.queryForList(VOTES + "WHERE v.agenda_id = ?", agenda.get("ID")).size();
+
+        return rows;
+    }
+
+    @Benchmark
+    public int keysetPage(){
+        return page(false);
+    }
+
+    @Benchmark
+    public int keysetPageWithVotes(){
+        return page(true);
+    }
+
+    private int page(boolean expandVotes){
+        long after = ThreadLocalRandom.current().nextLong(agendas - pageSize);
+        List<Map<String, Object>> summaries = jdbcTemplate.queryForList(SUMMARIES, after, pageSize + 1);
+        List<Object> agendaIds = summaries.stream().limit(pageSize).map(p -> p.get("ID")).toList();
+        String ids = agendaIds.stream().map(Object::toString).collect(Collectors.joining(","));
+
+        int rows = summaries.size();
+        rows += jdbcTemplate.queryForList("SELECT agenda_id, SUM(votes_yes), SUM(votes_no) FROM agenda_tally " +
+                "WHERE agenda_id IN (" + ids + ") GROUP BY agenda_id").size();
+        if(expandVotes)
+            for(Object agendaId : agendaIds)
+                rows += jdbcTemplate.queryForList(VOTES + "WHERE v.agenda_id = ? AND v.associate_id > ? ORDER BY v.associate_id LIMIT ?",
+                        agendaId, Long.MIN_VALUE, AgendaService.MAX_EXPANDED_VOTES).size();
+
+        return rows;
+    }
+}
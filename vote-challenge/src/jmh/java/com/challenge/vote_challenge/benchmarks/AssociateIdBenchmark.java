@@ -0,0 +1,68 @@
+package com.challenge.vote_challenge.benchmarks;
+
+import com.challenge.vote_challenge.util.id.HiLoIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Associate registrations per second with the random id retry loop and with the hi/lo generator
+ * <p>
+ * It runs the same statements of AssociateService against an in memory H2 database, so it only shows the cost of
+ * the extra queries, over the network each of them also pays a round trip. Run with ./gradlew jmh
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AssociateIdBenchmark {
+    private static final String CPF = "97525134090";
+
+    private JdbcTemplate jdbcTemplate;
+    private HiLoIdGenerator idGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:associates;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE associate (id BIGINT PRIMARY KEY, cpf VARCHAR(11))");
+        idGenerator = new HiLoIdGenerator(jdbcTemplate, "associate_id_seq", 1000, 1_000_000_000_000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public long randomIdWithExistsCheck(){
+        Random random = new Random();
+        long id = random.nextLong();
+        while (existsById(id)){
+            id = random.nextLong(1L, Long.MAX_VALUE);
+        }
+
+        if(existsById(id))
+            throw new IllegalStateException("Id already exist.");
+
+        // the merge done by save() for an entity with an assigned id
+        jdbcTemplate.queryForList("SELECT id, cpf FROM associate WHERE id = ?", id);
+        jdbcTemplate.update("INSERT INTO associate (id, cpf) VALUES (?, ?)", id, CPF);
+        return id;
+    }
+
+    @Benchmark
+    public long hiLoId(){
+        long id = idGenerator.nextId();
+        jdbcTemplate.update("INSERT INTO associate (id, cpf) VALUES (?, ?)", id, CPF);
+        return id;
+    }
+
+    private boolean existsById(long id){
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM associate WHERE id = ?", Integer.class, id);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.challenge.vote_challenge.benchmarks;
+
+import com.challenge.vote_challenge.util.validate.CpfValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the local CPF validation against the regex format check it replaced
+ * <p>
+ * Run with ./gradlew jmh
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CpfValidatorBenchmark {
+
+    @Param({"97525134090", "12345678901", "11111111111"})
+    public String cpf;
+
+    @Benchmark
+    public boolean regexFormatCheck(){
+        return cpf.length() == CpfValidator.CPF_LENGTH && cpf.matches("^\\d+$");
+    }
+
+    @Benchmark
+    public boolean localFormatCheck(){
+        return cpf.length() == CpfValidator.CPF_LENGTH && CpfValidator.isNumeric(cpf);
+    }
+
+    @Benchmark
+    public boolean localCheckDigits(){
+        return CpfValidator.isValid(cpf);
+    }
+}
@@ -0,0 +1,134 @@
+package com.challenge.vote_challenge.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the vote endpoint, for each level N voters cast one vote each at the same time
+ * <p>
+ * Run it against a started vote-challenge with an open Agenda, once with VIRTUAL_THREADS=false and once with
+ * VIRTUAL_THREADS=true, and compare the throughput and the latency percentiles:
+ * ./gradlew loadTest -PloadTestArgs="http://localhost:8080 1 1000,2500,5000,10000"
+ * </p>
+ */
+public class VoteLoadTest {
+    private static final String BODY = "{\"vote\":\"%s\",\"associate\":{\"id\":%d,\"cpf\":\"%s\"}}";
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        long agendaId = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int[] levels = Arrays.stream((args.length > 2 ? args[2] : "1000,2500,5000,10000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        URI uri = URI.create(baseUrl + "/api/v1/votes/" + agendaId);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // random start so each run registers new associates and cpfs
+        AtomicLong voters = new AtomicLong(ThreadLocalRandom.current().nextLong(100_000_000L, 800_000_000L));
+
+        System.out.printf("%8s %10s %10s %10s %10s %8s%n", "voters", "votes/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for(int level : levels)
+            run(client, uri, level, voters);
+    }
+
+    private static void run(HttpClient client, URI uri, int level, AtomicLong voters) throws InterruptedException {
+        long[] latencies = new long[level];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long begin;
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < level; i++){
+                int index = i;
+                long voter = voters.incrementAndGet();
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofMinutes(2))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(BODY.formatted(index % 2 == 0 ? "YES" : "NO", voter, cpf(voter))))
+                        .build();
+
+                executor.submit(() -> {
+                    start.await();
+                    long sent = System.nanoTime();
+                    try{
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if(response.statusCode() / 100 != 2)
+                            errors.incrementAndGet();
+                    } catch (Exception ex){
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - sent;
+                    return null;
+                });
+            }
+
+            begin = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        System.out.printf("%8d %10.1f %10.1f %10.1f %10.1f %8d%n",
+                level,
+                level / (elapsed / 1e9),
+                millis(percentile(latencies, 0.50)),
+                millis(percentile(latencies, 0.99)),
+                millis(latencies[latencies.length - 1]),
+                errors.get());
+    }
+
+    private static long percentile(long[] sorted, double percentile){
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static double millis(long nanos){
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Builds a valid cpf using the 9 digits of the voter as base
+     */
+    private static String cpf(long voter){
+        int[] digits = new int[11];
+        long base = voter % 1_000_000_000L;
+        for(int i = 8; i >= 0; i--){
+            digits[i] = (int) (base % 10);
+            base /= 10;
+        }
+
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+
+        StringBuilder cpf = new StringBuilder(11);
+        for(int digit : digits)
+            cpf.append(digit);
+
+        return cpf.toString();
+    }
+
+    private static int checkDigit(int[] digits, int length){
+        int sum = 0;
+        for(int i = 0; i < length; i++)
+            sum += digits[i] * (length + 1 - i);
+
+        int rest = (sum * 10) % 11;
+        return rest == 10 ? 0 : rest;
+    }
+}
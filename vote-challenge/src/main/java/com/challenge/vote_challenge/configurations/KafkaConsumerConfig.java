@@ -0,0 +1,108 @@
+package com.challenge.vote_challenge.configurations;
+
+import com.challenge.vote_challenge.services.VoteIntakeService;
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.events.VoteCastCommand;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "vote.intake.mode", havingValue = "async")
+public class KafkaConsumerConfig {
+
+    @Value("${KAFKA_URL}")
+    private String kafkaUtl;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${vote.intake.partitions:6}")
+    private int partitions;
+
+    @Value("${vote.intake.consumers:3}")
+    private int consumers;
+
+    @Value("${vote.intake.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${vote.intake.retry.interval:1s}")
+    private Duration retryInterval;
+
+    @Value("${vote.intake.retry.attempts:5}")
+    private long retryAttempts;
+
+    @Bean
+    public NewTopic voteCastTopic(){
+        return TopicBuilder.name(VoteIntakeService.VOTE_CAST_TOPIC)
+                .partitions(partitions)
+                .build();
+    }
+
+    // the recoverer sends each record to the same partition of the dead letter topic
+    @Bean
+    public NewTopic voteCastDltTopic(){
+        return TopicBuilder.name(VoteIntakeService.VOTE_CAST_DLT_TOPIC)
+                .partitions(partitions)
+                .build();
+    }
+
+    @Bean
+    public ConsumerFactory<String, VoteCastCommand> voteCastConsumerFactory(){
+        // reads the JSON records still in the topic from before the binary codec
+        JsonDeserializer<VoteCastCommand> legacyDeserializer = new JsonDeserializer<>(VoteCastCommand.class, false);
+        EventDeserializer<VoteCastCommand> deserializer = new EventDeserializer<>(VoteCastCommand.class, legacyDeserializer);
+
+        return new DefaultKafkaConsumerFactory<>(
+                Map.of(
+                        ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaUtl + ":9092",
+                        ConsumerConfig.GROUP_ID_CONFIG, "vote-challenge",
+                        ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords,
+                        ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, deserializer
+                ),
+                new StringDeserializer(),
+                deserializer
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, VoteCastCommand> voteCastKafkaListenerContainerFactory(
+            KafkaTemplate<String, VoteCastCommand> kafkaTemplate){
+        ConcurrentKafkaListenerContainerFactory<String, VoteCastCommand> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(voteCastConsumerFactory());
+        if(virtualThreads)
+            factory.getContainerProperties().setListenerTaskExecutor(virtualThreadExecutor("vote-cast-"));
+        factory.setBatchListener(true);
+        factory.setConcurrency(consumers);
+        // a batch still failing after the retries goes to the dead letter topic instead of being skipped, so its
+        // votes can be sent again once the database is back
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new DeadLetterPublishingRecoverer(kafkaTemplate),
+                new FixedBackOff(retryInterval.toMillis(), retryAttempts)));
+        return factory;
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix){
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,8 @@
+package com.challenge.vote_challenge.constants;
+
+public class AssociateImportRejectionConstants {
+    public static final String MALFORMED_ROW = "MALFORMED_ROW";
+    public static final String INVALID_CPF = "INVALID_CPF";
+    public static final String DUPLICATED_CPF = "DUPLICATED_CPF";
+    public static final String ALREADY_REGISTERED = "ALREADY_REGISTERED";
+}
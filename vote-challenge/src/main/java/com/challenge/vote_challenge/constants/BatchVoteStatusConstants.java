@@ -0,0 +1,10 @@
+package com.challenge.vote_challenge.constants;
+
+public class BatchVoteStatusConstants {
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String INVALID_VOTE = "INVALID_VOTE";
+    public static final String UNKNOWN_ASSOCIATE = "UNKNOWN_ASSOCIATE";
+    public static final String DUPLICATED = "DUPLICATED";
+    public static final String ALREADY_VOTED = "ALREADY_VOTED";
+    public static final String FAILED = "FAILED";
+}
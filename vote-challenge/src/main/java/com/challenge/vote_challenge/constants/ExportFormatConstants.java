@@ -0,0 +1,6 @@
+package com.challenge.vote_challenge.constants;
+
+public class ExportFormatConstants {
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+}
@@ -0,0 +1,6 @@
+package com.challenge.vote_challenge.constants;
+
+public class VoteIntakeModeConstants {
+    public static final String SYNC = "sync";
+    public static final String ASYNC = "async";
+}
@@ -0,0 +1,7 @@
+package com.challenge.vote_challenge.constants;
+
+public class VoteReceiptStatusConstants {
+    public static final String PENDING = "PENDING";
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+}
@@ -0,0 +1,36 @@
+package com.challenge.vote_challenge.consumers;
+
+import com.challenge.vote_challenge.services.VoteIntakeService;
+import com.challenge.vote_events.events.VoteCastCommand;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Class with the consumer of the votes accepted by the async intake
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "vote.intake.mode", havingValue = "async")
+public class VoteCastConsumer {
+    private final VoteIntakeService voteIntakeService;
+
+    @Autowired
+    public VoteCastConsumer(VoteIntakeService voteIntakeService) {
+        this.voteIntakeService = voteIntakeService;
+    }
+
+    /**
+     * Consumer reading the votes in batches, each batch in the order of its partition
+     * @param commands the VoteCastCommands polled from the topic
+     */
+    @KafkaListener(topics = VoteIntakeService.VOTE_CAST_TOPIC, groupId = "vote-challenge", containerFactory = "voteCastKafkaListenerContainerFactory")
+    public void consume(List<VoteCastCommand> commands){
+        log.info("New batch of '{}' votes listened", commands.size());
+        voteIntakeService.process(commands);
+    }
+}
@@ -1,16 +1,25 @@
 package com.challenge.vote_challenge.controller.v1;
 
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
 import com.challenge.vote_challenge.dto.AgendaDto;
+import com.challenge.vote_challenge.dto.AgendaPage;
+import com.challenge.vote_challenge.dto.VotePage;
 import com.challenge.vote_challenge.services.AgendaService;
+import com.challenge.vote_challenge.services.ExportService;
+import com.challenge.vote_challenge.util.export.ExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Control class to provide call endpoints involving the Agenda object
@@ -21,11 +30,15 @@ import java.util.List;
 @RequestMapping("/api/v1/agendas")
 @Tag(name = "Agenda", description = "Agenda calls")
 public class AgendaController {
+    private static final String EXPAND_VOTES = "votes";
+
     private final AgendaService service;
+    private final ExportService exportService;
 
     @Autowired
-    public AgendaController(AgendaService service) {
+    public AgendaController(AgendaService service, ExportService exportService) {
         this.service = service;
+        this.exportService = exportService;
     }
 
     /**
@@ -74,6 +87,76 @@ public class AgendaController {
         return ResponseEntity.ok(agendas);
     }
 
+    /**
+     * Method that searches for a page of AgendaDto with their vote counts
+     * <p>
+     * This method is an endpoint for Agenda calls,
+     * more specifically the endpoint GET /api/v1/agendas/page
+     * </p>
+     * @param after the nextCursor of the previous page (optional parameter)
+     * @param size the number of Agendas of the page (optional parameter)
+     * @param expand 'votes' to also return the first votes of each Agenda (optional parameter)
+     * @return A ResponseEntity<AgendaPage> with the Agendas and the cursor of the next page
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of Agendas with their vote counts, accept the cursor 'after', the 'size' and 'expand=votes' to also return the first votes")
+    public ResponseEntity<AgendaPage> getPage(@RequestParam(value = "after", required = false) Long after,
+                                              @RequestParam(value = "size", defaultValue = "50") int size,
+                                              @RequestParam(value = "expand", required = false) Set<String> expand){
+        log.info("Start get agendas page after '{}'", after);
+        AgendaPage page = service.getPage(after, size, expand != null && expand.contains(EXPAND_VOTES));
+
+        log.info("Agendas page was found");
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Method that searches for a page of the votes of an Agenda
+     * <p>
+     * This method is an endpoint for Agenda calls,
+     * more specifically the endpoint GET /api/v1/agendas/{id}/votes
+     * </p>
+     * @param id the id of the Agenda
+     * @param after the nextCursor of the previous page (optional parameter)
+     * @param size the number of votes of the page (optional parameter)
+     * @return A ResponseEntity<VotePage> with the votes and the cursor of the next page
+     */
+    @GetMapping("/{id}/votes")
+    @Operation(summary = "Get a page of the votes of an Agenda ordered by associate, accept the cursor 'after' and the 'size'")
+    public ResponseEntity<VotePage> getVotes(@PathVariable("id") Long id,
+                                             @RequestParam(value = "after", required = false) Long after,
+                                             @RequestParam(value = "size", defaultValue = "100") int size){
+        log.info("Start get votes page of agenda '{}' after '{}'", id, after);
+        VotePage page = service.getVotes(id, after, size);
+
+        log.info("Votes page was found");
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Method that exports the votes of an Agenda
+     * <p>
+     * This method is an endpoint for Agenda calls,
+     * more specifically the endpoint GET /api/v1/agendas/{id}/votes/export
+     * </p>
+     * @param id the id of the Agenda
+     * @param format ndjson or csv (optional parameter)
+     * @param response the response where the votes are written while they are read
+     */
+    @GetMapping("/{id}/votes/export")
+    @Operation(summary = "Export the votes of an Agenda as a stream, accept the 'format' ndjson (default) or csv")
+    public void exportVotes(@PathVariable("id") Long id,
+                            @RequestParam(value = "format", defaultValue = ExportFormatConstants.NDJSON) String format,
+                            HttpServletResponse response) throws IOException {
+        log.info("Start export votes of Agenda '{}' as '{}'", id, format);
+        exportService.validAgenda(id);
+        response.setContentType(ExportWriter.contentType(format));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"agenda-" + id + "-votes." + format + "\"");
+        long votes = exportService.exportVotes(id, response.getOutputStream(), format);
+
+        log.info("'{}' votes were exported", votes);
+    }
+
     /**
      * Method that adds a new agenda
      * <p>
@@ -1,15 +1,24 @@
 package com.challenge.vote_challenge.controller.v1;
 
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
 import com.challenge.vote_challenge.dto.AssociateDto;
+import com.challenge.vote_challenge.dto.AssociateImportReport;
 import com.challenge.vote_challenge.dto.EligibleVoteStatus;
+import com.challenge.vote_challenge.services.AssociateImportService;
 import com.challenge.vote_challenge.services.AssociateService;
+import com.challenge.vote_challenge.services.ExportService;
+import com.challenge.vote_challenge.util.export.ExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -22,10 +31,14 @@ import java.util.List;
 @Tag(name = "Associate", description = "Associate calls")
 public class AssociateController {
     private final AssociateService service;
+    private final ExportService exportService;
+    private final AssociateImportService importService;
 
     @Autowired
-    public AssociateController(AssociateService service) {
+    public AssociateController(AssociateService service, ExportService exportService, AssociateImportService importService) {
         this.service = service;
+        this.exportService = exportService;
+        this.importService = importService;
     }
 
     /**
@@ -84,6 +97,48 @@ public class AssociateController {
         return ResponseEntity.ok(associates);
     }
 
+    /**
+     * Method that exports all Associates
+     * <p>
+     * This method is an endpoint for Associate calls,
+     * more specifically the endpoint GET /api/v1/associates/export
+     * </p>
+     * @param format ndjson or csv (optional parameter)
+     * @param response the response where the Associates are written while they are read
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all Associates as a stream, accept the 'format' ndjson (default) or csv")
+    public void export(@RequestParam(value = "format", defaultValue = ExportFormatConstants.NDJSON) String format,
+                       HttpServletResponse response) throws IOException {
+        log.info("Start export Associates as '{}'", format);
+        response.setContentType(ExportWriter.contentType(format));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"associates." + format + "\"");
+        long associates = exportService.exportAssociates(response.getOutputStream(), format);
+
+        log.info("'{}' Associates were exported", associates);
+    }
+
+    /**
+     * Method that imports Associates in bulk
+     * <p>
+     * This method is an endpoint for Associate calls,
+     * more specifically the endpoint POST /api/v1/associates/import
+     * </p>
+     * @param format ndjson or csv (optional parameter)
+     * @param request the request whose body has the Associates, read while it arrives
+     * @return A ResponseEntity<AssociateImportReport> with the number of imported Associates and the rejected rows
+     */
+    @PostMapping("/import")
+    @Operation(summary = "Import Associates from a streamed body, accept the 'format' ndjson (default) or csv with a 'cpf' column")
+    public ResponseEntity<AssociateImportReport> importAssociates(@RequestParam(value = "format", defaultValue = ExportFormatConstants.NDJSON) String format,
+                                                                  HttpServletRequest request) throws IOException {
+        log.info("Start import Associates as '{}'", format);
+        AssociateImportReport report = importService.importAssociates(request.getInputStream(), format);
+
+        log.info("Associates were imported");
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * Method that adds a new Associate
      * <p>
@@ -1,7 +1,11 @@
 package com.challenge.vote_challenge.controller.v1;
 
+import com.challenge.vote_challenge.dto.BatchVoteResult;
 import com.challenge.vote_challenge.dto.EligibleVoteStatus;
 import com.challenge.vote_challenge.dto.VoteDto;
+import com.challenge.vote_challenge.dto.VoteReceiptDto;
+import com.challenge.vote_challenge.services.BulkVoteService;
+import com.challenge.vote_challenge.services.VoteIntakeService;
 import com.challenge.vote_challenge.services.VoteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +14,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Control class to provide call endpoints involving the Vote object
  */
@@ -20,10 +27,14 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Vote", description = "Vote calls")
 public class VoteController {
     private final VoteService service;
+    private final VoteIntakeService intakeService;
+    private final BulkVoteService bulkService;
 
     @Autowired
-    public VoteController(VoteService service) {
+    public VoteController(VoteService service, VoteIntakeService intakeService, BulkVoteService bulkService) {
         this.service = service;
+        this.intakeService = intakeService;
+        this.bulkService = bulkService;
     }
 
     /**
@@ -49,19 +60,59 @@ public class VoteController {
      * Method for voting in a poll (whether the vote is yes or no)
      * <p>
      * This method is an endpoint for Vote calls,
-     * more specifically the endpoint POST /api/v1/votes/{agendaId}
+     * more specifically the endpoint POST /api/v1/votes/{agendaId}.
+     * When vote.intake.mode is async the vote is only queued and the answer is 202 with a VoteReceiptDto
      * </p>
      * @param agendaId the id that represents the Agenda where the vote will be deposited
      * @param vote The vote that will be cast
-     * @return A ResponseEntity<EligibleVoteStatus> that represents whether the member is eligible to vote
+     * @return A ResponseEntity<EligibleVoteStatus> that represents whether the member is eligible to vote,
+     * or a ResponseEntity<VoteReceiptDto> in async mode
      */
     @PostMapping("{agendaId}")
     @Operation(summary = "Vote in a Agenda with agenda Id")
-    public ResponseEntity<EligibleVoteStatus> vote(@PathVariable("agendaId") Long agendaId, @RequestBody VoteDto vote){
+    public CompletableFuture<ResponseEntity<?>> vote(@PathVariable("agendaId") Long agendaId, @RequestBody VoteDto vote){
         log.info("Start vote in Agenda with id '{}'", agendaId);
         log.debug("Associate id: '{}'", vote.getAssociate().getId());
+        if(intakeService.isAsync()){
+            return intakeService.accept(agendaId, vote)
+                    .thenApply(receipt -> ResponseEntity.accepted().body(receipt));
+        }
+
         EligibleVoteStatus status = service.vote(agendaId, vote);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(status));
+    }
 
-        return ResponseEntity.ok(status);
+    /**
+     * Method for casting many votes in a poll at once, as sent by a polling station
+     * <p>
+     * This method is an endpoint for Vote calls,
+     * more specifically the endpoint POST /api/v1/votes/{agendaId}/batch.
+     * The votes are always stored before the answer, even when vote.intake.mode is async
+     * </p>
+     * @param agendaId the id that represents the Agenda where the votes will be deposited
+     * @param votes The votes that will be cast
+     * @return A ResponseEntity<List<BatchVoteResult>> with the status of each vote, in the order they were sent
+     */
+    @PostMapping("{agendaId}/batch")
+    @Operation(summary = "Vote many times in a Agenda with agenda Id")
+    public ResponseEntity<List<BatchVoteResult>> voteAll(@PathVariable("agendaId") Long agendaId, @RequestBody List<VoteDto> votes){
+        log.info("Start batch of '{}' votes in Agenda with id '{}'", votes.size(), agendaId);
+        return ResponseEntity.ok(bulkService.voteAll(agendaId, votes));
+    }
+
+    /**
+     * Method that searches for the status of a vote sent in async mode
+     * <p>
+     * This method is an endpoint for Vote calls,
+     * more specifically the endpoint GET /api/v1/votes/receipts/{receiptId}
+     * </p>
+     * @param receiptId the id of the receipt returned when the vote was accepted
+     * @return A ResponseEntity<VoteReceiptDto> with the status PENDING, ACCEPTED or REJECTED
+     */
+    @GetMapping("receipts/{receiptId}")
+    @Operation(summary = "Get the status of a vote receipt")
+    public ResponseEntity<VoteReceiptDto> getReceipt(@PathVariable("receiptId") String receiptId){
+        log.info("Start get vote receipt '{}'", receiptId);
+        return ResponseEntity.ok(intakeService.getReceipt(receiptId));
     }
 }
@@ -1,9 +1,8 @@
 package com.challenge.vote_challenge.dto;
 
-import com.challenge.vote_challenge.constants.VoteConstants;
 import com.challenge.vote_challenge.interfaces.IDtoFrom;
 import com.challenge.vote_challenge.models.Agenda;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,11 +21,26 @@ public class AgendaDto implements IDtoFrom<Agenda> {
     private String name;
     private String details;
     private LocalDateTime expiration;
+    // left out of the paginated listing unless the votes are expanded, the counts come from the tally
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<VoteDto> votes;
     private boolean isOpen;
+    private long votesYes;
+    private long votesNo;
 
-    public AgendaDto(Agenda agenda){
+    public AgendaDto(Long id, String name, String details, LocalDateTime expiration, List<VoteDto> votes, boolean isOpen){
+        this(id, name, details, expiration, votes, isOpen, 0, 0);
+    }
+
+    public AgendaDto(Agenda agenda, VoteTally tally){
         copyFrom(agenda);
+        this.votesYes = tally.votesYes();
+        this.votesNo = tally.votesNo();
+    }
+
+    public AgendaDto(AgendaSummary summary, VoteTally tally, List<VoteDto> votes){
+        this(summary.id(), summary.name(), summary.details(), summary.expiration(), votes, summary.isOpen(),
+                tally.votesYes(), tally.votesNo());
     }
 
     @Override
@@ -44,14 +58,4 @@ public class AgendaDto implements IDtoFrom<Agenda> {
         //Set<Vote> votes = new HashSet<>(this.votes);
         return new Agenda(this.name, this.details, null, null, false);
     }
-
-    @JsonProperty("votesYes")
-    public long getVotesYes(){
-        return votes.stream().filter(p -> p.getVote().equals(VoteConstants.YES)).count();
-    }
-
-    @JsonProperty("votesNo")
-    public long getVotesNo(){
-        return votes.stream().filter(p -> p.getVote().equals(VoteConstants.NO)).count();
-    }
 }
@@ -0,0 +1,10 @@
+package com.challenge.vote_challenge.dto;
+
+import java.util.List;
+
+/**
+ * A page of the Agenda listing
+ * @param agendas the Agendas of the page ordered by id
+ * @param nextCursor the value of 'after' to get the next page, null when this is the last one
+ */
+public record AgendaPage(List<AgendaDto> agendas, Long nextCursor) {}
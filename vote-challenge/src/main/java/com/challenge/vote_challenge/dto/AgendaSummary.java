@@ -0,0 +1,8 @@
+package com.challenge.vote_challenge.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represent an Agenda read by the paginated listing, with only its own columns and without the votes
+ */
+public record AgendaSummary(Long id, String name, String details, LocalDateTime expiration, boolean isOpen) {}
@@ -0,0 +1,11 @@
+package com.challenge.vote_challenge.dto;
+
+/**
+ * Represent a vote read with the id of its Agenda, used to expand the votes of a page of Agendas in one query
+ */
+public record AgendaVote(Long agendaId, Long id, String vote, Long associateId, String cpf) {
+
+    public VoteDto toDto(){
+        return new VoteDto(id, vote, new AssociateDto(associateId, cpf));
+    }
+}
@@ -0,0 +1,11 @@
+package com.challenge.vote_challenge.dto;
+
+import java.util.List;
+
+/**
+ * The result of an Associates import
+ * @param imported the number of Associates created
+ * @param rejected the number of rows that weren't imported
+ * @param rejections the first rejected rows, up to associate.import.max-reported-rejections
+ */
+public record AssociateImportReport(long imported, long rejected, List<RejectedAssociate> rejections) {}
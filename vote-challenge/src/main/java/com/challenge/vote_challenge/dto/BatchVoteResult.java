@@ -0,0 +1,9 @@
+package com.challenge.vote_challenge.dto;
+
+/**
+ * The status of one vote of a batch
+ * @param index the position of the vote in the batch
+ * @param associateId the id of the Associate, null when it couldn't be resolved
+ * @param status one of the BatchVoteStatusConstants
+ */
+public record BatchVoteResult(int index, Long associateId, String status) {}
@@ -0,0 +1,9 @@
+package com.challenge.vote_challenge.dto;
+
+/**
+ * A row of the Associates import that wasn't imported
+ * @param line the line of the row in the imported file
+ * @param cpf the cpf read from the row, null when the row couldn't be read
+ * @param reason one of the AssociateImportRejectionConstants
+ */
+public record RejectedAssociate(long line, String cpf, String reason) {}
@@ -0,0 +1,10 @@
+package com.challenge.vote_challenge.dto;
+
+import java.util.List;
+
+/**
+ * A page of the votes of an Agenda
+ * @param votes the votes of the page ordered by the Associate id
+ * @param nextCursor the value of 'after' to get the next page, null when this is the last one
+ */
+public record VotePage(List<VoteDto> votes, Long nextCursor) {}
@@ -0,0 +1,13 @@
+package com.challenge.vote_challenge.dto;
+
+import com.challenge.vote_challenge.models.VoteReceipt;
+
+/**
+ * The receipt of a vote sent through the async intake
+ */
+public record VoteReceiptDto(String receiptId, String status, String message) {
+
+    public VoteReceiptDto(VoteReceipt receipt){
+        this(receipt.getId(), receipt.getStatus(), receipt.getMessage());
+    }
+}
@@ -0,0 +1,7 @@
+package com.challenge.vote_challenge.dto;
+
+/**
+ * The running result of an Agenda
+ */
+public record VoteTally(Long agendaId, long votesYes, long votesNo) {
+}
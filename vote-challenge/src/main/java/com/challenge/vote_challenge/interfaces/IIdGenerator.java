@@ -0,0 +1,15 @@
+package com.challenge.vote_challenge.interfaces;
+
+public interface IIdGenerator {
+    long nextId();
+
+    /**
+     * Method that tells if the id belongs to the range handed out by the generator, where the ids sent by the clients
+     * aren't accepted
+     * @param id the id to check
+     * @return true if the generator may hand out this id
+     */
+    default boolean isGeneratedRange(long id){
+        return false;
+    }
+}
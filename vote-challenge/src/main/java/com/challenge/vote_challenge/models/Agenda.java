@@ -10,10 +10,12 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_agenda_open_expiration", columnList = "is_open, expiration"))
 @NoArgsConstructor @AllArgsConstructor
 @Getter
 public class Agenda {
-    @Id @GeneratedValue
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agenda_seq")
+    @SequenceGenerator(name = "agenda_seq", sequenceName = "Agenda_SEQ", allocationSize = 50)
     private Long id;
     @Setter
     private String name;
@@ -0,0 +1,30 @@
+package com.challenge.vote_challenge.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stripe of the running vote counters of an Agenda
+ * <p>
+ * The counters of an Agenda are split in a fixed number of rows, so concurrent votes update different rows
+ * instead of contending for the same one. The Agenda result is the sum of its stripes.
+ * </p>
+ */
+@Entity
+@Table(name = "agenda_tally")
+@IdClass(AgendaTallyId.class)
+@NoArgsConstructor @AllArgsConstructor
+@Getter
+public class AgendaTally {
+    @Id
+    private Long agendaId;
+    @Id
+    private int stripe;
+    private long votesYes;
+    private long votesNo;
+}
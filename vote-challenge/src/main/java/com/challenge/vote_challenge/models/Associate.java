@@ -2,20 +2,50 @@ package com.challenge.vote_challenge.models;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 @Entity
-@NoArgsConstructor @AllArgsConstructor
+@Table(indexes = @Index(name = "uk_associate_cpf", columnList = "cpf", unique = true))
+@NoArgsConstructor
 @Getter @Setter
-public class Associate {
+public class Associate implements Persistable<Long> {
     @Id
     private Long id;
     private String cpf;
 
+    @Transient
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
     public Associate(String cpf){
         this.cpf = cpf;
     }
+
+    public Associate(Long id, String cpf){
+        this.id = id;
+        this.cpf = cpf;
+    }
+
+    /**
+     * The id is assigned before the save, so Spring Data can't use it to know if the entity is new,
+     * without this it would SELECT the row before every insert
+     */
+    @Override
+    public boolean isNew(){
+        return newEntity;
+    }
+
+    @PostLoad @PostPersist
+    void markNotNew(){
+        newEntity = false;
+    }
 }
@@ -7,10 +7,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_vote_agenda_associate", columnNames = {"agenda_id", "associate_id"}),
+        indexes = @Index(name = "idx_vote_agenda_vote", columnList = "agenda_id, vote"))
 @NoArgsConstructor @AllArgsConstructor
 @Getter
 public class Vote {
-    @Id @GeneratedValue
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vote_seq")
+    @SequenceGenerator(name = "vote_seq", sequenceName = "Vote_SEQ", allocationSize = 50)
     private Long id;
     @Setter
     private String vote;
@@ -0,0 +1,47 @@
+package com.challenge.vote_challenge.models;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "vote_receipt")
+@NoArgsConstructor
+@Getter
+public class VoteReceipt implements Persistable<String> {
+    @Id @Column(length = 36)
+    private String id;
+    private Long agendaId;
+    private Long associateId;
+    private String status;
+    private String message;
+    private LocalDateTime processedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    public VoteReceipt(String id, Long agendaId, Long associateId, String status, String message){
+        this.id = id;
+        this.agendaId = agendaId;
+        this.associateId = associateId;
+        this.status = status;
+        this.message = message;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean isNew(){
+        return newEntity;
+    }
+
+    @PostLoad @PostPersist
+    void markNotNew(){
+        newEntity = false;
+    }
+}
@@ -1,13 +1,22 @@
 package com.challenge.vote_challenge.repositories;
 
+import com.challenge.vote_challenge.dto.AgendaSummary;
 import com.challenge.vote_challenge.models.Agenda;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 @Repository
 public interface AgendaRepository extends CrudRepository<Agenda, Long> {
     Optional<Set<Agenda>> findByName(String name);
+
+    @Query("select new com.challenge.vote_challenge.dto.AgendaSummary(a.id, a.name, a.details, a.expiration, a.isOpen) " +
+            "from Agenda a where a.id > :id order by a.id")
+    List<AgendaSummary> findSummariesAfter(@Param("id") Long id, Pageable page);
 }
@@ -0,0 +1,35 @@
+package com.challenge.vote_challenge.repositories;
+
+import com.challenge.vote_challenge.dto.VoteTally;
+import com.challenge.vote_challenge.models.AgendaTally;
+import com.challenge.vote_challenge.models.AgendaTallyId;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AgendaTallyRepository extends CrudRepository<AgendaTally, AgendaTallyId> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO agenda_tally (agenda_id, stripe, votes_yes, votes_no) VALUES (:agendaId, :stripe, :votesYes, :votesNo) " +
+            "ON DUPLICATE KEY UPDATE votes_yes = votes_yes + VALUES(votes_yes), votes_no = votes_no + VALUES(votes_no)",
+            nativeQuery = true)
+    void increment(@Param("agendaId") Long agendaId, @Param("stripe") int stripe,
+                   @Param("votesYes") long votesYes, @Param("votesNo") long votesNo);
+
+    @Query("select new com.challenge.vote_challenge.dto.VoteTally(t.agendaId, coalesce(sum(t.votesYes), 0L), coalesce(sum(t.votesNo), 0L)) " +
+            "from AgendaTally t where t.agendaId in :agendaIds group by t.agendaId")
+    List<VoteTally> sumByAgendaIds(@Param("agendaIds") Collection<Long> agendaIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AgendaTally t where t.agendaId = :agendaId")
+    void deleteByAgendaId(@Param("agendaId") Long agendaId);
+}
@@ -4,10 +4,13 @@ import com.challenge.vote_challenge.models.Associate;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssociateRepository extends CrudRepository<Associate, Long> {
     Optional<Associate> findByCpf(String cpf);
     boolean existsByCpf(String cpf);
+    List<Associate> findByCpfIn(Collection<String> cpfs);
 }
@@ -0,0 +1,9 @@
+package com.challenge.vote_challenge.repositories;
+
+import com.challenge.vote_challenge.models.VoteReceipt;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VoteReceiptRepository extends CrudRepository<VoteReceipt, String> {
+}
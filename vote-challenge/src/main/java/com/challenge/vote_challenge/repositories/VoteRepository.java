@@ -1,9 +1,30 @@
 package com.challenge.vote_challenge.repositories;
 
+import com.challenge.vote_challenge.dto.AgendaVote;
 import com.challenge.vote_challenge.models.Vote;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface VoteRepository extends CrudRepository<Vote, Long> {
+    // ordered by the Associate, the unique (agenda_id, associate_id) index reads a page without sorting the Agenda votes
+    @Query("select new com.challenge.vote_challenge.dto.AgendaVote(v.agenda.id, v.id, v.vote, s.id, s.cpf) " +
+            "from Vote v join v.associate s where v.agenda.id = :agendaId and s.id > :after order by s.id")
+    List<AgendaVote> findPageByAgendaId(@Param("agendaId") Long agendaId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select v.associate.id from Vote v where v.agenda.id = :agendaId and v.associate.id in :associateIds")
+    List<Long> findVotedAssociateIds(@Param("agendaId") Long agendaId, @Param("associateIds") Collection<Long> associateIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Vote v where v.agenda.id = :agendaId")
+    void deleteByAgendaId(@Param("agendaId") Long agendaId);
 }
@@ -1,17 +1,27 @@
 package com.challenge.vote_challenge.services;
 
 import com.challenge.vote_challenge.dto.AgendaDto;
-import com.challenge.vote_challenge.dto.AgendaOpenedEvent;
+import com.challenge.vote_challenge.dto.AgendaPage;
+import com.challenge.vote_challenge.dto.AgendaSummary;
+import com.challenge.vote_challenge.dto.AgendaVote;
+import com.challenge.vote_challenge.dto.VoteDto;
+import com.challenge.vote_challenge.dto.VotePage;
+import com.challenge.vote_challenge.dto.VoteTally;
 import com.challenge.vote_challenge.exceptions.NotFoundException;
 import com.challenge.vote_challenge.models.Agenda;
 import com.challenge.vote_challenge.repositories.AgendaRepository;
+import com.challenge.vote_challenge.repositories.VoteRepository;
 import com.challenge.vote_challenge.util.validate.ValidateUtil;
+import com.challenge.vote_events.events.AgendaOpenedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 /**
@@ -20,15 +30,25 @@ import java.util.*;
 @Slf4j
 @Service
 public class AgendaService {
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_EXPANDED_PAGE_SIZE = 50;
+    public static final int MAX_EXPANDED_VOTES = 100;
+    public static final int MAX_VOTES_PAGE_SIZE = 1000;
+
     private final AgendaRepository repository;
+    private final VoteRepository voteRepository;
     private final KafkaTemplate<String, AgendaOpenedEvent> kafkaTemplate;
     private final ValidateUtil validator;
+    private final TallyService tallyService;
 
     @Autowired
-    public AgendaService(AgendaRepository repository, KafkaTemplate<String, AgendaOpenedEvent> kafkaTemplate, ValidateUtil validator) {
+    public AgendaService(AgendaRepository repository, VoteRepository voteRepository, KafkaTemplate<String, AgendaOpenedEvent> kafkaTemplate,
+                         ValidateUtil validator, TallyService tallyService) {
         this.repository = repository;
+        this.voteRepository = voteRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.validator = validator;
+        this.tallyService = tallyService;
     }
 
     /**
@@ -44,7 +64,7 @@ public class AgendaService {
         }
 
         log.debug("Convert Agenda model to Agenda dto and return");
-        return new AgendaDto(agenda);
+        return new AgendaDto(agenda, tallyService.getTally(id));
     }
 
     /**
@@ -70,8 +90,10 @@ public class AgendaService {
             throw new NotFoundException("Not found any agenda by name " + name);
         }
 
+        Map<Long, VoteTally> tallies = tallyService.getTallies(agenda.stream().map(Agenda::getId).toList());
+
         log.debug("Convert Agendas model to Agendas dto and return");
-        return agenda.stream().map(AgendaDto::new).toList();
+        return agenda.stream().map(p -> new AgendaDto(p, tallies.get(p.getId()))).toList();
     }
 
     /**
@@ -82,13 +104,92 @@ public class AgendaService {
         List<AgendaDto> result = new LinkedList<>();
         log.info("Try to get all Agendas into database");
         var agendas = repository.findAll();
+        List<Long> ids = new ArrayList<>();
+        agendas.forEach(p -> ids.add(p.getId()));
+        Map<Long, VoteTally> tallies = tallyService.getTallies(ids);
 
         log.debug("Convert Agendas model to Agendas dto");
-        agendas.forEach(p -> result.add(new AgendaDto(p)));
+        agendas.forEach(p -> result.add(new AgendaDto(p, tallies.get(p.getId()))));
 
         return result;
     }
 
+    /**
+     * Method to get a page of Agendas ordered by id
+     * <p>
+     * The page is read with a keyset cursor, so every page costs the same whatever its position, and the Agendas are
+     * projected without their votes. The counts come from the tallies, and the votes are only read when expanded:
+     * then the page is bounded by MAX_EXPANDED_PAGE_SIZE and each Agenda brings its first MAX_EXPANDED_VOTES votes,
+     * the others are read with getVotes.
+     * </p>
+     * @param after the id of the last Agenda of the previous page, null for the first page
+     * @param size the number of Agendas, bounded by MAX_PAGE_SIZE
+     * @param expandVotes true to also return the first votes of each Agenda
+     * @return An AgendaPage with the Agendas and the cursor of the next page
+     */
+    public AgendaPage getPage(Long after, int size, boolean expandVotes){
+        int pageSize = Math.max(1, Math.min(size, expandVotes ? MAX_EXPANDED_PAGE_SIZE : MAX_PAGE_SIZE));
+        log.info("Try to get '{}' Agendas after id '{}' into database", pageSize, after);
+
+        // one extra row tells if there is a next page without another query
+        List<AgendaSummary> summaries = repository.findSummariesAfter(after == null ? Long.MIN_VALUE : after,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasNext = summaries.size() > pageSize;
+        if(hasNext)
+            summaries = summaries.subList(0, pageSize);
+
+        List<Long> ids = summaries.stream().map(AgendaSummary::id).toList();
+        Map<Long, VoteTally> tallies = tallyService.getTallies(ids);
+        Map<Long, List<VoteDto>> votes = expandVotes ? getVotes(ids) : Map.of();
+
+        log.debug("Convert Agendas summaries to Agendas dto");
+        List<AgendaDto> agendas = summaries.stream()
+                .map(p -> new AgendaDto(p, tallies.get(p.id()), expandVotes ? votes.getOrDefault(p.id(), List.of()) : null))
+                .toList();
+
+        return new AgendaPage(agendas, hasNext ? ids.get(ids.size() - 1) : null);
+    }
+
+    /**
+     * Method to get a page of the votes of an Agenda ordered by the Associate id
+     * @param agendaId the id of the Agenda
+     * @param after the Associate id of the last vote of the previous page, null for the first page
+     * @param size the number of votes, bounded by MAX_VOTES_PAGE_SIZE
+     * @return A VotePage with the votes and the cursor of the next page
+     */
+    public VotePage getVotes(Long agendaId, Long after, int size){
+        if(!repository.existsById(agendaId)){
+            log.error("Agenda not found with id: '{}'", agendaId);
+            throw new NotFoundException("Not found any agenda by id " + agendaId);
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_VOTES_PAGE_SIZE));
+        log.info("Try to get '{}' votes of Agenda '{}' after Associate '{}' into database", pageSize, agendaId, after);
+
+        // one extra row tells if there is a next page without another query
+        List<AgendaVote> votes = voteRepository.findPageByAgendaId(agendaId, after == null ? Long.MIN_VALUE : after,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasNext = votes.size() > pageSize;
+        if(hasNext)
+            votes = votes.subList(0, pageSize);
+
+        return new VotePage(votes.stream().map(AgendaVote::toDto).toList(),
+                hasNext ? votes.get(votes.size() - 1).associateId() : null);
+    }
+
+    // each query stops after the first votes of its Agenda, the page never reads all the votes of a large one
+    private Map<Long, List<VoteDto>> getVotes(List<Long> agendaIds){
+        log.debug("Try to get the first votes of '{}' Agendas", agendaIds.size());
+        Map<Long, List<VoteDto>> votes = new HashMap<>();
+        for(Long agendaId : agendaIds)
+            votes.put(agendaId, voteRepository.findPageByAgendaId(agendaId, Long.MIN_VALUE, PageRequest.of(0, MAX_EXPANDED_VOTES))
+                    .stream()
+                    .map(AgendaVote::toDto)
+                    .toList());
+
+        return votes;
+    }
+
     /**
      * Method to add a new Agenda
      * @param agendaDto the dto who represent the new Agenda
@@ -103,11 +204,16 @@ public class AgendaService {
 
     /**
      * Method used to open exist Agenda
+     * <p>
+     * The tally and the votes of a previous opening are deleted before the Agenda is marked as open, in the same
+     * transaction, so no vote of the new opening is counted before the reset
+     * </p>
      * @param id the id of the Agenda
      * @param hours the hours to the expiration of voting
      * @param minutes the minutes to the expiration of voting
      * @param seconds the seconds to the expiration of voting
      */
+    @Transactional
     public void openAgenda(Long id, int hours, int minutes, int seconds){
         Agenda agenda =  getEntityById(id);
         if(agenda == null){
@@ -124,15 +230,19 @@ public class AgendaService {
                 .plusMinutes(minutes)
                 .plusSeconds(seconds);
 
+        log.info("Try reset votes of Agenda in database");
+        tallyService.reset(agenda.getId());
+        voteRepository.deleteByAgendaId(agenda.getId());
+
         log.info("Try update Agenda in database");
         agenda.setExpiration(expiration);
-        agenda.getVotes().clear();
         agenda.setOpen(true);
         repository.save(agenda);
 
         log.info("Send event to Kafka");
-        AgendaOpenedEvent event = new AgendaOpenedEvent(agenda.getId(), agenda.getExpiration());
-        kafkaTemplate.send("agenda-opened", event);
+        AgendaOpenedEvent event = new AgendaOpenedEvent(agenda.getId(), agenda.getExpiration(),
+                agenda.getExpiration().atZone(ZoneId.systemDefault()).toInstant());
+        kafkaTemplate.send("agenda-opened", String.valueOf(agenda.getId()), event);
     }
 
     /**
@@ -173,6 +283,7 @@ public class AgendaService {
         }
 
         repository.delete(agenda);
+        tallyService.reset(id);
     }
 
 }
@@ -0,0 +1,246 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.constants.AssociateImportRejectionConstants;
+import com.challenge.vote_challenge.dto.AssociateImportReport;
+import com.challenge.vote_challenge.dto.RejectedAssociate;
+import com.challenge.vote_challenge.interfaces.IIdGenerator;
+import com.challenge.vote_challenge.util.importer.AssociateRowReader;
+import com.challenge.vote_challenge.util.index.LongHashSet;
+import com.challenge.vote_challenge.util.validate.CpfValidator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that imports Associates in bulk from a streamed CSV or NDJSON body
+ * <p>
+ * The rows go through a staged pipeline. The request thread parses each row, validates its check digits locally and
+ * drops the cpfs repeated in the file, then hands full chunks to a writer through a small bounded queue, so the
+ * parsing of the next chunk overlaps the database work of the previous one. The writer finds the cpfs of the chunk
+ * already registered with a single query, takes the ids from the hi/lo generator, which only reaches the database
+ * once per block, and inserts the chunk with one JDBC batch in its own transaction. The cpf column is unique and the
+ * insert skips a cpf registered after the lookup, the generated ids found after the insert tell which rows were
+ * skipped so they are reported as already registered instead of failing the whole chunk. The external cpf validation is not used,
+ * one remote call per row is what makes the import of millions of rows take hours.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AssociateImportService {
+    private static final List<AssociateRowReader.Row> END = List.of();
+
+    private static final String SELECT_REGISTERED = "SELECT cpf FROM associate WHERE cpf IN (:cpfs)";
+    private static final String SELECT_INSERTED = "SELECT id FROM associate WHERE id IN (:ids)";
+    // a duplicated cpf leaves the row unchanged instead of failing the batch, its row count depends on the driver
+    private static final String INSERT_ASSOCIATE = "INSERT INTO associate (id, cpf) VALUES (:id, :cpf) ON DUPLICATE KEY UPDATE cpf = cpf";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IIdGenerator idGenerator;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxReportedRejections;
+    private final ExecutorService writers;
+
+    @Autowired
+    public AssociateImportService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  IIdGenerator idGenerator,
+                                  @Value("${associate.import.batch-size:1000}") int batchSize,
+                                  @Value("${associate.import.queue-capacity:4}") int queueCapacity,
+                                  @Value("${associate.import.max-reported-rejections:1000}") int maxReportedRejections,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads){
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idGenerator = idGenerator;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxReportedRejections = maxReportedRejections;
+        this.writers = Executors.newThreadPerTaskExecutor(virtualThreads
+                ? Thread.ofVirtual().name("associate-import-", 0).factory()
+                : Thread.ofPlatform().name("associate-import-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void stop(){
+        writers.shutdownNow();
+    }
+
+    /**
+     * Method to import the Associates of a CSV or NDJSON stream
+     * @param input the stream with one Associate per row
+     * @param format ndjson or csv
+     * @return the AssociateImportReport with the number of imported Associates and the rejected rows
+     */
+    public AssociateImportReport importAssociates(InputStream input, String format) throws IOException {
+        long start = System.nanoTime();
+        AssociateRowReader reader = new AssociateRowReader(input, format);
+        Rejections rejections = new Rejections(maxReportedRejections);
+        BlockingQueue<List<AssociateRowReader.Row>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicLong imported = new AtomicLong();
+
+        log.info("Start import of Associates as '{}'", format);
+        Future<?> writer = writers.submit(() -> write(chunks, rejections, imported));
+        try{
+            LongHashSet seen = new LongHashSet(batchSize);
+            List<AssociateRowReader.Row> chunk = new ArrayList<>(batchSize);
+            AssociateRowReader.Row row;
+            while((row = reader.next()) != null){
+                String rejection = validate(row, seen);
+                if(rejection != null){
+                    rejections.add(row, rejection);
+                    continue;
+                }
+
+                chunk.add(row);
+                if(chunk.size() == batchSize){
+                    handOver(chunks, chunk, writer);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+
+            if(!chunk.isEmpty())
+                handOver(chunks, chunk, writer);
+            handOver(chunks, END, writer);
+            writer.get();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Associates import was interrupted", e);
+        } catch (ExecutionException e){
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException("Associates import failed", e.getCause());
+        } finally {
+            // stops the writer when the body couldn't be read, like when the client goes away
+            if(!writer.isDone())
+                writer.cancel(true);
+        }
+
+        log.info("Imported '{}' Associates and rejected '{}' rows in {}ms", imported.get(), rejections.count(),
+                (System.nanoTime() - start) / 1_000_000);
+        return new AssociateImportReport(imported.get(), rejections.count(), rejections.reported());
+    }
+
+    private String validate(AssociateRowReader.Row row, LongHashSet seen){
+        if(row.cpf() == null)
+            return AssociateImportRejectionConstants.MALFORMED_ROW;
+
+        if(!CpfValidator.isValid(row.cpf()))
+            return AssociateImportRejectionConstants.INVALID_CPF;
+
+        if(!seen.add(Long.parseLong(row.cpf())))
+            return AssociateImportRejectionConstants.DUPLICATED_CPF;
+
+        return null;
+    }
+
+    // the writer may have failed, so never wait on a full queue without looking at it
+    private void handOver(BlockingQueue<List<AssociateRowReader.Row>> chunks, List<AssociateRowReader.Row> chunk,
+                          Future<?> writer) throws InterruptedException, ExecutionException {
+        while(!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)){
+            if(writer.isDone())
+                writer.get();
+        }
+    }
+
+    private void write(BlockingQueue<List<AssociateRowReader.Row>> chunks, Rejections rejections, AtomicLong imported){
+        try{
+            List<AssociateRowReader.Row> chunk;
+            while((chunk = chunks.take()) != END)
+                imported.addAndGet(insert(chunk, rejections));
+        } catch (InterruptedException e){
+            log.warn("Associates import was stopped before the end of the file");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int insert(List<AssociateRowReader.Row> chunk, Rejections rejections){
+        Set<String> registered = new HashSet<>(jdbcTemplate.queryForList(SELECT_REGISTERED,
+                Map.of("cpfs", chunk.stream().map(AssociateRowReader.Row::cpf).toList()), String.class));
+
+        List<AssociateRowReader.Row> pending = new ArrayList<>(chunk.size());
+        List<SqlParameterSource> associates = new ArrayList<>(chunk.size());
+        for(AssociateRowReader.Row row : chunk){
+            if(registered.contains(row.cpf())){
+                rejections.add(row, AssociateImportRejectionConstants.ALREADY_REGISTERED);
+                continue;
+            }
+
+            pending.add(row);
+            associates.add(new MapSqlParameterSource()
+                    .addValue("id", idGenerator.nextId())
+                    .addValue("cpf", row.cpf()));
+        }
+
+        if(associates.isEmpty())
+            return 0;
+
+        Set<Long> insertedIds = transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ASSOCIATE, associates.toArray(new SqlParameterSource[0]));
+            return insertedIds(associates);
+        });
+
+        int inserted = 0;
+        for(int i = 0; i < pending.size(); i++){
+            if(insertedIds.contains((Long) associates.get(i).getValue("id")))
+                inserted++;
+            else
+                rejections.add(pending.get(i), AssociateImportRejectionConstants.ALREADY_REGISTERED);
+        }
+        return inserted;
+    }
+
+    // the row counts can't tell a skipped row: the bulk statements of the driver may not report them, and without
+    // useAffectedRows a skipped duplicate counts as a found row, so only the generated ids tell which were inserted
+    private Set<Long> insertedIds(List<SqlParameterSource> associates){
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_INSERTED,
+                Map.of("ids", associates.stream().map(associate -> associate.getValue("id")).toList()), Long.class));
+    }
+
+    // rows are rejected by both stages, only the first ones are kept for the report
+    private static class Rejections {
+        private final int maxReported;
+        private final List<RejectedAssociate> reported;
+        private long count;
+
+        private Rejections(int maxReported){
+            this.maxReported = maxReported;
+            this.reported = new ArrayList<>();
+        }
+
+        private synchronized void add(AssociateRowReader.Row row, String reason){
+            count++;
+            if(reported.size() < maxReported)
+                reported.add(new RejectedAssociate(row.line(), row.cpf(), reason));
+        }
+
+        private synchronized long count(){
+            return count;
+        }
+
+        private synchronized List<RejectedAssociate> reported(){
+            return reported.stream().sorted(Comparator.comparingLong(RejectedAssociate::line)).toList();
+        }
+    }
+}
@@ -5,16 +5,20 @@ import com.challenge.vote_challenge.dto.AssociateDto;
 import com.challenge.vote_challenge.dto.EligibleVoteStatus;
 import com.challenge.vote_challenge.exceptions.InvalidEntityException;
 import com.challenge.vote_challenge.exceptions.NotFoundException;
+import com.challenge.vote_challenge.interfaces.IIdGenerator;
 import com.challenge.vote_challenge.models.Associate;
 import com.challenge.vote_challenge.repositories.AssociateRepository;
 import com.challenge.vote_challenge.util.validate.ValidateUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 
 /**
  * Class representing the service class of the Associate entity
@@ -24,11 +28,13 @@ import java.util.Random;
 public class AssociateService {
     private final AssociateRepository repository;
     private final ValidateUtil validator;
+    private final IIdGenerator idGenerator;
 
     @Autowired
-    public AssociateService(AssociateRepository repository, ValidateUtil validator){
+    public AssociateService(AssociateRepository repository, ValidateUtil validator, IIdGenerator idGenerator){
         this.repository = repository;
         this.validator = validator;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -67,6 +73,36 @@ public class AssociateService {
         return repository.findByCpf(cpf).orElse(null);
     }
 
+    /**
+     * Method to get the entities of many Associates by id with a single query
+     * @param ids the ids to search the Associates
+     * @return the Associates found by their id, the ids not found are left out
+     */
+    public Map<Long, Associate> getEntitiesByIds(Collection<Long> ids){
+        Map<Long, Associate> result = new HashMap<>();
+        if(ids.isEmpty())
+            return result;
+
+        log.info("Try to get '{}' Associates into database by id", ids.size());
+        repository.findAllById(ids).forEach(p -> result.put(p.getId(), p));
+        return result;
+    }
+
+    /**
+     * Method to get the entities of many Associates by cpf with a single query
+     * @param cpfs the cpfs to search the Associates
+     * @return the Associates found by their cpf, the cpfs not found are left out
+     */
+    public Map<String, Associate> getEntitiesByCpfs(Collection<String> cpfs){
+        Map<String, Associate> result = new HashMap<>();
+        if(cpfs.isEmpty())
+            return result;
+
+        log.info("Try to get '{}' Associates into database by cpf", cpfs.size());
+        repository.findByCpfIn(cpfs).forEach(p -> result.putIfAbsent(p.getCpf(), p));
+        return result;
+    }
+
     /**
      * Method to search Associate by cpf
      * @param cpf cpf to search the Associate
@@ -108,18 +144,13 @@ public class AssociateService {
             return new EligibleVoteStatus(EligibleVoteStatusConstants.UNABLE_TO_VOTE);
         }
 
-        Random random = new Random();
         if(associateDto.getId() == null || associateDto.getId() == 0){
             log.info("Define new Id");
-            long newId = random.nextLong();
-            while (repository.existsById(newId)){
-                newId = random.nextLong(1L, Long.MAX_VALUE);
-            }
-
-            associateDto.setId(newId);
-        }
-
-        if(repository.existsById(associateDto.getId())){
+            associateDto.setId(idGenerator.nextId());
+        } else if(idGenerator.isGeneratedRange(associateDto.getId())){
+            log.error("Associate Id '{}' is in the range of the generated ids", associateDto.getId());
+            throw new InvalidEntityException("Id is reserved to the generated ids, send the Associate without id.");
+        } else if(repository.existsById(associateDto.getId())){
             log.error("Associate Id already exists");
             throw new InvalidEntityException("Id already exist.");
         }
@@ -127,7 +158,7 @@ public class AssociateService {
         log.info("Try to added Associate into database");
         Associate associate = associateDto.toModel();
         associate.setId(associateDto.getId());
-        repository.save(associate);
+        save(associate);
 
         return new EligibleVoteStatus(EligibleVoteStatusConstants.ABLE_TO_VOTE);
     }
@@ -151,7 +182,7 @@ public class AssociateService {
 
         log.info("Try update associate into database");
         associate.setCpf(associateDto.getCpf());
-        repository.save(associate);
+        save(associate);
     }
 
     /**
@@ -168,4 +199,13 @@ public class AssociateService {
         log.info("Try delete Associate into database");
         repository.delete(associate);
     }
+
+    private void save(Associate associate){
+        try{
+            repository.save(associate);
+        } catch (DataIntegrityViolationException dIVEx){
+            log.error("Cpf '{}' is already registered (associate cpf unique constraint)", associate.getCpf());
+            throw new InvalidEntityException("Cpf already registered.");
+        }
+    }
 }
@@ -0,0 +1,199 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.constants.BatchVoteStatusConstants;
+import com.challenge.vote_challenge.constants.VoteConstants;
+import com.challenge.vote_challenge.dto.AssociateDto;
+import com.challenge.vote_challenge.dto.BatchVoteResult;
+import com.challenge.vote_challenge.dto.VoteDto;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.models.Agenda;
+import com.challenge.vote_challenge.models.Associate;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.repositories.VoteRepository;
+import com.challenge.vote_challenge.util.index.LongHashSet;
+import com.challenge.vote_challenge.util.index.VoteIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class that casts many votes of one Agenda at once, sent by the polling stations that collect them offline
+ * <p>
+ * The Agenda is checked once for the whole batch, the Associates are resolved with one query by id and one by cpf,
+ * and the votes already stored are found with one query. The votes repeated in the batch or already stored are
+ * rejected, the accepted ones are reserved in the VoteIndex and saved in chunks, each with JDBC batching in its own
+ * transaction. When a chunk fails its votes are saved again one by one, so a vote cast meanwhile by another instance
+ * only rejects its own entry. Unlike the single vote, an unknown Associate isn't registered, they must be imported
+ * before their votes.
+ * </p>
+ */
+@Slf4j
+@Service
+public class BulkVoteService {
+    private final VoteService voteService;
+    private final AssociateService associateService;
+    private final VoteRepository repository;
+    private final VoteRecordService voteRecordService;
+    private final VoteIndex voteIndex;
+    private final int maxSize;
+    private final int chunkSize;
+
+    @Autowired
+    public BulkVoteService(VoteService voteService, AssociateService associateService, VoteRepository repository,
+                           VoteRecordService voteRecordService, VoteIndex voteIndex,
+                           @Value("${vote.bulk.max-size:10000}") int maxSize,
+                           @Value("${vote.bulk.chunk-size:500}") int chunkSize) {
+        this.voteService = voteService;
+        this.associateService = associateService;
+        this.repository = repository;
+        this.voteRecordService = voteRecordService;
+        this.voteIndex = voteIndex;
+        this.maxSize = maxSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Method used to vote many times on an agenda
+     * @param agendaId the id to get the target Agenda
+     * @param votes the votes to cast in the Agenda
+     * @return the BatchVoteResult of each vote, in the order they were sent
+     */
+    public List<BatchVoteResult> voteAll(Long agendaId, List<VoteDto> votes){
+        if(votes.size() > maxSize){
+            log.error("Batch of '{}' votes is bigger than the limit '{}'", votes.size(), maxSize);
+            throw new InvalidEntityException("A batch cannot have more than " + maxSize + " votes");
+        }
+
+        Agenda agenda = voteService.getOpenAgenda(agendaId);
+        log.info("Try to cast batch of '{}' votes in Agenda '{}'", votes.size(), agendaId);
+
+        BatchVoteResult[] results = new BatchVoteResult[votes.size()];
+        Associate[] associates = resolveAssociates(votes, results);
+        rejectRepeated(agendaId, associates, results);
+
+        List<PreparedVote> accepted = new ArrayList<>();
+        for(int i = 0; i < votes.size(); i++){
+            if(results[i] != null)
+                continue;
+
+            Long associateId = associates[i].getId();
+            if(!voteIndex.register(agendaId, agenda.getExpiration(), associateId)){
+                results[i] = new BatchVoteResult(i, associateId, BatchVoteStatusConstants.ALREADY_VOTED);
+                continue;
+            }
+
+            accepted.add(new PreparedVote(i, new Vote(votes.get(i).getVote(), associates[i], agenda)));
+        }
+
+        for(int from = 0; from < accepted.size(); from += chunkSize)
+            record(agendaId, accepted.subList(from, Math.min(from + chunkSize, accepted.size())), results);
+
+        log.info("Batch of Agenda '{}' cast '{}' votes", agendaId, Arrays.stream(results)
+                .filter(p -> BatchVoteStatusConstants.ACCEPTED.equals(p.status())).count());
+        return Arrays.asList(results);
+    }
+
+    // one query by id and one by cpf for the Associates sent without id or with an unknown one
+    private Associate[] resolveAssociates(List<VoteDto> votes, BatchVoteResult[] results){
+        Set<Long> ids = new HashSet<>();
+        for(int i = 0; i < votes.size(); i++){
+            VoteDto vote = votes.get(i);
+            if(!VoteConstants.YES.equals(vote.getVote()) && !VoteConstants.NO.equals(vote.getVote())
+                    || vote.getAssociate() == null){
+                results[i] = new BatchVoteResult(i, null, BatchVoteStatusConstants.INVALID_VOTE);
+                continue;
+            }
+
+            if(vote.getAssociate().getId() != null)
+                ids.add(vote.getAssociate().getId());
+        }
+        Map<Long, Associate> byId = associateService.getEntitiesByIds(ids);
+
+        Set<String> cpfs = new HashSet<>();
+        for(int i = 0; i < votes.size(); i++){
+            AssociateDto associate = votes.get(i).getAssociate();
+            if(results[i] == null && !byId.containsKey(associate.getId()) && associate.getCpf() != null)
+                cpfs.add(associate.getCpf());
+        }
+        Map<String, Associate> byCpf = associateService.getEntitiesByCpfs(cpfs);
+
+        Associate[] associates = new Associate[votes.size()];
+        for(int i = 0; i < votes.size(); i++){
+            if(results[i] != null)
+                continue;
+
+            AssociateDto associate = votes.get(i).getAssociate();
+            associates[i] = associate.getId() != null && byId.containsKey(associate.getId())
+                    ? byId.get(associate.getId())
+                    : byCpf.get(associate.getCpf());
+            if(associates[i] == null)
+                results[i] = new BatchVoteResult(i, associate.getId(), BatchVoteStatusConstants.UNKNOWN_ASSOCIATE);
+        }
+
+        return associates;
+    }
+
+    private void rejectRepeated(Long agendaId, Associate[] associates, BatchVoteResult[] results){
+        LongHashSet seen = new LongHashSet(associates.length);
+        for(int i = 0; i < associates.length; i++){
+            if(results[i] == null && !seen.add(associates[i].getId()))
+                results[i] = new BatchVoteResult(i, associates[i].getId(), BatchVoteStatusConstants.DUPLICATED);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for(int i = 0; i < associates.length; i++){
+            if(results[i] == null)
+                ids.add(associates[i].getId());
+        }
+        if(ids.isEmpty())
+            return;
+
+        Set<Long> voted = new HashSet<>(repository.findVotedAssociateIds(agendaId, ids));
+        for(int i = 0; i < associates.length; i++){
+            if(results[i] == null && voted.contains(associates[i].getId()))
+                results[i] = new BatchVoteResult(i, associates[i].getId(), BatchVoteStatusConstants.ALREADY_VOTED);
+        }
+    }
+
+    private void record(Long agendaId, List<PreparedVote> chunk, BatchVoteResult[] results){
+        try{
+            voteRecordService.recordAll(chunk.stream().map(PreparedVote::vote).toList());
+            chunk.forEach(p -> results[p.index()] = accepted(p));
+            return;
+        } catch (RuntimeException ex){
+            log.warn("Chunk of '{}' votes failed, save them one by one: {}", chunk.size(), ex.getMessage());
+        }
+
+        for(PreparedVote prepared : chunk){
+            // the failed transaction may have set the ids of the chunk, so each retry saves a fresh copy
+            Vote vote = prepared.vote();
+            Long associateId = vote.getAssociate().getId();
+            try{
+                voteRecordService.record(new Vote(vote.getVote(), vote.getAssociate(), vote.getAgenda()));
+                results[prepared.index()] = accepted(prepared);
+            } catch (DataIntegrityViolationException dIVEx){
+                log.error("Associate {} already voted (vote unique constraint)", associateId);
+                results[prepared.index()] = new BatchVoteResult(prepared.index(), associateId, BatchVoteStatusConstants.ALREADY_VOTED);
+            } catch (RuntimeException ex){
+                log.error("Vote of associate {} could not be saved: {}", associateId, ex.getMessage());
+                voteIndex.unregister(agendaId, associateId);
+                results[prepared.index()] = new BatchVoteResult(prepared.index(), associateId, BatchVoteStatusConstants.FAILED);
+            }
+        }
+    }
+
+    private BatchVoteResult accepted(PreparedVote prepared){
+        return new BatchVoteResult(prepared.index(), prepared.vote().getAssociate().getId(), BatchVoteStatusConstants.ACCEPTED);
+    }
+
+    private record PreparedVote(int index, Vote vote) {}
+}
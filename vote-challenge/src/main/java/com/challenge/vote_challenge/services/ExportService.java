@@ -0,0 +1,111 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.exceptions.NotFoundException;
+import com.challenge.vote_challenge.repositories.AgendaRepository;
+import com.challenge.vote_challenge.util.export.ExportWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Class with the streaming exports of the Associates and the votes
+ * <p>
+ * The rows are read with a forward-only, read-only cursor that fetches a fixed number of rows at a time, and each
+ * row is written to the output as soon as it is read. No entity is loaded, so nothing piles up in a persistence
+ * context, and the memory stays the same for a table of 10k or of 50M rows.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ExportService {
+    private static final String[] ASSOCIATE_COLUMNS = {"id", "cpf"};
+    private static final String[] VOTE_COLUMNS = {"id", "agendaId", "associateId", "cpf", "vote"};
+
+    private static final String SELECT_ASSOCIATES = "SELECT id, cpf FROM associate";
+    private static final String SELECT_VOTES = "SELECT v.id, v.agenda_id, v.associate_id, a.cpf, v.vote FROM vote v " +
+            "JOIN associate a ON a.id = v.associate_id WHERE v.agenda_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AgendaRepository agendaRepository;
+    private final int fetchSize;
+
+    @Autowired
+    public ExportService(DataSource dataSource, AgendaRepository agendaRepository,
+                         @Value("${export.fetch-size:1000}") int fetchSize){
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.agendaRepository = agendaRepository;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Method to export all the Associates
+     * @param output the stream where the rows are written
+     * @param format ndjson or csv
+     * @return the number of Associates exported
+     */
+    public long exportAssociates(OutputStream output, String format) throws IOException {
+        log.info("Try to export all Associates as '{}'", format);
+        return export(output, format, SELECT_ASSOCIATES, ASSOCIATE_COLUMNS, null);
+    }
+
+    /**
+     * Method to check the Agenda before its export starts, while the error can still be sent as the response
+     * @param agendaId the id of the Agenda
+     */
+    public void validAgenda(Long agendaId){
+        if(!agendaRepository.existsById(agendaId)){
+            log.error("Agenda not found with id: '{}'", agendaId);
+            throw new NotFoundException("Not found any agenda by id " + agendaId);
+        }
+    }
+
+    /**
+     * Method to export the votes of an Agenda
+     * @param agendaId the id of the Agenda
+     * @param output the stream where the rows are written
+     * @param format ndjson or csv
+     * @return the number of votes exported
+     */
+    public long exportVotes(Long agendaId, OutputStream output, String format) throws IOException {
+        log.info("Try to export votes of the Agenda '{}' as '{}'", agendaId, format);
+        return export(output, format, SELECT_VOTES, VOTE_COLUMNS, agendaId);
+    }
+
+    private long export(OutputStream output, String format, String sql, String[] columns, Long agendaId) throws IOException {
+        long[] rows = {0};
+        try(ExportWriter writer = new ExportWriter(output, format, columns)){
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                if(agendaId != null)
+                    statement.setLong(1, agendaId);
+                return statement;
+            }, resultSet -> {
+                Object[] values = new Object[columns.length];
+                for(int i = 0; i < columns.length; i++)
+                    values[i] = resultSet.getObject(i + 1);
+
+                try{
+                    writer.writeRow(values);
+                } catch (IOException e){
+                    // the client went away, stop reading the cursor
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        }
+
+        log.debug("Exported '{}' rows", rows[0]);
+        return rows[0];
+    }
+}
@@ -0,0 +1,127 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.constants.VoteConstants;
+import com.challenge.vote_challenge.dto.VoteTally;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.repositories.AgendaTallyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class representing the service of the running vote counters of the Agendas
+ */
+@Slf4j
+@Service
+public class TallyService {
+    public static final int STRIPES = 16;
+    // an empty stripe saved when the Agenda is opened, marks that its tally holds every vote of the opening
+    public static final int OPENING_STRIPE = -1;
+
+    private final AgendaTallyRepository repository;
+
+    @Autowired
+    public TallyService(AgendaTallyRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Method that counts a vote into the Agenda counters, it must run in the same transaction that saves the vote
+     * @param agendaId the id of the Agenda
+     * @param associateId the id of the Associate who voted, used to pick the counter stripe
+     * @param vote the vote, YES or NO
+     */
+    public void increment(Long agendaId, Long associateId, String vote){
+        boolean yes = VoteConstants.YES.equals(vote);
+        boolean no = VoteConstants.NO.equals(vote);
+        if(!yes && !no){
+            log.warn("Vote '{}' is not counted in any tally", vote);
+            return;
+        }
+
+        int stripe = Math.floorMod(associateId, STRIPES);
+        repository.increment(agendaId, stripe, yes ? 1 : 0, no ? 1 : 0);
+    }
+
+    /**
+     * Method that counts many votes with a single counter update per Agenda stripe, it must run in the same
+     * transaction that saves the votes
+     * <p>
+     * Each vote goes to the stripe of its voter, like a single increment, so concurrent batches of the same Agenda
+     * spread over the stripes instead of all locking one row. The stripes are updated in the order of the Agenda id
+     * and the stripe, the same lock order for every batch.
+     * </p>
+     * @param votes the votes with their Associate and Agenda
+     */
+    public void incrementAll(Collection<Vote> votes){
+        Map<Long, long[][]> deltas = new TreeMap<>();
+        for(Vote vote : votes){
+            boolean yes = VoteConstants.YES.equals(vote.getVote());
+            boolean no = VoteConstants.NO.equals(vote.getVote());
+            if(!yes && !no){
+                log.warn("Vote '{}' is not counted in any tally", vote.getVote());
+                continue;
+            }
+
+            // {yes, no} of each stripe
+            long[][] stripes = deltas.computeIfAbsent(vote.getAgenda().getId(), p -> new long[STRIPES][]);
+            int stripe = Math.floorMod(vote.getAssociate().getId(), STRIPES);
+            if(stripes[stripe] == null)
+                stripes[stripe] = new long[2];
+            stripes[stripe][yes ? 0 : 1]++;
+        }
+
+        deltas.forEach((agendaId, stripes) -> {
+            for(int stripe = 0; stripe < STRIPES; stripe++){
+                if(stripes[stripe] != null)
+                    repository.increment(agendaId, stripe, stripes[stripe][0], stripes[stripe][1]);
+            }
+        });
+    }
+
+    /**
+     * Method to get the running result of an Agenda
+     * @param agendaId the id of the Agenda
+     * @return the VoteTally of the Agenda, with zero votes if nobody voted
+     */
+    public VoteTally getTally(Long agendaId){
+        return getTallies(List.of(agendaId)).get(agendaId);
+    }
+
+    /**
+     * Method to get the running result of many Agendas with a single query
+     * @param agendaIds the ids of the Agendas
+     * @return a Map with the VoteTally of each Agenda id
+     */
+    public Map<Long, VoteTally> getTallies(Collection<Long> agendaIds){
+        Map<Long, VoteTally> result = new HashMap<>();
+        if(agendaIds.isEmpty())
+            return result;
+
+        log.debug("Try to get tallies of '{}' Agendas", agendaIds.size());
+        repository.sumByAgendaIds(agendaIds).forEach(p -> result.put(p.agendaId(), p));
+        agendaIds.forEach(p -> result.putIfAbsent(p, new VoteTally(p, 0, 0)));
+
+        return result;
+    }
+
+    /**
+     * Method to reset the counters of an Agenda when it is opened
+     * <p>
+     * The OPENING_STRIPE is saved with zero votes, so agenda-processor only trusts the tallies started at an opening
+     * and recounts the votes of an Agenda opened before the tallies were maintained
+     * </p>
+     * @param agendaId the id of the Agenda
+     */
+    public void reset(Long agendaId){
+        log.info("Reset tally of Agenda with id '{}'", agendaId);
+        repository.deleteByAgendaId(agendaId);
+        repository.increment(agendaId, OPENING_STRIPE, 0, 0);
+    }
+}
@@ -0,0 +1,181 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.models.Vote;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that groups the concurrent votes and saves them in a single transaction (group commit)
+ * <p>
+ * The first queued vote waits at most vote.batch.max-wait for other votes to join its batch, then the batch is saved
+ * with JDBC batching. Each caller still receives the result of its own vote: when a batch fails its votes are saved
+ * again one by one, so a duplicated vote only fails its own caller
+ * </p>
+ */
+@Slf4j
+@Service
+public class VoteBatcher {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final VoteRecordService voteRecordService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingVote> queue;
+    private final DistributionSummary batchSizes;
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public VoteBatcher(VoteRecordService voteRecordService,
+                       @Value("${vote.batch.enabled:true}") boolean enabled,
+                       @Value("${vote.batch.max-size:100}") int maxBatchSize,
+                       @Value("${vote.batch.max-wait:5ms}") Duration maxWait,
+                       @Value("${vote.batch.queue-capacity:10000}") int queueCapacity,
+                       MeterRegistry meterRegistry) {
+        this.voteRecordService = voteRecordService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("vote.batch.size").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start(){
+        if(!enabled){
+            log.info("Vote batching is disabled, votes are saved one by one");
+            return;
+        }
+
+        running = true;
+        flusher = Thread.ofPlatform().name("vote-batcher").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if(!running)
+            return;
+
+        log.info("Stop vote batcher and flush the pending votes");
+        running = false;
+        flusher.join();
+
+        List<PendingVote> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if(!remaining.isEmpty())
+            flush(remaining);
+    }
+
+    /**
+     * Method that saves a vote together with the other votes received in the same window
+     * @param vote the vote with its Associate and Agenda
+     * @return the saved Vote
+     */
+    public Vote record(Vote vote){
+        if(!running)
+            return voteRecordService.record(vote);
+
+        PendingVote pending = new PendingVote(vote, new CompletableFuture<>());
+        if(!queue.offer(pending)){
+            log.warn("Vote batch queue is full, save vote directly");
+            return voteRecordService.record(vote);
+        }
+
+        if(!running && queue.remove(pending))
+            return voteRecordService.record(vote);
+
+        try{
+            return pending.result().join();
+        } catch (CompletionException ex){
+            if(ex.getCause() instanceof RuntimeException cause)
+                throw cause;
+
+            throw ex;
+        }
+    }
+
+    private void run(){
+        while(running || !queue.isEmpty()){
+            PendingVote first;
+            try{
+                first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if(first != null)
+                flush(collect(first));
+        }
+    }
+
+    private List<PendingVote> collect(PendingVote first){
+        List<PendingVote> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while(batch.size() < maxBatchSize){
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if(batch.size() >= maxBatchSize || remaining <= 0)
+                break;
+
+            try{
+                PendingVote next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if(next == null)
+                    break;
+
+                batch.add(next);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return batch;
+    }
+
+    private void flush(List<PendingVote> batch){
+        batchSizes.record(batch.size());
+        try{
+            voteRecordService.recordAll(batch.stream().map(PendingVote::vote).toList());
+            batch.forEach(p -> p.result().complete(p.vote()));
+            return;
+        } catch (RuntimeException ex){
+            if(batch.size() == 1){
+                batch.getFirst().result().completeExceptionally(ex);
+                return;
+            }
+
+            log.warn("Batch of '{}' votes failed, save them one by one: {}", batch.size(), ex.getMessage());
+        }
+
+        for(PendingVote pending : batch){
+            // the failed transaction may have set the ids of the batch, so each retry saves a fresh copy
+            Vote vote = pending.vote();
+            try{
+                pending.result().complete(voteRecordService.record(new Vote(vote.getVote(), vote.getAssociate(), vote.getAgenda())));
+            } catch (RuntimeException ex){
+                pending.result().completeExceptionally(ex);
+            }
+        }
+    }
+
+    private record PendingVote(Vote vote, CompletableFuture<Vote> result) {}
+}
@@ -0,0 +1,221 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.constants.EligibleVoteStatusConstants;
+import com.challenge.vote_challenge.constants.VoteConstants;
+import com.challenge.vote_challenge.constants.VoteIntakeModeConstants;
+import com.challenge.vote_challenge.constants.VoteReceiptStatusConstants;
+import com.challenge.vote_challenge.dto.AssociateDto;
+import com.challenge.vote_challenge.dto.VoteDto;
+import com.challenge.vote_challenge.dto.VoteReceiptDto;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.exceptions.NotFoundException;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.models.VoteReceipt;
+import com.challenge.vote_challenge.repositories.VoteReceiptRepository;
+import com.challenge.vote_events.events.VoteCastCommand;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class representing the service of the asynchronous vote intake
+ * <p>
+ * When vote.intake.mode is async the votes are only checked for the cheap rules, sent into the vote-cast topic keyed
+ * by the Agenda id with the moment they were accepted, and answered with a receipt. The consumers then validate and
+ * save them in batches, in the order of each partition, and store the result of each receipt. A vote is checked
+ * against the expiration of the Agenda at the moment it was accepted, and agenda-processor only closes an Agenda after
+ * this consumer group read every vote sent before the close
+ * </p>
+ */
+@Slf4j
+@Service
+public class VoteIntakeService {
+    public static final String VOTE_CAST_TOPIC = "vote-cast";
+    public static final String VOTE_CAST_DLT_TOPIC = VOTE_CAST_TOPIC + ".DLT";
+
+    private final KafkaTemplate<String, VoteCastCommand> kafkaTemplate;
+    private final VoteService voteService;
+    private final VoteRecordService voteRecordService;
+    private final VoteReceiptRepository receiptRepository;
+    private final boolean async;
+
+    @Autowired
+    public VoteIntakeService(KafkaTemplate<String, VoteCastCommand> kafkaTemplate, VoteService voteService,
+                             VoteRecordService voteRecordService, VoteReceiptRepository receiptRepository,
+                             @Value("${vote.intake.mode:sync}") String mode) {
+        if(!VoteIntakeModeConstants.SYNC.equals(mode) && !VoteIntakeModeConstants.ASYNC.equals(mode))
+            throw new IllegalArgumentException("Invalid vote intake mode '" + mode + "'");
+
+        this.kafkaTemplate = kafkaTemplate;
+        this.voteService = voteService;
+        this.voteRecordService = voteRecordService;
+        this.receiptRepository = receiptRepository;
+        this.async = VoteIntakeModeConstants.ASYNC.equals(mode);
+    }
+
+    public boolean isAsync(){
+        return async;
+    }
+
+    /**
+     * Method that accepts a vote to be processed later
+     * @param agendaId the id of the target Agenda
+     * @param voteDto the vote to vote in the Agenda
+     * @return a CompletableFuture with the PENDING receipt, completed when kafka acknowledges the vote
+     */
+    public CompletableFuture<VoteReceiptDto> accept(Long agendaId, VoteDto voteDto){
+        if(!VoteConstants.YES.equals(voteDto.getVote()) && !VoteConstants.NO.equals(voteDto.getVote())){
+            log.error("Invalid vote '{}'", voteDto.getVote());
+            throw new InvalidEntityException("Vote must be " + VoteConstants.YES + " or " + VoteConstants.NO);
+        }
+
+        AssociateDto associate = voteDto.getAssociate();
+        if(associate == null || (associate.getId() == null && associate.getCpf() == null)){
+            log.error("Vote without associate");
+            throw new InvalidEntityException("Associate must have an id or a cpf");
+        }
+
+        String receiptId = UUID.randomUUID().toString();
+        VoteCastCommand command = new VoteCastCommand(receiptId, agendaId, associate.getId(), associate.getCpf(),
+                voteDto.getVote(), LocalDateTime.now());
+
+        log.info("Send vote of Agenda '{}' to Kafka with receipt '{}'", agendaId, receiptId);
+        return kafkaTemplate.send(VOTE_CAST_TOPIC, String.valueOf(agendaId), command)
+                .thenApply(result -> new VoteReceiptDto(receiptId, VoteReceiptStatusConstants.PENDING, null));
+    }
+
+    /**
+     * Method to get the status of a vote receipt
+     * @param receiptId the id of the receipt
+     * @return the VoteReceiptDto, PENDING while the vote was not processed
+     */
+    public VoteReceiptDto getReceipt(String receiptId){
+        log.info("Try to get vote receipt '{}' into database", receiptId);
+        return receiptRepository.findById(receiptId)
+                .map(VoteReceiptDto::new)
+                .orElseGet(() -> new VoteReceiptDto(receiptId, VoteReceiptStatusConstants.PENDING, null));
+    }
+
+    /**
+     * Method that validates and saves a batch of votes of the vote-cast topic
+     * <p>
+     * Receipts already stored are skipped, so a batch delivered again only processes the votes it did not finish.
+     * A vote that fails its validation for any reason other than the database being unavailable is rejected alone.
+     * When the database is unavailable, the exception is thrown after the finished receipts are stored, so kafka
+     * delivers the batch again, and after the retries the batch is sent to the vote-cast.DLT topic
+     * </p>
+     * @param commands the votes, in the order of their partition
+     */
+    public void process(List<VoteCastCommand> commands){
+        Set<String> processed = new HashSet<>();
+        receiptRepository.findAllById(commands.stream().map(VoteCastCommand::receiptId).toList())
+                .forEach(p -> processed.add(p.getId()));
+
+        List<VoteReceipt> receipts = new ArrayList<>(commands.size());
+        LinkedList<PreparedVote> prepared = new LinkedList<>();
+        try{
+            for(VoteCastCommand command : commands){
+                if(processed.contains(command.receiptId())){
+                    log.debug("Vote receipt '{}' already processed", command.receiptId());
+                    continue;
+                }
+
+                try{
+                    // the records sent before acceptedAt existed are checked at the moment they are consumed
+                    Vote vote = command.acceptedAt() != null
+                            ? voteService.prepareVote(command.agendaId(), toVoteDto(command), command.acceptedAt())
+                            : voteService.prepareVote(command.agendaId(), toVoteDto(command));
+                    if(vote == null)
+                        receipts.add(rejected(command, EligibleVoteStatusConstants.UNABLE_TO_VOTE));
+                    else
+                        prepared.add(new PreparedVote(command, vote));
+                } catch (InvalidEntityException | NotFoundException ex){
+                    receipts.add(rejected(command, ex.getMessage()));
+                } catch (RuntimeException ex){
+                    if(isInfrastructureFailure(ex))
+                        throw ex;
+
+                    // a malformed command would fail every delivery of the batch, so only its receipt is rejected
+                    log.error("Unexpected failure validating vote receipt '{}'", command.receiptId(), ex);
+                    receipts.add(rejected(command, "Vote could not be processed: " + ex.getMessage()));
+                }
+            }
+
+            save(prepared, receipts);
+        } catch (RuntimeException ex){
+            log.error("Failed to process batch of votes, it will be delivered again: {}", ex.getMessage());
+            prepared.forEach(p -> voteService.release(p.vote()));
+            throw ex;
+        } finally {
+            if(!receipts.isEmpty())
+                receiptRepository.saveAll(receipts);
+        }
+    }
+
+    private void save(LinkedList<PreparedVote> prepared, List<VoteReceipt> receipts){
+        if(prepared.isEmpty())
+            return;
+
+        try{
+            log.info("Try to save batch of '{}' votes", prepared.size());
+            voteRecordService.recordAll(prepared.stream().map(PreparedVote::vote).toList());
+            prepared.forEach(p -> receipts.add(accepted(p.command())));
+            prepared.clear();
+            return;
+        } catch (RuntimeException ex){
+            log.warn("Batch of '{}' votes failed, save them one by one: {}", prepared.size(), ex.getMessage());
+        }
+
+        while(!prepared.isEmpty()){
+            PreparedVote next = prepared.peekFirst();
+            Vote vote = next.vote();
+            try{
+                // the failed transaction may have set the ids of the batch, so each retry saves a fresh copy
+                voteService.record(new Vote(vote.getVote(), vote.getAssociate(), vote.getAgenda()));
+                receipts.add(accepted(next.command()));
+            } catch (InvalidEntityException ex){
+                receipts.add(rejected(next.command(), ex.getMessage()));
+            } finally {
+                // record already released the reservation of a vote that failed for other reasons
+                prepared.removeFirst();
+            }
+        }
+    }
+
+    private static boolean isInfrastructureFailure(RuntimeException ex){
+        return ex instanceof TransientDataAccessException || ex instanceof RecoverableDataAccessException
+                || ex instanceof DataAccessResourceFailureException || ex instanceof TransactionException;
+    }
+
+    private VoteReceipt accepted(VoteCastCommand command){
+        return new VoteReceipt(command.receiptId(), command.agendaId(), command.associateId(),
+                VoteReceiptStatusConstants.ACCEPTED, null);
+    }
+
+    private VoteReceipt rejected(VoteCastCommand command, String message){
+        log.warn("Vote receipt '{}' rejected: {}", command.receiptId(), message);
+        return new VoteReceipt(command.receiptId(), command.agendaId(), command.associateId(),
+                VoteReceiptStatusConstants.REJECTED, message);
+    }
+
+    private VoteDto toVoteDto(VoteCastCommand command){
+        return new VoteDto(null, command.vote(), new AssociateDto(command.associateId(), command.cpf()));
+    }
+
+    private record PreparedVote(VoteCastCommand command, Vote vote) {}
+}
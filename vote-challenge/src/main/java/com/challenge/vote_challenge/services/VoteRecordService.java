@@ -0,0 +1,51 @@
+package com.challenge.vote_challenge.services;
+
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.repositories.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Class that persists the votes together with the Agenda counters
+ */
+@Slf4j
+@Service
+public class VoteRecordService {
+    private final VoteRepository repository;
+    private final TallyService tallyService;
+
+    @Autowired
+    public VoteRecordService(VoteRepository repository, TallyService tallyService) {
+        this.repository = repository;
+        this.tallyService = tallyService;
+    }
+
+    /**
+     * Method that saves a vote and counts it into the Agenda tally in the same transaction
+     * @param vote the vote with its Associate and Agenda
+     * @return the saved Vote
+     */
+    @Transactional
+    public Vote record(Vote vote){
+        log.debug("Save vote and update tally of Agenda '{}'", vote.getAgenda().getId());
+        Vote saved = repository.save(vote);
+        tallyService.increment(vote.getAgenda().getId(), vote.getAssociate().getId(), vote.getVote());
+
+        return saved;
+    }
+
+    /**
+     * Method that saves many votes in JDBC batches and counts them into the Agenda tallies in the same transaction
+     * @param votes the votes with their Associate and Agenda, their ids are set when saved
+     */
+    @Transactional
+    public void recordAll(List<Vote> votes){
+        log.debug("Save batch of '{}' votes and update tallies", votes.size());
+        repository.saveAll(votes);
+        tallyService.incrementAll(votes);
+    }
+}
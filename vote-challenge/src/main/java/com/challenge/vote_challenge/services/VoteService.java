@@ -10,8 +10,10 @@ import com.challenge.vote_challenge.models.Agenda;
 import com.challenge.vote_challenge.models.Associate;
 import com.challenge.vote_challenge.models.Vote;
 import com.challenge.vote_challenge.repositories.VoteRepository;
+import com.challenge.vote_challenge.util.index.VoteIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -25,12 +27,17 @@ public class VoteService {
     private final VoteRepository repository;
     private final AgendaService agendaService;
     private final AssociateService associateService;
+    private final VoteIndex voteIndex;
+    private final VoteBatcher voteBatcher;
 
     @Autowired
-    public VoteService(VoteRepository repository, AgendaService agendaService, AssociateService associateService) {
+    public VoteService(VoteRepository repository, AgendaService agendaService, AssociateService associateService,
+                       VoteIndex voteIndex, VoteBatcher voteBatcher) {
         this.repository = repository;
         this.agendaService = agendaService;
         this.associateService = associateService;
+        this.voteIndex = voteIndex;
+        this.voteBatcher = voteBatcher;
     }
 
     /**
@@ -57,43 +64,56 @@ public class VoteService {
      * @return the EligibleVoteStatus who represent if the Associate can vote or not
      */
     public EligibleVoteStatus vote(Long agendaId, VoteDto voteDto){
-        EligibleVoteStatus status;
-        AssociateDto associateDto = voteDto.getAssociate();
-        LocalDateTime now = LocalDateTime.now();
+        Vote vote = prepareVote(agendaId, voteDto);
+        if(vote == null)
+            return new EligibleVoteStatus(EligibleVoteStatusConstants.UNABLE_TO_VOTE);
 
-        Agenda agenda = agendaService.getEntityById(agendaId);
-        if(agenda == null){
-            log.error("Agenda not found with agenda Id: '{}'", agendaId);
-            throw new NotFoundException("Agenda not found by id " + agendaId);
-        }
+        log.info("Try added vote in database");
+        record(vote);
 
-        if(!agenda.isOpen()){
-            log.error("Agenda is Close");
-            throw new InvalidEntityException("Agenda is Close");
-        }
+        return new EligibleVoteStatus(EligibleVoteStatusConstants.ABLE_TO_VOTE);
+    }
 
-        if(agenda.getExpiration().isBefore(now)) {
-            log.error("Agenda already expired. Expiration: '{}'", agenda.getExpiration());
-            throw new InvalidEntityException("Agenda already expired. Expiration: " + agenda.getExpiration());
-        }
+    /**
+     * Method that validates a vote and reserves it in the VoteIndex, without saving it
+     * @param agendaId the id to get the target Agenda
+     * @param voteDto the vote to vote in the Agenda
+     * @return the Vote ready to be saved, or null if the Associate is unable to vote
+     */
+    public Vote prepareVote(Long agendaId, VoteDto voteDto){
+        return prepareVote(agendaId, voteDto, LocalDateTime.now());
+    }
 
-        Associate associate = associateService.getEntityById(associateDto.getId());
+    /**
+     * Method that validates a vote accepted earlier and reserves it in the VoteIndex, without saving it
+     * @param agendaId the id to get the target Agenda
+     * @param voteDto the vote to vote in the Agenda
+     * @param castAt the moment the vote was accepted, checked against the expiration of the Agenda
+     * @return the Vote ready to be saved, or null if the Associate is unable to vote
+     */
+    public Vote prepareVote(Long agendaId, VoteDto voteDto, LocalDateTime castAt){
+        AssociateDto associateDto = voteDto.getAssociate();
+        Agenda agenda = getOpenAgenda(agendaId, castAt);
+
+        // the votes may bring only the cpf of the Associate
+        Associate associate = associateDto.getId() != null
+                ? associateService.getEntityById(associateDto.getId())
+                : associateService.getEntityByCpf(associateDto.getCpf());
 
         if(associate == null){
             log.warn("Associate doesn't exist, try to added with cpf");
-            status = associateService.addAssociate(associateDto);
+            EligibleVoteStatus status = associateService.addAssociate(associateDto);
 
             if(status.status().equals(EligibleVoteStatusConstants.UNABLE_TO_VOTE)){
                 log.warn("Associate is {}", EligibleVoteStatusConstants.UNABLE_TO_VOTE);
-                return status;
+                return null;
             }
 
             associate = associateService.getEntityByCpf(associateDto.getCpf());
         }
 
         Long associateId = associate.getId();
-        boolean existVote = agenda.getVotes().stream().anyMatch(p -> p.getAssociate().getId().equals(associateId));
-        if(existVote){
+        if(!voteIndex.register(agendaId, agenda.getExpiration(), associateId)){
             log.error("Associate {} already voted", associateId);
             throw new InvalidEntityException("Associate " + associateId + " already voted");
         }
@@ -102,10 +122,68 @@ public class VoteService {
         vote.setAssociate(associate);
         vote.setAgenda(agenda);
 
-        log.info("Try added vote in database");
-        repository.save(vote);
+        return vote;
+    }
 
-        status = new EligibleVoteStatus(EligibleVoteStatusConstants.ABLE_TO_VOTE);
-        return status;
+    /**
+     * Method that gets the Agenda where the votes are cast, checking that it is still open
+     * @param agendaId the id to get the target Agenda
+     * @return the open Agenda
+     */
+    public Agenda getOpenAgenda(Long agendaId){
+        return getOpenAgenda(agendaId, LocalDateTime.now());
+    }
+
+    /**
+     * Method that gets the Agenda where the votes are cast, checking that it was open at the moment of the vote
+     * @param agendaId the id to get the target Agenda
+     * @param castAt the moment the vote was cast
+     * @return the open Agenda
+     */
+    public Agenda getOpenAgenda(Long agendaId, LocalDateTime castAt){
+        Agenda agenda = agendaService.getEntityById(agendaId);
+        if(agenda == null){
+            log.error("Agenda not found with agenda Id: '{}'", agendaId);
+            throw new NotFoundException("Agenda not found by id " + agendaId);
+        }
+
+        if(!agenda.isOpen()){
+            log.error("Agenda is Close");
+            throw new InvalidEntityException("Agenda is Close");
+        }
+
+        if(agenda.getExpiration().isBefore(castAt)) {
+            log.error("Agenda already expired. Expiration: '{}'", agenda.getExpiration());
+            throw new InvalidEntityException("Agenda already expired. Expiration: " + agenda.getExpiration());
+        }
+
+        return agenda;
+    }
+
+    /**
+     * Method that saves a vote returned by prepareVote, releasing its reservation when it cannot be saved
+     * @param vote the prepared Vote
+     */
+    public void record(Vote vote){
+        Long agendaId = vote.getAgenda().getId();
+        Long associateId = vote.getAssociate().getId();
+
+        try{
+            voteBatcher.record(vote);
+        } catch (DataIntegrityViolationException dIVEx){
+            log.error("Associate {} already voted (vote unique constraint)", associateId);
+            throw new InvalidEntityException("Associate " + associateId + " already voted");
+        } catch (RuntimeException ex){
+            voteIndex.unregister(agendaId, associateId);
+            throw ex;
+        }
+    }
+
+    /**
+     * Method that releases the reservation of a prepared Vote that will not be saved
+     * @param vote the prepared Vote
+     */
+    public void release(Vote vote){
+        voteIndex.unregister(vote.getAgenda().getId(), vote.getAssociate().getId());
     }
 }
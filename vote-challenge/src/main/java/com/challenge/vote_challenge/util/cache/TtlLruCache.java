@@ -0,0 +1,83 @@
+package com.challenge.vote_challenge.util.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache that evicts the least recently used entry when full and ignores entries older than the ttl
+ */
+public class TtlLruCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private final ReentrantLock lock;
+
+    public TtlLruCache(int maxSize, Duration ttl){
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    public TtlLruCache(int maxSize, Duration ttl, LongSupplier nanoClock){
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.lock = new ReentrantLock();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                return size() > TtlLruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Method to get a value from the cache
+     * @param key the key of the value
+     * @return the value, or null if it is not cached or expired
+     */
+    public V get(K key){
+        lock.lock();
+        try{
+            CacheEntry<V> entry = entries.get(key);
+            if(entry == null)
+                return null;
+
+            if(nanoClock.getAsLong() - entry.expiresAt() >= 0){
+                entries.remove(key);
+                return null;
+            }
+
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Method to put a value into the cache
+     * @param key the key of the value
+     * @param value the value
+     */
+    public void put(K key, V value){
+        lock.lock();
+        try{
+            entries.put(key, new CacheEntry<>(value, nanoClock.getAsLong() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(){
+        lock.lock();
+        try{
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record CacheEntry<T>(T value, long expiresAt) {}
+}
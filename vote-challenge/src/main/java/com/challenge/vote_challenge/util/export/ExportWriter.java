@@ -0,0 +1,114 @@
+package com.challenge.vote_challenge.util.export;
+
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer of the exported rows, one at a time, as NDJSON or CSV
+ * <p>
+ * Nothing is kept after a row is written, the rows go through a small buffer straight to the output stream, so the
+ * memory doesn't depend on the number of rows exported. The output stream isn't closed by this writer.
+ * </p>
+ */
+public class ExportWriter implements Closeable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final String[] columns;
+    private final JsonGenerator json;
+    private final Writer csv;
+
+    public ExportWriter(OutputStream output, String format, String... columns) throws IOException {
+        validFormat(format);
+        this.columns = columns;
+        if(ExportFormatConstants.CSV.equals(format)){
+            this.json = null;
+            this.csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writeCsv(columns);
+        } else {
+            this.json = JSON_FACTORY.createGenerator(output);
+            this.csv = null;
+        }
+    }
+
+    /**
+     * Method to write a row
+     * @param values the values of the row, in the order of the columns
+     */
+    public void writeRow(Object... values) throws IOException {
+        if(csv != null){
+            writeCsv(values);
+            return;
+        }
+
+        json.writeStartObject();
+        for(int i = 0; i < columns.length; i++){
+            Object value = values[i];
+            if(value == null)
+                json.writeNullField(columns[i]);
+            else if(value instanceof Number number)
+                json.writeNumberField(columns[i], number.longValue());
+            else
+                json.writeStringField(columns[i], value.toString());
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(csv != null)
+            csv.flush();
+        else
+            json.close();
+    }
+
+    /**
+     * Method that gives the content type of the export format
+     * @param format ndjson or csv
+     * @return the content type of the response
+     */
+    public static String contentType(String format){
+        validFormat(format);
+        return ExportFormatConstants.CSV.equals(format) ? "text/csv" : "application/x-ndjson";
+    }
+
+    /**
+     * Method that validates the export format
+     * @param format the format asked by the client
+     */
+    public static void validFormat(String format){
+        if(!ExportFormatConstants.NDJSON.equals(format) && !ExportFormatConstants.CSV.equals(format))
+            throw new InvalidEntityException("Export format must be " + ExportFormatConstants.NDJSON + " or " + ExportFormatConstants.CSV);
+    }
+
+    private void writeCsv(Object[] values) throws IOException {
+        for(int i = 0; i < values.length; i++){
+            if(i > 0)
+                csv.write(',');
+            if(values[i] != null)
+                csv.write(escapeCsv(values[i].toString()));
+        }
+        csv.write("\r\n");
+    }
+
+    private String escapeCsv(String value){
+        boolean quote = false;
+        for(int i = 0; i < value.length() && !quote; i++){
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
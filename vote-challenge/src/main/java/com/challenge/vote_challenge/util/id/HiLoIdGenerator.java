@@ -0,0 +1,99 @@
+package com.challenge.vote_challenge.util.id;
+
+import com.challenge.vote_challenge.interfaces.IIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Id generator that reserves blocks of ids from a database sequence
+ * <p>
+ * Each value of the sequence (hi) reserves the ids [offset + hi * blockSize, offset + (hi + 1) * blockSize), which are
+ * then handed out from memory. The sequence is shared by all the instances, so the ids never collide between them,
+ * and only one query is done per blockSize ids. Ids left in a block when the instance stops are never used. The ids
+ * from the offset on are reserved to the generator, so they never collide with the ids sent by the clients either.
+ * </p>
+ */
+@Slf4j
+@Component
+public class HiLoIdGenerator implements IIdGenerator {
+    private static final Pattern SEQUENCE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sequenceName;
+    private final int blockSize;
+    private final long offset;
+    private final ReentrantLock lock;
+    private volatile boolean sequenceCreated;
+    private long next;
+    private long limit;
+
+    @Autowired
+    public HiLoIdGenerator(JdbcTemplate jdbcTemplate,
+                           @Value("${associate.id.sequence:associate_id_seq}") String sequenceName,
+                           @Value("${associate.id.block-size:1000}") int blockSize,
+                           @Value("${associate.id.offset:1000000000000}") long offset){
+        if(!SEQUENCE_NAME.matcher(sequenceName).matches())
+            throw new IllegalArgumentException("Invalid sequence name '" + sequenceName + "'");
+
+        if(blockSize < 1)
+            throw new IllegalArgumentException("Block size must be greater than zero");
+
+        if(offset < 0)
+            throw new IllegalArgumentException("Offset cannot be negative");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceName = sequenceName;
+        this.blockSize = blockSize;
+        this.offset = offset;
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * Method that returns the next id, querying the sequence only when the current block is over
+     * @return a positive id, unique between all the instances
+     */
+    @Override
+    public long nextId(){
+        lock.lock();
+        try{
+            if(next == limit)
+                allocateBlock();
+
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Method that tells if the id is at or above the offset, where only the generator hands out ids
+     * @param id the id to check
+     * @return true if the generator may hand out this id
+     */
+    @Override
+    public boolean isGeneratedRange(long id){
+        return id >= offset;
+    }
+
+    private void allocateBlock(){
+        if(!sequenceCreated){
+            log.info("Try to create sequence '{}' if not exists", sequenceName);
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequenceName + " START WITH 1 INCREMENT BY 1");
+            sequenceCreated = true;
+        }
+
+        Long hi = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequenceName, Long.class);
+        if(hi == null || hi < 1)
+            throw new IllegalStateException("Sequence '" + sequenceName + "' returned an invalid value " + hi);
+
+        log.debug("Allocated id block {} of sequence '{}'", hi, sequenceName);
+        next = Math.addExact(offset, Math.multiplyExact(hi, (long) blockSize));
+        limit = next + blockSize;
+    }
+}
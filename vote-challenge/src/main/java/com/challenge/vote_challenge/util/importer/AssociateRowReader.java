@@ -0,0 +1,162 @@
+package com.challenge.vote_challenge.util.importer;
+
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.util.export.ExportWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader of the Associates import, one row at a time, from a CSV with a 'cpf' column or from NDJSON objects with a
+ * 'cpf' field, the same formats written by the export
+ * <p>
+ * The rows are read while the request body arrives, so the import never holds the whole file. Blank lines are
+ * skipped, and a row that can't be read is returned with a null cpf so it is reported instead of failing the import.
+ * The CSV follows RFC 4180, like the export writes it: a quoted field may hold commas, doubled quotes and line breaks,
+ * and a row is reported at the line where it starts. A quoted field still open after MAX_RECORD_LENGTH characters is
+ * a malformed row, so an unbalanced quote can't swallow the rest of the file.
+ * </p>
+ */
+public class AssociateRowReader {
+    private static final String CPF_FIELD = "cpf";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_RECORD_LENGTH = 65536;
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private int cpfColumn;
+    private long line;
+
+    public AssociateRowReader(InputStream input, String format) throws IOException {
+        ExportWriter.validFormat(format);
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.csv = ExportFormatConstants.CSV.equals(format);
+        if(csv)
+            readHeader();
+    }
+
+    /**
+     * Method to read the next row
+     * @return the row, or null when there are no more rows
+     */
+    public Row next() throws IOException {
+        String value;
+        do{
+            value = reader.readLine();
+            if(value == null)
+                return null;
+
+            line++;
+        } while(value.isBlank());
+
+        long start = line;
+        return new Row(start, csv ? readCsvCpf(value) : readJsonCpf(value));
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        List<String> columns = header == null ? null : readCsvRecord(header);
+        for(int i = 0; columns != null && i < columns.size(); i++){
+            if(CPF_FIELD.equalsIgnoreCase(columns.get(i).trim())){
+                cpfColumn = i;
+                return;
+            }
+        }
+
+        throw new InvalidEntityException("The csv header must have a '" + CPF_FIELD + "' column");
+    }
+
+    private String readCsvCpf(String value) throws IOException {
+        List<String> columns = readCsvRecord(value);
+        return columns != null && cpfColumn < columns.size() ? columns.get(cpfColumn).trim() : null;
+    }
+
+    /**
+     * Method to split a CSV record in its fields, reading the next lines while a quoted field is open
+     * @param value the first line of the record
+     * @return the fields, or null when the record is malformed
+     */
+    private List<String> readCsvRecord(String value) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = value.length();
+        int i = 0;
+        while(true){
+            if(i == value.length()){
+                if(!quoted){
+                    fields.add(field.toString());
+                    return fields;
+                }
+
+                // the line break belongs to the quoted field
+                value = reader.readLine();
+                if(value == null)
+                    return null;
+
+                line++;
+                length += value.length() + 1;
+                if(length > MAX_RECORD_LENGTH)
+                    return null;
+
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = value.charAt(i++);
+            if(quoted){
+                if(c != '"'){
+                    field.append(c);
+                } else if(i < value.length() && value.charAt(i) == '"'){
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                    // only the separator or the end of the record may follow the closing quote
+                    if(i < value.length() && value.charAt(i) != ',')
+                        return null;
+                }
+            } else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if(c == '"' && field.isEmpty()){
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+    private String readJsonCpf(String value){
+        try(JsonParser parser = JSON_FACTORY.createParser(value)){
+            if(parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+
+            String cpf = null;
+            while(parser.nextToken() == JsonToken.FIELD_NAME){
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if(CPF_FIELD.equals(field) && token == JsonToken.VALUE_STRING)
+                    cpf = parser.getText();
+                else
+                    parser.skipChildren();
+            }
+            return cpf;
+        } catch (IOException e){
+            return null;
+        }
+    }
+
+    public record Row(long line, String cpf) {}
+}
@@ -0,0 +1,171 @@
+package com.challenge.vote_challenge.util.index;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of primitive longs, without the boxing and the node per entry of a HashSet<Long>
+ * <p>
+ * This class is not thread safe, the callers must guard concurrent access
+ * </p>
+ */
+public class LongHashSet {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.65f;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsEmptyKey;
+
+    public LongHashSet(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize){
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        allocate(Math.max(capacity, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Method to add a value into the set
+     * @param key the value to add
+     * @return true if the value was added, false if it was already present
+     */
+    public boolean add(long key){
+        if(key == EMPTY){
+            if(containsEmptyKey)
+                return false;
+
+            containsEmptyKey = true;
+            size++;
+            return true;
+        }
+
+        int index = indexOf(key);
+        while(keys[index] != EMPTY){
+            if(keys[index] == key)
+                return false;
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        if(++size > resizeThreshold)
+            rehash(keys.length << 1);
+
+        return true;
+    }
+
+    /**
+     * Method to verify if a value is present into the set
+     * @param key the value to search
+     * @return true if the value is present
+     */
+    public boolean contains(long key){
+        if(key == EMPTY)
+            return containsEmptyKey;
+
+        int index = indexOf(key);
+        while(keys[index] != EMPTY){
+            if(keys[index] == key)
+                return true;
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to remove a value from the set
+     * @param key the value to remove
+     * @return true if the value was removed, false if it was not present
+     */
+    public boolean remove(long key){
+        if(key == EMPTY){
+            if(!containsEmptyKey)
+                return false;
+
+            containsEmptyKey = false;
+            size--;
+            return true;
+        }
+
+        int index = indexOf(key);
+        while(keys[index] != key){
+            if(keys[index] == EMPTY)
+                return false;
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = EMPTY;
+        size--;
+        closeHole(index);
+        return true;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public void clear(){
+        Arrays.fill(keys, EMPTY);
+        containsEmptyKey = false;
+        size = 0;
+    }
+
+    private void closeHole(int hole){
+        int next = (hole + 1) & mask;
+        while(keys[next] != EMPTY){
+            int ideal = indexOf(keys[next]);
+
+            // the entry can only be moved back if the hole is between its ideal slot and its current slot
+            if(((next - ideal) & mask) >= ((next - hole) & mask)){
+                keys[hole] = keys[next];
+                keys[next] = EMPTY;
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity){
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+
+        for(long key : oldKeys){
+            if(key == EMPTY)
+                continue;
+
+            int index = indexOf(key);
+            while(keys[index] != EMPTY)
+                index = (index + 1) & mask;
+
+            keys[index] = key;
+        }
+    }
+
+    private void allocate(int capacity){
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int indexOf(long key){
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int value){
+        int capacity = Integer.highestOneBit(value);
+        return capacity < value ? capacity << 1 : capacity;
+    }
+}
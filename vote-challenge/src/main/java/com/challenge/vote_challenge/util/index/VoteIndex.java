@@ -0,0 +1,99 @@
+package com.challenge.vote_challenge.util.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In memory index of the associates that already voted on each open Agenda
+ * <p>
+ * The index answers in O(1) and atomically reserves the vote of an associate, so two concurrent requests
+ * of the same associate cannot both pass. It only knows the votes cast through this instance, the unique
+ * (agenda_id, associate_id) constraint of the Vote table remains the guard between instances.
+ * </p>
+ */
+@Slf4j
+@Component
+public class VoteIndex {
+    private final ConcurrentHashMap<Long, AgendaVotes> agendas;
+
+    public VoteIndex(){
+        agendas = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method that reserves the vote of an associate in an Agenda
+     * @param agendaId the id of the Agenda
+     * @param expiration the current expiration of the Agenda, a different expiration means the Agenda was reopened
+     * @param associateId the id of the Associate
+     * @return true if the vote was reserved, false if the associate already voted
+     */
+    public boolean register(Long agendaId, LocalDateTime expiration, long associateId){
+        AgendaVotes votes = agendas.get(agendaId);
+
+        if(votes == null || !votes.expiration.equals(expiration)){
+            votes = agendas.compute(agendaId, (id, current) ->
+                    current == null || !current.expiration.equals(expiration) ? new AgendaVotes(expiration) : current);
+            evictExpired(LocalDateTime.now());
+        }
+
+        votes.lock.lock();
+        try{
+            return votes.associates.add(associateId);
+        } finally {
+            votes.lock.unlock();
+        }
+    }
+
+    /**
+     * Method that releases a reserved vote, used when the vote could not be persisted
+     * @param agendaId the id of the Agenda
+     * @param associateId the id of the Associate
+     */
+    public void unregister(Long agendaId, long associateId){
+        AgendaVotes votes = agendas.get(agendaId);
+        if(votes == null)
+            return;
+
+        votes.lock.lock();
+        try{
+            votes.associates.remove(associateId);
+        } finally {
+            votes.lock.unlock();
+        }
+    }
+
+    /**
+     * Method that drops the index of an Agenda
+     * @param agendaId the id of the Agenda
+     */
+    public void evict(Long agendaId){
+        agendas.remove(agendaId);
+    }
+
+    private void evictExpired(LocalDateTime now){
+        agendas.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiration.isBefore(now);
+            if(expired)
+                log.debug("Evict vote index of Agenda '{}'", entry.getKey());
+
+            return expired;
+        });
+    }
+
+    private static final class AgendaVotes {
+        private final LocalDateTime expiration;
+        private final LongHashSet associates;
+        // a ReentrantLock instead of synchronized, so a waiting virtual thread does not pin its carrier
+        private final ReentrantLock lock;
+
+        private AgendaVotes(LocalDateTime expiration){
+            this.expiration = expiration;
+            this.associates = new LongHashSet();
+            this.lock = new ReentrantLock();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.challenge.vote_challenge.util.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker that stops the calls to a failing dependency for a while
+ * <p>
+ * After failureThreshold consecutive failures the circuit opens and every call is refused until
+ * openDuration passes, then a single trial call is allowed, closing the circuit if it succeeds
+ * </p>
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger failures;
+    private final AtomicReference<State> state;
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration){
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock){
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.failures = new AtomicInteger();
+        this.state = new AtomicReference<>(State.CLOSED);
+    }
+
+    /**
+     * Method that verifies if a call can be done
+     * @return true if the circuit is closed or if this is the trial call after the open duration
+     */
+    public boolean tryAcquire(){
+        State current = state.get();
+        if(current == State.CLOSED)
+            return true;
+
+        if(current == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos)
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+
+        return false;
+    }
+
+    public void recordSuccess(){
+        failures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void recordFailure(){
+        if(state.get() == State.HALF_OPEN || failures.incrementAndGet() >= failureThreshold){
+            openedAt = nanoClock.getAsLong();
+            failures.set(0);
+            state.set(State.OPEN);
+        }
+    }
+
+    public State getState(){
+        return state.get();
+    }
+}
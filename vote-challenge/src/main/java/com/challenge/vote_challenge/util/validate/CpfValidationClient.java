@@ -0,0 +1,172 @@
+package com.challenge.vote_challenge.util.validate;
+
+import com.challenge.vote_challenge.util.cache.TtlLruCache;
+import com.challenge.vote_challenge.util.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of the external CPF validation api
+ * <p>
+ * The calls are non-blocking and bounded by the configured timeouts. The answers are kept in a TTL/LRU cache,
+ * concurrent lookups of the same CPF share a single call, and when the api fails or the circuit breaker is open
+ * the result falls back to the local check digits validation
+ * </p>
+ */
+@Slf4j
+@Component
+public class CpfValidationClient {
+    private static final String CPF_VALIDATION_ENDPOINT = "/cpf/valid/{cpf}";
+
+    private final WebClient webClient;
+    private final Duration responseTimeout;
+    private final TtlLruCache<String, Boolean> cache;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight;
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter deduplicated;
+    private final Counter fallbacks;
+
+    @Autowired
+    public CpfValidationClient(@Value("${validation.cpf.remote.url:https://api-cpf.vercel.app}") String baseUrl,
+                               @Value("${validation.cpf.remote.connect-timeout:1s}") Duration connectTimeout,
+                               @Value("${validation.cpf.remote.response-timeout:2s}") Duration responseTimeout,
+                               @Value("${validation.cpf.remote.max-connections:50}") int maxConnections,
+                               @Value("${validation.cpf.remote.cache.max-size:100000}") int cacheMaxSize,
+                               @Value("${validation.cpf.remote.cache.ttl:1h}") Duration cacheTtl,
+                               @Value("${validation.cpf.remote.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${validation.cpf.remote.circuit-breaker.open-duration:30s}") Duration openDuration,
+                               MeterRegistry meterRegistry){
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("cpf-validation")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(responseTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.responseTimeout = responseTimeout;
+        this.cache = new TtlLruCache<>(cacheMaxSize, cacheTtl);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.inFlight = new ConcurrentHashMap<>();
+        this.meterRegistry = meterRegistry;
+
+        this.cacheHits = meterRegistry.counter("cpf.validation.cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("cpf.validation.cache", "result", "miss");
+        this.deduplicated = meterRegistry.counter("cpf.validation.deduplicated");
+        this.fallbacks = meterRegistry.counter("cpf.validation.fallback");
+        Gauge.builder("cpf.validation.circuit.open", circuitBreaker, p -> p.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Method that validates the CPF with the external api
+     * @param cpf the cpf who will be verified, already checked by the local validation
+     * @return a CompletableFuture with true if the cpf is valid, it never completes exceptionally
+     */
+    public CompletableFuture<Boolean> validate(String cpf){
+        Boolean cached = cache.get(cpf);
+        if(cached != null){
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        cacheMisses.increment();
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(cpf, result);
+        if(running != null){
+            log.debug("Cpf validation already running, share its result");
+            deduplicated.increment();
+            return running;
+        }
+
+        if(!circuitBreaker.tryAcquire()){
+            log.warn("Cpf validation circuit is open, use local validation");
+            fallbacks.increment();
+            complete(cpf, result, CpfValidator.isValid(cpf), false);
+            return result;
+        }
+
+        long start = System.nanoTime();
+        webClient.get()
+                .uri(CPF_VALIDATION_ENDPOINT, cpf)
+                .retrieve()
+                .bodyToMono(CpfValidateDto.class)
+                .timeout(responseTimeout)
+                .map(CpfValidateDto::Valid)
+                .defaultIfEmpty(false)
+                .toFuture()
+                .whenComplete((valid, error) -> onResponse(cpf, result, start, valid, error));
+
+        return result;
+    }
+
+    private void onResponse(String cpf, CompletableFuture<Boolean> result, long start, Boolean valid, Throwable error){
+        if(error == null){
+            record(start, "success");
+            circuitBreaker.recordSuccess();
+            complete(cpf, result, valid, true);
+            return;
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if(cause instanceof WebClientResponseException responseEx && responseEx.getStatusCode().is4xxClientError()){
+            log.info("External api refused cpf with status {}", responseEx.getStatusCode());
+            record(start, "rejected");
+            circuitBreaker.recordSuccess();
+            complete(cpf, result, false, true);
+            return;
+        }
+
+        log.warn("External cpf validation failed, use local validation: {}", cause.toString());
+        record(start, "failure");
+        circuitBreaker.recordFailure();
+        fallbacks.increment();
+        complete(cpf, result, CpfValidator.isValid(cpf), false);
+    }
+
+    private void complete(String cpf, CompletableFuture<Boolean> result, boolean valid, boolean cacheable){
+        if(cacheable)
+            cache.put(cpf, valid);
+
+        inFlight.remove(cpf, result);
+        result.complete(valid);
+    }
+
+    private void record(long start, String outcome){
+        Timer.builder("cpf.validation.remote")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public CircuitBreaker.State getCircuitState(){
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,78 @@
+package com.challenge.vote_challenge.util.validate;
+
+/**
+ * In process CPF validator, checks the format and the two mod 11 check digits without allocating
+ */
+public final class CpfValidator {
+    public static final int CPF_LENGTH = 11;
+
+    private CpfValidator(){
+    }
+
+    /**
+     * Method that verifies if the value has only numbers
+     * @param value the value who will be verified
+     * @return true if the value is not empty and has only numbers
+     */
+    public static boolean isNumeric(CharSequence value){
+        if(value == null || value.isEmpty())
+            return false;
+
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c < '0' || c > '9')
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Method that validates the CPF check digits
+     * <p>
+     * The CPF must have 11 numbers, must not be a sequence of the same number (like 111.111.111-11)
+     * and its two last numbers must match the mod 11 check digits of the previous ones
+     * </p>
+     * @param cpf the cpf who will be verified
+     * @return true if the cpf is valid
+     */
+    public static boolean isValid(CharSequence cpf){
+        if(cpf == null || cpf.length() != CPF_LENGTH)
+            return false;
+
+        char firstChar = cpf.charAt(0);
+        boolean sameDigits = true;
+        int firstSum = 0;
+        int secondSum = 0;
+
+        for(int i = 0; i < 9; i++){
+            char c = cpf.charAt(i);
+            if(c < '0' || c > '9')
+                return false;
+
+            int digit = c - '0';
+            firstSum += digit * (10 - i);
+            secondSum += digit * (11 - i);
+            sameDigits &= c == firstChar;
+        }
+
+        int firstCheck = cpf.charAt(9) - '0';
+        int secondCheck = cpf.charAt(10) - '0';
+        if(firstCheck < 0 || firstCheck > 9 || secondCheck < 0 || secondCheck > 9)
+            return false;
+
+        if(sameDigits && firstCheck == firstChar - '0' && secondCheck == firstChar - '0')
+            return false;
+
+        if(checkDigit(firstSum) != firstCheck)
+            return false;
+
+        secondSum += firstCheck * 2;
+        return checkDigit(secondSum) == secondCheck;
+    }
+
+    private static int checkDigit(int sum){
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+}
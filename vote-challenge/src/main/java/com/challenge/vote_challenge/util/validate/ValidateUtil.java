@@ -4,8 +4,8 @@ import com.challenge.vote_challenge.exceptions.InvalidEntityException;
 import com.challenge.vote_challenge.repositories.AssociateRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Class that carries useful validations
@@ -13,16 +13,16 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Slf4j
 @Component
 public class ValidateUtil {
-    private final String CPF_VALIDATION_URL = "https://api-cpf.vercel.app";
-    private final String CPF_VALIDATION_ENDPOINT = "/cpf/valid/";
-
-    private final WebClient cpfValidator;
+    private final CpfValidationClient cpfValidationClient;
     private final AssociateRepository repository;
 
+    @Value("${validation.cpf.remote.enabled:false}")
+    private boolean remoteValidationEnabled;
+
     @Autowired
-    public ValidateUtil(AssociateRepository repository){
+    public ValidateUtil(AssociateRepository repository, CpfValidationClient cpfValidationClient){
         this.repository = repository;
-        cpfValidator = WebClient.builder().baseUrl(CPF_VALIDATION_URL).build();
+        this.cpfValidationClient = cpfValidationClient;
     }
 
     /**
@@ -43,25 +43,29 @@ public class ValidateUtil {
 
     /**
      * Method that validates whether the CPF is valid
+     * <p>
+     * The check digits are verified locally, the external api is only called
+     * as a secondary check when validation.cpf.remote.enabled is true
+     * </p>
      * @param cpf the cpf who will be verified
      * @return A boolean, true if cpf is valid and false if cpf is invalid
      */
     public boolean isCpfValid(String cpf){
         try{
             validCpfFormat(cpf);
-            cpfExists(cpf);
 
-            log.info("Verify cpf with external call");
-            log.debug("url: {}\n endpoint: {}", CPF_VALIDATION_URL, CPF_VALIDATION_ENDPOINT);
+            if(!CpfValidator.isValid(cpf)){
+                log.warn("Cpf check digits are invalid");
+                return false;
+            }
 
-            String endpoint = CPF_VALIDATION_ENDPOINT + cpf;
-            CpfValidateDto response = cpfValidator.get()
-                    .uri(endpoint)
-                    .retrieve()
-                    .bodyToMono(CpfValidateDto.class)
-                    .block();
+            cpfExists(cpf);
+
+            if(!remoteValidationEnabled)
+                return true;
 
-            return response != null && response.Valid();
+            log.info("Verify cpf with external call");
+            return cpfValidationClient.validate(cpf).join();
         } catch (InvalidEntityException iCEx){
             log.error(iCEx.getMessage());
             throw  iCEx;
@@ -74,10 +78,10 @@ public class ValidateUtil {
         if(cpf == null)
             throw new InvalidEntityException("Cpf cannot be null");
 
-        if(cpf.length() != 11)
+        if(cpf.length() != CpfValidator.CPF_LENGTH)
             throw new InvalidEntityException("CPF in invalid format, CPF must have 11 digits and contain only numbers (must not contain periods or symbols)");
 
-        if(!cpf.matches("^\\d+$"))
+        if(!CpfValidator.isNumeric(cpf))
             throw new InvalidEntityException("CPF must contain only numbers (must not contain periods or symbols)");
     }
 
@@ -1,17 +1,28 @@
 package com.challenge.vote_challenge.unit.services;
 
 import com.challenge.vote_challenge.dto.AgendaDto;
-import com.challenge.vote_challenge.dto.AgendaOpenedEvent;
+import com.challenge.vote_challenge.dto.AgendaPage;
+import com.challenge.vote_challenge.dto.AgendaSummary;
+import com.challenge.vote_challenge.dto.AgendaVote;
+import com.challenge.vote_challenge.dto.VotePage;
+import com.challenge.vote_challenge.dto.VoteTally;
 import com.challenge.vote_challenge.exceptions.NotFoundException;
 import com.challenge.vote_challenge.models.Agenda;
+import com.challenge.vote_challenge.models.Associate;
+import com.challenge.vote_challenge.models.Vote;
 import com.challenge.vote_challenge.repositories.AgendaRepository;
+import com.challenge.vote_challenge.repositories.VoteRepository;
 import com.challenge.vote_challenge.services.AgendaService;
+import com.challenge.vote_challenge.services.TallyService;
 import com.challenge.vote_challenge.util.validate.ValidateUtil;
+import com.challenge.vote_events.events.AgendaOpenedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 
 import java.time.LocalDateTime;
@@ -26,12 +37,18 @@ public class AgendaServiceTest {
     @Mock
     private AgendaRepository repository;
 
+    @Mock
+    private VoteRepository voteRepository;
+
     @Mock
     private KafkaTemplate<String, AgendaOpenedEvent> kafkaTemplate;
 
     @Mock
     private ValidateUtil validator;
 
+    @Mock
+    private TallyService tallyService;
+
     @InjectMocks
     private AgendaService service;
 
@@ -41,12 +58,18 @@ public class AgendaServiceTest {
         LocalDateTime date = LocalDateTime.now();
         AgendaDto agendaDto = new AgendaDto(1L, "Pokemon", "Pokemon Details", date, new LinkedList<>(), false);
         Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon Details", date, new HashSet<>(), false);
+        agenda.getVotes().add(new Vote("YES", new Associate(3L, "97525134090"), agenda));
 
         when(repository.findById(id)).thenReturn(Optional.of(agenda));
+        when(tallyService.getTally(id)).thenReturn(new VoteTally(id, 3, 2));
 
         AgendaDto result = service.getById(id);
 
         assertEquals(agendaDto.getId(), result.getId());
+        assertEquals(3, result.getVotesYes());
+        assertEquals(2, result.getVotesNo());
+        assertEquals(1, result.getVotes().size());
+        assertEquals(3L, result.getVotes().get(0).getAssociate().getId());
     }
 
     @Test
@@ -73,7 +96,11 @@ public class AgendaServiceTest {
         agendas.add(new Agenda(4L, "Pokemon", "Pokemon Details 4", LocalDateTime.now(), new HashSet<>(), false));
         agendas.add(new Agenda(5L, "Pokemon", "Pokemon Details 5", LocalDateTime.now(), new HashSet<>(), false));
 
+        Map<Long, VoteTally> tallies = new HashMap<>();
+        agendas.forEach(p -> tallies.put(p.getId(), new VoteTally(p.getId(), 0, 0)));
+
         when(repository.findByName(name)).thenReturn(Optional.of(agendas));
+        when(tallyService.getTallies(any())).thenReturn(tallies);
 
         List<AgendaDto> agendasDto = service.getByName(name);
 
@@ -108,7 +135,22 @@ public class AgendaServiceTest {
 
         service.openAgenda(id, hour, minutes, seconds);
         verify(repository, times(1)).save(agenda);
-        verify(kafkaTemplate, times(1)).send(any(), any());
+        verify(tallyService, times(1)).reset(id);
+        verify(kafkaTemplate, times(1)).send(eq("agenda-opened"), eq(String.valueOf(id)), any());
+    }
+
+    @Test
+    void openAgenda_shouldResetTallyAndVotes_beforeOpeningAgenda(){
+        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon Details", LocalDateTime.now(), new HashSet<>(), false);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(agenda));
+
+        service.openAgenda(1L, 0, 1, 0);
+
+        InOrder inOrder = inOrder(tallyService, voteRepository, repository);
+        inOrder.verify(tallyService).reset(1L);
+        inOrder.verify(voteRepository).deleteByAgendaId(1L);
+        inOrder.verify(repository).save(agenda);
     }
 
     @Test
@@ -179,4 +221,104 @@ public class AgendaServiceTest {
 
         assertEquals("Not found any agenda by id " + id, ex.getMessage());
     }
+
+    @Test
+    void getPage_shouldReturnCountsAndNextCursor_whenThereAreMoreAgendas(){
+        LocalDateTime date = LocalDateTime.now();
+        when(repository.findSummariesAfter(10L, PageRequest.of(0, 3))).thenReturn(List.of(
+                new AgendaSummary(11L, "Agenda 11", "", date, true),
+                new AgendaSummary(12L, "Agenda 12", "", date, false),
+                new AgendaSummary(13L, "Agenda 13", "", date, false)));
+        when(tallyService.getTallies(List.of(11L, 12L))).thenReturn(Map.of(
+                11L, new VoteTally(11L, 5, 1),
+                12L, new VoteTally(12L, 0, 0)));
+
+        AgendaPage result = service.getPage(10L, 2, false);
+
+        assertEquals(2, result.agendas().size());
+        assertEquals(12L, result.nextCursor());
+        assertEquals(5, result.agendas().get(0).getVotesYes());
+        assertNull(result.agendas().get(0).getVotes());
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void getPage_shouldReturnVotesAndNoCursor_whenVotesAreExpandedOnLastPage(){
+        LocalDateTime date = LocalDateTime.now();
+        when(repository.findSummariesAfter(Long.MIN_VALUE, PageRequest.of(0, 3))).thenReturn(List.of(
+                new AgendaSummary(1L, "Agenda 1", "", date, false),
+                new AgendaSummary(2L, "Agenda 2", "", date, false)));
+        when(tallyService.getTallies(List.of(1L, 2L))).thenReturn(Map.of(
+                1L, new VoteTally(1L, 1, 1),
+                2L, new VoteTally(2L, 0, 0)));
+        when(voteRepository.findPageByAgendaId(1L, Long.MIN_VALUE, PageRequest.of(0, AgendaService.MAX_EXPANDED_VOTES))).thenReturn(List.of(
+                new AgendaVote(1L, 7L, "YES", 3L, "97525134090"),
+                new AgendaVote(1L, 8L, "NO", 4L, "97525134090")));
+        when(voteRepository.findPageByAgendaId(2L, Long.MIN_VALUE, PageRequest.of(0, AgendaService.MAX_EXPANDED_VOTES))).thenReturn(List.of());
+
+        AgendaPage result = service.getPage(null, 2, true);
+
+        assertNull(result.nextCursor());
+        assertEquals(2, result.agendas().get(0).getVotes().size());
+        assertEquals(3L, result.agendas().get(0).getVotes().get(0).getAssociate().getId());
+        assertEquals(List.of(), result.agendas().get(1).getVotes());
+    }
+
+    @Test
+    void getPage_shouldBoundPageSize(){
+        when(repository.findSummariesAfter(Long.MIN_VALUE, PageRequest.of(0, AgendaService.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        AgendaPage result = service.getPage(null, 100_000, false);
+
+        assertTrue(result.agendas().isEmpty());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getPage_shouldBoundPageSize_whenVotesAreExpanded(){
+        when(repository.findSummariesAfter(Long.MIN_VALUE, PageRequest.of(0, AgendaService.MAX_EXPANDED_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        AgendaPage result = service.getPage(null, AgendaService.MAX_PAGE_SIZE, true);
+
+        assertTrue(result.agendas().isEmpty());
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void getVotes_shouldReturnVotesAndNextCursor_whenThereAreMoreVotes(){
+        when(repository.existsById(1L)).thenReturn(true);
+        when(voteRepository.findPageByAgendaId(1L, 3L, PageRequest.of(0, 3))).thenReturn(List.of(
+                new AgendaVote(1L, 7L, "YES", 4L, "97525134090"),
+                new AgendaVote(1L, 8L, "NO", 5L, "97525134090"),
+                new AgendaVote(1L, 9L, "NO", 6L, "97525134090")));
+
+        VotePage result = service.getVotes(1L, 3L, 2);
+
+        assertEquals(2, result.votes().size());
+        assertEquals(4L, result.votes().get(0).getAssociate().getId());
+        assertEquals(5L, result.nextCursor());
+    }
+
+    @Test
+    void getVotes_shouldReturnNoCursor_whenPageIsLast(){
+        when(repository.existsById(1L)).thenReturn(true);
+        when(voteRepository.findPageByAgendaId(1L, Long.MIN_VALUE, PageRequest.of(0, AgendaService.MAX_VOTES_PAGE_SIZE + 1))).thenReturn(List.of(
+                new AgendaVote(1L, 7L, "YES", 4L, "97525134090")));
+
+        VotePage result = service.getVotes(1L, null, 100_000);
+
+        assertEquals(1, result.votes().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getVotes_shouldThrowException_whenAgendaNotExist(){
+        Long id = 1L;
+        when(repository.existsById(id)).thenReturn(false);
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.getVotes(id, null, 10));
+
+        assertEquals("Not found any agenda by id " + id, ex.getMessage());
+        verifyNoInteractions(voteRepository);
+    }
 }
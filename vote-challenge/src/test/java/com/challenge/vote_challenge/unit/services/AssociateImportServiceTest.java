@@ -0,0 +1,151 @@
+package com.challenge.vote_challenge.unit.services;
+
+import com.challenge.vote_challenge.constants.AssociateImportRejectionConstants;
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
+import com.challenge.vote_challenge.dto.AssociateImportReport;
+import com.challenge.vote_challenge.dto.RejectedAssociate;
+import com.challenge.vote_challenge.interfaces.IIdGenerator;
+import com.challenge.vote_challenge.services.AssociateImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AssociateImportServiceTest {
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AssociateImportService service;
+
+    @BeforeEach
+    void setUp(){
+        AtomicLong ids = new AtomicLong(1000);
+        IIdGenerator idGenerator = ids::getAndIncrement;
+        service = new AssociateImportService(jdbcTemplate, transactionManager, idGenerator, 2, 1, 10, false);
+    }
+
+    @AfterEach
+    void tearDown(){
+        service.stop();
+    }
+
+    private static int[] inserted(SqlParameterSource[] batch){
+        int[] counts = new int[batch.length];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> allIds(Map<String, ?> parameters){
+        return ((List<Object>) parameters.get("ids")).stream().map(Long.class::cast).toList();
+    }
+
+    private AssociateImportReport importCsv(String body) throws IOException {
+        return service.importAssociates(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ExportFormatConstants.CSV);
+    }
+
+    @Test
+    void importAssociates_shouldInsertValidRowsInBatches_andReportRejected() throws IOException {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("11144477735"))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenAnswer(invocation -> inserted(invocation.getArgument(1)));
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class)))
+                .thenAnswer(invocation -> allIds(invocation.getArgument(1)));
+
+        AssociateImportReport report = importCsv("cpf\n97525134090\n11144477735\n12345678901\n97525134090\n12345678909\nx\"\n52998224725\n");
+
+        assertEquals(3, report.imported());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of(
+                new RejectedAssociate(3, "11144477735", AssociateImportRejectionConstants.ALREADY_REGISTERED),
+                new RejectedAssociate(4, "12345678901", AssociateImportRejectionConstants.INVALID_CPF),
+                new RejectedAssociate(5, "97525134090", AssociateImportRejectionConstants.DUPLICATED_CPF),
+                new RejectedAssociate(7, "x\"", AssociateImportRejectionConstants.INVALID_CPF)), report.rejections());
+
+        ArgumentCaptor<SqlParameterSource[]> batches = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        List<Object> cpfs = batches.getAllValues().stream()
+                .flatMap(Arrays::stream)
+                .map(p -> p.getValue("cpf"))
+                .toList();
+        assertEquals(List.of("97525134090", "12345678909", "52998224725"), cpfs);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void importAssociates_shouldRejectRow_whenCpfIsRegisteredAfterTheLookup() throws IOException {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+        // without useAffectedRows the driver counts the skipped duplicate as a found row
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[]{1, 1});
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).thenReturn(List.of(1000L));
+
+        AssociateImportReport report = importCsv("cpf\n97525134090\n12345678909\n");
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new RejectedAssociate(3, "12345678909", AssociateImportRejectionConstants.ALREADY_REGISTERED)),
+                report.rejections());
+    }
+
+    @Test
+    void importAssociates_shouldLookUpInsertedIds_whenRowCountsAreNotReported() throws IOException {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).thenReturn(List.of(1001L));
+
+        AssociateImportReport report = importCsv("cpf\n97525134090\n12345678909\n");
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new RejectedAssociate(2, "97525134090", AssociateImportRejectionConstants.ALREADY_REGISTERED)),
+                report.rejections());
+    }
+
+    @Test
+    void importAssociates_shouldLimitReportedRejections() throws IOException {
+        String body = "cpf\n" + "123\n".repeat(25);
+
+        AssociateImportReport report = importCsv(body);
+
+        assertEquals(0, report.imported());
+        assertEquals(25, report.rejected());
+        assertEquals(10, report.rejections().size());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void importAssociates_shouldThrow_whenInsertFails() {
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"));
+
+        String body = "cpf\n97525134090\n12345678909\n52998224725\n11144477735\n39053344705\n";
+
+        assertThrows(DataAccessResourceFailureException.class, () -> importCsv(body));
+    }
+}
@@ -5,15 +5,18 @@ import com.challenge.vote_challenge.dto.AssociateDto;
 import com.challenge.vote_challenge.dto.EligibleVoteStatus;
 import com.challenge.vote_challenge.exceptions.InvalidEntityException;
 import com.challenge.vote_challenge.exceptions.NotFoundException;
+import com.challenge.vote_challenge.interfaces.IIdGenerator;
 import com.challenge.vote_challenge.models.Associate;
 import com.challenge.vote_challenge.repositories.AssociateRepository;
 import com.challenge.vote_challenge.services.AssociateService;
 import com.challenge.vote_challenge.util.validate.ValidateUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Optional;
 
@@ -31,6 +34,9 @@ public class AssociateServiceTest {
     @Mock
     private ValidateUtil validator;
 
+    @Mock
+    private IIdGenerator idGenerator;
+
     @InjectMocks
     private AssociateService service;
 
@@ -97,6 +103,21 @@ public class AssociateServiceTest {
         assertEquals(status, result);
     }
 
+    @Test
+    void addAssociate_shouldUseGeneratedId_whenIdIsNotInformed(){
+        AssociateDto associateDto = new AssociateDto(null, "97525134090");
+
+        when(validator.isCpfValid(associateDto.getCpf())).thenReturn(true);
+        when(idGenerator.nextId()).thenReturn(1000L);
+
+        service.addAssociate(associateDto);
+
+        ArgumentCaptor<Associate> captor = ArgumentCaptor.forClass(Associate.class);
+        verify(repository).save(captor.capture());
+        assertEquals(1000L, captor.getValue().getId());
+        verify(repository, never()).existsById(any());
+    }
+
     @Test
     void addAssociate_shouldReturnUnableToVote_whenCpfIsInvalid(){
         AssociateDto associateDto = new AssociateDto(1L, "97525134090");
@@ -121,6 +142,34 @@ public class AssociateServiceTest {
         assertEquals("Id already exist.", ex.getMessage());
     }
 
+    @Test
+    void addAssociate_shouldThrowException_whenIdIsInGeneratedRange(){
+        AssociateDto associateDto = new AssociateDto(1_000_000_000_000L, "97525134090");
+
+        when(validator.isCpfValid(associateDto.getCpf())).thenReturn(true);
+        when(idGenerator.isGeneratedRange(associateDto.getId())).thenReturn(true);
+
+        InvalidEntityException ex = assertThrows(InvalidEntityException.class, () -> {
+            service.addAssociate(associateDto);
+        });
+        assertEquals("Id is reserved to the generated ids, send the Associate without id.", ex.getMessage());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void addAssociate_shouldThrowException_whenCpfIsAlreadyRegistered(){
+        AssociateDto associateDto = new AssociateDto(1L, "97525134090");
+
+        when(validator.isCpfValid(associateDto.getCpf())).thenReturn(true);
+        when(repository.existsById(associateDto.getId())).thenReturn(false);
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("uk_associate_cpf"));
+
+        InvalidEntityException ex = assertThrows(InvalidEntityException.class, () -> {
+            service.addAssociate(associateDto);
+        });
+        assertEquals("Cpf already registered.", ex.getMessage());
+    }
+
     @Test
     void updateAssociate_shouldThrowException_whenIdNotExist(){
         Long id = 1L;
@@ -0,0 +1,138 @@
+package com.challenge.vote_challenge.unit.services;
+
+import com.challenge.vote_challenge.constants.BatchVoteStatusConstants;
+import com.challenge.vote_challenge.dto.AssociateDto;
+import com.challenge.vote_challenge.dto.BatchVoteResult;
+import com.challenge.vote_challenge.dto.VoteDto;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.models.Agenda;
+import com.challenge.vote_challenge.models.Associate;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.repositories.VoteRepository;
+import com.challenge.vote_challenge.services.AssociateService;
+import com.challenge.vote_challenge.services.BulkVoteService;
+import com.challenge.vote_challenge.services.VoteRecordService;
+import com.challenge.vote_challenge.services.VoteService;
+import com.challenge.vote_challenge.util.index.VoteIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkVoteServiceTest {
+    @Mock
+    private VoteService voteService;
+
+    @Mock
+    private AssociateService associateService;
+
+    @Mock
+    private VoteRepository repository;
+
+    @Mock
+    private VoteRecordService voteRecordService;
+
+    @Mock
+    private VoteIndex voteIndex;
+
+    private BulkVoteService service;
+
+    private final Agenda agenda = new Agenda(1L, "Agenda", "", LocalDateTime.now().plusMinutes(5), null, true);
+
+    @BeforeEach
+    void setUp(){
+        service = new BulkVoteService(voteService, associateService, repository, voteRecordService, voteIndex, 8, 2);
+    }
+
+    private VoteDto vote(String vote, Long associateId, String cpf){
+        return new VoteDto(null, vote, new AssociateDto(associateId, cpf));
+    }
+
+    @Test
+    void voteAll_shouldReturnStatusOfEachVote_inTheOrderTheyWereSent(){
+        List<VoteDto> votes = List.of(
+                vote("YES", 1L, null),
+                vote("MAYBE", 2L, null),
+                vote("NO", null, "52998224725"),
+                vote("YES", 9L, null),
+                vote("NO", 1L, null),
+                vote("YES", 4L, null),
+                vote("NO", 5L, null));
+        when(voteService.getOpenAgenda(1L)).thenReturn(agenda);
+        when(associateService.getEntitiesByIds(any())).thenReturn(Map.of(
+                1L, new Associate(1L, "97525134090"),
+                4L, new Associate(4L, "11144477735"),
+                5L, new Associate(5L, "12345678909")));
+        when(associateService.getEntitiesByCpfs(any())).thenReturn(Map.of("52998224725", new Associate(3L, "52998224725")));
+        when(repository.findVotedAssociateIds(eq(1L), anyList())).thenReturn(List.of(4L));
+        when(voteIndex.register(eq(1L), any(), anyLong())).thenAnswer(p -> (long) p.getArgument(2) != 5L);
+
+        List<BatchVoteResult> result = service.voteAll(1L, votes);
+
+        assertEquals(List.of(
+                new BatchVoteResult(0, 1L, BatchVoteStatusConstants.ACCEPTED),
+                new BatchVoteResult(1, null, BatchVoteStatusConstants.INVALID_VOTE),
+                new BatchVoteResult(2, 3L, BatchVoteStatusConstants.ACCEPTED),
+                new BatchVoteResult(3, 9L, BatchVoteStatusConstants.UNKNOWN_ASSOCIATE),
+                new BatchVoteResult(4, 1L, BatchVoteStatusConstants.DUPLICATED),
+                new BatchVoteResult(5, 4L, BatchVoteStatusConstants.ALREADY_VOTED),
+                new BatchVoteResult(6, 5L, BatchVoteStatusConstants.ALREADY_VOTED)), result);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Vote>> captor = ArgumentCaptor.forClass(List.class);
+        verify(voteRecordService, times(1)).recordAll(captor.capture());
+        assertEquals(List.of(1L, 3L), captor.getValue().stream().map(p -> p.getAssociate().getId()).toList());
+        assertEquals(List.of("YES", "NO"), captor.getValue().stream().map(Vote::getVote).toList());
+    }
+
+    @Test
+    void voteAll_shouldSaveOneByOne_whenChunkFails(){
+        List<VoteDto> votes = List.of(vote("YES", 1L, null), vote("NO", 2L, null), vote("YES", 3L, null));
+        when(voteService.getOpenAgenda(1L)).thenReturn(agenda);
+        when(associateService.getEntitiesByIds(any())).thenReturn(Map.of(
+                1L, new Associate(1L, "97525134090"),
+                2L, new Associate(2L, "11144477735"),
+                3L, new Associate(3L, "52998224725")));
+        when(repository.findVotedAssociateIds(eq(1L), anyList())).thenReturn(List.of());
+        when(voteIndex.register(eq(1L), any(), anyLong())).thenReturn(true);
+        doThrow(new DataIntegrityViolationException("uk_vote_agenda_associate"))
+                .doNothing()
+                .when(voteRecordService).recordAll(anyList());
+        when(voteRecordService.record(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_vote_agenda_associate"))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        List<BatchVoteResult> result = service.voteAll(1L, votes);
+
+        assertEquals(List.of(
+                new BatchVoteResult(0, 1L, BatchVoteStatusConstants.ALREADY_VOTED),
+                new BatchVoteResult(1, 2L, BatchVoteStatusConstants.FAILED),
+                new BatchVoteResult(2, 3L, BatchVoteStatusConstants.ACCEPTED)), result);
+        verify(voteRecordService, times(2)).recordAll(anyList());
+        verify(voteIndex, times(1)).unregister(1L, 2L);
+        verify(voteIndex, never()).unregister(1L, 1L);
+    }
+
+    @Test
+    void voteAll_shouldThrowInvalidEntityException_whenBatchIsTooBig(){
+        List<VoteDto> votes = Collections.nCopies(9, vote("YES", 1L, null));
+
+        InvalidEntityException ex = assertThrows(InvalidEntityException.class, () -> service.voteAll(1L, votes));
+
+        assertEquals("A batch cannot have more than 8 votes", ex.getMessage());
+        verifyNoInteractions(voteService, associateService, repository, voteRecordService, voteIndex);
+    }
+}
@@ -0,0 +1,105 @@
+package com.challenge.vote_challenge.unit.services;
+
+import com.challenge.vote_challenge.dto.VoteTally;
+import com.challenge.vote_challenge.models.Agenda;
+import com.challenge.vote_challenge.models.Associate;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.repositories.AgendaTallyRepository;
+import com.challenge.vote_challenge.services.TallyService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TallyServiceTest {
+    @Mock
+    private AgendaTallyRepository repository;
+
+    @InjectMocks
+    private TallyService service;
+
+    @Test
+    void increment_shouldCountYesIntoAssociateStripe(){
+        service.increment(1L, 35L, "YES");
+
+        verify(repository, times(1)).increment(1L, 35 % TallyService.STRIPES, 1, 0);
+    }
+
+    @Test
+    void increment_shouldCountNoIntoAssociateStripe_whenAssociateIdIsNegative(){
+        service.increment(1L, -3L, "NO");
+
+        verify(repository, times(1)).increment(1L, TallyService.STRIPES - 3, 0, 1);
+    }
+
+    @Test
+    void increment_shouldIgnore_whenVoteIsNotYesOrNo(){
+        service.increment(1L, 1L, "MAYBE");
+
+        verify(repository, never()).increment(anyLong(), anyInt(), anyLong(), anyLong());
+    }
+
+    @Test
+    void incrementAll_shouldUpdateEachAgendaStripeOnce(){
+        Agenda first = new Agenda(1L, "Agenda 1", "", null, null, true);
+        Agenda second = new Agenda(2L, "Agenda 2", "", null, null, true);
+        List<Vote> votes = List.of(
+                new Vote(null, "YES", new Associate(3L, "97525134090"), first),
+                new Vote(null, "NO", new Associate(4L, "97525134090"), first),
+                new Vote(null, "YES", new Associate(3L + TallyService.STRIPES, "97525134090"), first),
+                new Vote(null, "NO", new Associate(6L, "97525134090"), second),
+                new Vote(null, "MAYBE", new Associate(7L, "97525134090"), second));
+
+        service.incrementAll(votes);
+
+        verify(repository, times(1)).increment(1L, 3, 2, 0);
+        verify(repository, times(1)).increment(1L, 4, 0, 1);
+        verify(repository, times(1)).increment(2L, 6, 0, 1);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void incrementAll_shouldUpdateStripesInLockOrder(){
+        Agenda first = new Agenda(1L, "Agenda 1", "", null, null, true);
+        Agenda second = new Agenda(2L, "Agenda 2", "", null, null, true);
+        List<Vote> votes = List.of(
+                new Vote(null, "YES", new Associate(9L, "97525134090"), second),
+                new Vote(null, "YES", new Associate(5L, "97525134090"), first),
+                new Vote(null, "NO", new Associate(2L, "97525134090"), first));
+
+        service.incrementAll(votes);
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).increment(1L, 2, 0, 1);
+        inOrder.verify(repository).increment(1L, 5, 1, 0);
+        inOrder.verify(repository).increment(2L, 9, 1, 0);
+    }
+
+    @Test
+    void reset_shouldSaveOpeningStripe_afterDeletingTally(){
+        service.reset(1L);
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).deleteByAgendaId(1L);
+        inOrder.verify(repository).increment(1L, TallyService.OPENING_STRIPE, 0, 0);
+    }
+
+    @Test
+    void getTallies_shouldReturnZero_whenAgendaHasNoVotes(){
+        when(repository.sumByAgendaIds(List.of(1L, 2L))).thenReturn(List.of(new VoteTally(1L, 10, 4)));
+
+        Map<Long, VoteTally> result = service.getTallies(List.of(1L, 2L));
+
+        assertEquals(new VoteTally(1L, 10, 4), result.get(1L));
+        assertEquals(new VoteTally(2L, 0, 0), result.get(2L));
+    }
+}
@@ -0,0 +1,105 @@
+package com.challenge.vote_challenge.unit.services;
+
+import com.challenge.vote_challenge.models.Agenda;
+import com.challenge.vote_challenge.models.Associate;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.services.VoteBatcher;
+import com.challenge.vote_challenge.services.VoteRecordService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteBatcherTest {
+    private final Agenda agenda = new Agenda(1L, "Agenda", "", null, null, true);
+
+    @Mock
+    private VoteRecordService voteRecordService;
+
+    private VoteBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if(batcher != null)
+            batcher.stop();
+    }
+
+    @Test
+    void record_shouldSaveConcurrentVotesInOneBatch(){
+        List<List<Vote>> batches = new CopyOnWriteArrayList<>();
+        doAnswer(i -> batches.add(List.copyOf(i.getArgument(0)))).when(voteRecordService).recordAll(anyList());
+        batcher = start(true, Duration.ofMillis(500));
+
+        List<Vote> votes = new ArrayList<>();
+        for(long id = 1; id <= 10; id++)
+            votes.add(vote(id));
+
+        List<CompletableFuture<Vote>> results = votes.stream()
+                .map(v -> CompletableFuture.supplyAsync(() -> batcher.record(v)))
+                .toList();
+
+        for(int i = 0; i < votes.size(); i++)
+            assertSame(votes.get(i), results.get(i).join());
+
+        assertEquals(10, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.size() < 10);
+        verify(voteRecordService, never()).record(any());
+    }
+
+    @Test
+    void record_shouldFailOnlyItsCaller_whenBatchFails(){
+        doAnswer(i -> { throw new DataIntegrityViolationException("uk_vote_agenda_associate"); })
+                .when(voteRecordService).recordAll(anyList());
+        when(voteRecordService.record(any())).thenAnswer(i -> {
+            Vote vote = i.getArgument(0);
+            if(vote.getAssociate().getId() == 2L)
+                throw new DataIntegrityViolationException("uk_vote_agenda_associate");
+
+            return vote;
+        });
+        batcher = start(true, Duration.ofMillis(500));
+
+        CompletableFuture<Vote> first = CompletableFuture.supplyAsync(() -> batcher.record(vote(1L)));
+        CompletableFuture<Vote> second = CompletableFuture.supplyAsync(() -> batcher.record(vote(2L)));
+
+        assertEquals(1L, first.join().getAssociate().getId());
+        CompletionException ex = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+    }
+
+    @Test
+    void record_shouldSaveDirectly_whenBatchingIsDisabled(){
+        Vote vote = vote(1L);
+        when(voteRecordService.record(vote)).thenReturn(vote);
+        batcher = start(false, Duration.ofMillis(500));
+
+        assertSame(vote, batcher.record(vote));
+        verify(voteRecordService, never()).recordAll(anyList());
+    }
+
+    private VoteBatcher start(boolean enabled, Duration maxWait){
+        VoteBatcher voteBatcher = new VoteBatcher(voteRecordService, enabled, 100, maxWait, 100, new SimpleMeterRegistry());
+        voteBatcher.start();
+        return voteBatcher;
+    }
+
+    private Vote vote(long associateId){
+        return new Vote("YES", new Associate(associateId, "97525134090"), agenda);
+    }
+}
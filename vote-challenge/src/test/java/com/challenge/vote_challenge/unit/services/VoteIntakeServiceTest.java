@@ -0,0 +1,234 @@
+package com.challenge.vote_challenge.unit.services;
+
+import com.challenge.vote_challenge.constants.EligibleVoteStatusConstants;
+import com.challenge.vote_challenge.constants.VoteReceiptStatusConstants;
+import com.challenge.vote_challenge.dto.AssociateDto;
+import com.challenge.vote_challenge.dto.VoteDto;
+import com.challenge.vote_challenge.dto.VoteReceiptDto;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.models.Agenda;
+import com.challenge.vote_challenge.models.Associate;
+import com.challenge.vote_challenge.models.Vote;
+import com.challenge.vote_challenge.models.VoteReceipt;
+import com.challenge.vote_challenge.repositories.VoteReceiptRepository;
+import com.challenge.vote_challenge.services.VoteIntakeService;
+import com.challenge.vote_challenge.services.VoteRecordService;
+import com.challenge.vote_challenge.services.VoteService;
+import com.challenge.vote_events.events.VoteCastCommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteIntakeServiceTest {
+    private final Agenda agenda = new Agenda(1L, "Agenda", "", null, null, true);
+
+    @Mock
+    private KafkaTemplate<String, VoteCastCommand> kafkaTemplate;
+
+    @Mock
+    private VoteService voteService;
+
+    @Mock
+    private VoteRecordService voteRecordService;
+
+    @Mock
+    private VoteReceiptRepository receiptRepository;
+
+    private VoteIntakeService service;
+
+    @BeforeEach
+    void setUp(){
+        service = new VoteIntakeService(kafkaTemplate, voteService, voteRecordService, receiptRepository, "async");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void accept_shouldSendCommandKeyedByAgenda(){
+        VoteDto voteDto = new VoteDto(null, "YES", new AssociateDto(1L, "97525134090"));
+        SendResult<String, VoteCastCommand> result = mock(SendResult.class);
+        when(kafkaTemplate.send(eq(VoteIntakeService.VOTE_CAST_TOPIC), eq("1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(result));
+
+        VoteReceiptDto receipt = service.accept(1L, voteDto).join();
+
+        ArgumentCaptor<VoteCastCommand> captor = ArgumentCaptor.forClass(VoteCastCommand.class);
+        verify(kafkaTemplate).send(eq(VoteIntakeService.VOTE_CAST_TOPIC), eq("1"), captor.capture());
+        assertEquals(VoteReceiptStatusConstants.PENDING, receipt.status());
+        assertEquals(receipt.receiptId(), captor.getValue().receiptId());
+        assertEquals(1L, captor.getValue().associateId());
+        assertNotNull(captor.getValue().acceptedAt());
+    }
+
+    @Test
+    void accept_shouldThrowException_whenVoteIsNotYesOrNo(){
+        VoteDto voteDto = new VoteDto(null, "MAYBE", new AssociateDto(1L, "97525134090"));
+
+        InvalidEntityException ex = assertThrows(InvalidEntityException.class, () -> service.accept(1L, voteDto));
+        assertEquals("Vote must be YES or NO", ex.getMessage());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void getReceipt_shouldReturnPending_whenReceiptWasNotProcessed(){
+        when(receiptRepository.findById("receipt")).thenReturn(Optional.empty());
+
+        assertEquals(VoteReceiptStatusConstants.PENDING, service.getReceipt("receipt").status());
+    }
+
+    @Test
+    void process_shouldSaveVotesInOneBatchAndStoreReceipts(){
+        VoteCastCommand accepted = command("a", 1L);
+        VoteCastCommand closed = command("b", 2L);
+        VoteCastCommand unable = command("c", 3L);
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of());
+        when(voteService.prepareVote(eq(1L), any())).thenAnswer(i -> {
+            VoteDto dto = i.getArgument(1);
+            return switch (dto.getAssociate().getId().intValue()) {
+                case 1 -> vote(1L);
+                case 2 -> throw new InvalidEntityException("Agenda is Close");
+                default -> null;
+            };
+        });
+
+        service.process(List.of(accepted, closed, unable));
+
+        verify(voteRecordService, times(1)).recordAll(anyList());
+        Map<String, VoteReceipt> receipts = savedReceipts();
+        assertEquals(VoteReceiptStatusConstants.ACCEPTED, receipts.get("a").getStatus());
+        assertEquals("Agenda is Close", receipts.get("b").getMessage());
+        assertEquals(EligibleVoteStatusConstants.UNABLE_TO_VOTE, receipts.get("c").getMessage());
+    }
+
+    @Test
+    void process_shouldSaveOneByOne_whenBatchFails(){
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of());
+        when(voteService.prepareVote(eq(1L), any())).thenAnswer(i -> vote(((VoteDto) i.getArgument(1)).getAssociate().getId()));
+        doThrow(new IllegalStateException("Duplicate entry")).when(voteRecordService).recordAll(anyList());
+        doAnswer(i -> {
+            Vote vote = i.getArgument(0);
+            if(vote.getAssociate().getId() == 2L)
+                throw new InvalidEntityException("Associate 2 already voted");
+
+            return null;
+        }).when(voteService).record(any());
+
+        service.process(List.of(command("a", 1L), command("b", 2L)));
+
+        Map<String, VoteReceipt> receipts = savedReceipts();
+        assertEquals(VoteReceiptStatusConstants.ACCEPTED, receipts.get("a").getStatus());
+        assertEquals(VoteReceiptStatusConstants.REJECTED, receipts.get("b").getStatus());
+    }
+
+    @Test
+    void process_shouldReleaseVotesAndThrow_whenSaveFailsUnexpectedly(){
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of());
+        when(voteService.prepareVote(eq(1L), any())).thenAnswer(i -> vote(((VoteDto) i.getArgument(1)).getAssociate().getId()));
+        doThrow(new IllegalStateException("Connection lost")).when(voteRecordService).recordAll(anyList());
+        doThrow(new IllegalStateException("Connection lost")).when(voteService).record(any());
+
+        assertThrows(IllegalStateException.class, () -> service.process(List.of(command("a", 1L), command("b", 2L))));
+
+        verify(voteService, times(1)).record(any());
+        verify(voteService, times(1)).release(any());
+    }
+
+    @Test
+    void process_shouldRejectOnlyCommand_whenValidationFailsUnexpectedly(){
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of());
+        when(voteService.prepareVote(eq(1L), any())).thenAnswer(i -> {
+            Long associateId = ((VoteDto) i.getArgument(1)).getAssociate().getId();
+            if(associateId == 2L)
+                throw new InvalidDataAccessApiUsageException("The given id must not be null");
+
+            return vote(associateId);
+        });
+
+        service.process(List.of(command("a", 1L), command("b", 2L)));
+
+        verify(voteRecordService, times(1)).recordAll(anyList());
+        Map<String, VoteReceipt> receipts = savedReceipts();
+        assertEquals(VoteReceiptStatusConstants.ACCEPTED, receipts.get("a").getStatus());
+        assertEquals(VoteReceiptStatusConstants.REJECTED, receipts.get("b").getStatus());
+    }
+
+    @Test
+    void process_shouldReleaseVotesAndThrow_whenDatabaseIsUnavailable(){
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of());
+        when(voteService.prepareVote(eq(1L), any())).thenAnswer(i -> {
+            Long associateId = ((VoteDto) i.getArgument(1)).getAssociate().getId();
+            if(associateId == 2L)
+                throw new DataAccessResourceFailureException("Connection lost");
+
+            return vote(associateId);
+        });
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.process(List.of(command("a", 1L), command("b", 2L))));
+
+        verify(voteService, times(1)).release(any());
+        verifyNoInteractions(voteRecordService);
+    }
+
+    @Test
+    void process_shouldCheckAgendaAtAcceptedMoment_whenCommandHasAcceptedAt(){
+        LocalDateTime acceptedAt = LocalDateTime.of(2025, 5, 10, 14, 29, 59);
+        VoteCastCommand command = new VoteCastCommand("a", 1L, 1L, "97525134090", "YES", acceptedAt);
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of());
+        when(voteService.prepareVote(eq(1L), any(), eq(acceptedAt))).thenReturn(vote(1L));
+
+        service.process(List.of(command));
+
+        verify(voteService, never()).prepareVote(any(), any());
+        assertEquals(VoteReceiptStatusConstants.ACCEPTED, savedReceipts().get("a").getStatus());
+    }
+
+    @Test
+    void process_shouldSkipCommand_whenReceiptAlreadyExists(){
+        VoteReceipt done = new VoteReceipt("a", 1L, 1L, VoteReceiptStatusConstants.ACCEPTED, null);
+        when(receiptRepository.findAllById(anyList())).thenReturn(List.of(done));
+
+        service.process(List.of(command("a", 1L)));
+
+        verify(voteService, never()).prepareVote(any(), any());
+        verify(receiptRepository, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, VoteReceipt> savedReceipts(){
+        ArgumentCaptor<Iterable<VoteReceipt>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(receiptRepository).saveAll(captor.capture());
+
+        List<VoteReceipt> receipts = new ArrayList<>();
+        captor.getValue().forEach(receipts::add);
+        return receipts.stream().collect(Collectors.toMap(VoteReceipt::getId, Function.identity()));
+    }
+
+    private VoteCastCommand command(String receiptId, Long associateId){
+        return new VoteCastCommand(receiptId, 1L, associateId, "97525134090", "YES", null);
+    }
+
+    private Vote vote(Long associateId){
+        return new Vote("YES", new Associate(associateId, "97525134090"), agenda);
+    }
+}
@@ -12,21 +12,23 @@ import com.challenge.vote_challenge.models.Vote;
 import com.challenge.vote_challenge.repositories.VoteRepository;
 import com.challenge.vote_challenge.services.AgendaService;
 import com.challenge.vote_challenge.services.AssociateService;
+import com.challenge.vote_challenge.services.VoteBatcher;
 import com.challenge.vote_challenge.services.VoteService;
+import com.challenge.vote_challenge.util.index.VoteIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class VoteServiceTest {
@@ -39,6 +41,12 @@ public class VoteServiceTest {
     @Mock
     private AssociateService associateService;
 
+    @Mock
+    private VoteIndex voteIndex;
+
+    @Mock
+    private VoteBatcher voteBatcher;
+
     @InjectMocks
     private VoteService service;
 
@@ -79,7 +87,8 @@ public class VoteServiceTest {
 
         when(agendaService.getEntityById(agendaId)).thenReturn(agenda);
         when(associateService.getEntityById(1L)).thenReturn(associate);
-        when(repository.save(any())).thenReturn(vote);
+        when(voteIndex.register(agendaId, expiration, 1L)).thenReturn(true);
+        when(voteBatcher.record(any())).thenReturn(vote);
 
         EligibleVoteStatus status = service.vote(agendaId, voteDto);
         assertEquals(EligibleVoteStatusConstants.ABLE_TO_VOTE, status.status());
@@ -119,7 +128,8 @@ public class VoteServiceTest {
         when(associateService.getEntityById(1L)).thenReturn(null);
         when(associateService.addAssociate(associateDto)).thenReturn(new EligibleVoteStatus(EligibleVoteStatusConstants.ABLE_TO_VOTE));
         when(associateService.getEntityByCpf(associateDto.getCpf())).thenReturn(associate);
-        when(repository.save(any())).thenReturn(vote);
+        when(voteIndex.register(agendaId, expiration, 1L)).thenReturn(true);
+        when(voteBatcher.record(any())).thenReturn(vote);
 
         EligibleVoteStatus status = service.vote(agendaId, voteDto);
         assertEquals(EligibleVoteStatusConstants.ABLE_TO_VOTE, status.status());
@@ -171,27 +181,101 @@ public class VoteServiceTest {
     }
 
     @Test
-    void vote_shouldThrowException_whenAssociateAlreadyVoted(){
+    void prepareVote_shouldAcceptVote_whenItWasCastBeforeExpiration(){
         Long agendaId = 1L;
         VoteDto voteDto = new VoteDto(0L, "YES", new AssociateDto(1L, "97525134090"));
 
+        LocalDateTime expiration = LocalDateTime.now().minusSeconds(1);
+        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon details", expiration, new HashSet<>(), true);
+        Associate associate = new Associate(1L, "97525134090");
+
+        when(agendaService.getEntityById(agendaId)).thenReturn(agenda);
+        when(associateService.getEntityById(1L)).thenReturn(associate);
+        when(voteIndex.register(agendaId, expiration, 1L)).thenReturn(true);
+
+        Vote vote = service.prepareVote(agendaId, voteDto, expiration.minusSeconds(1));
+
+        assertSame(associate, vote.getAssociate());
+        assertSame(agenda, vote.getAgenda());
+    }
+
+    @Test
+    void prepareVote_shouldFindAssociateByCpf_whenIdIsNull(){
+        Long agendaId = 1L;
+        VoteDto voteDto = new VoteDto(null, "YES", new AssociateDto(null, "97525134090"));
+
         LocalDateTime expiration = LocalDateTime.now().plusHours(1);
+        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon details", expiration, new HashSet<>(), true);
+        Associate associate = new Associate(7L, "97525134090");
+
+        when(agendaService.getEntityById(agendaId)).thenReturn(agenda);
+        when(associateService.getEntityByCpf("97525134090")).thenReturn(associate);
+        when(voteIndex.register(agendaId, expiration, 7L)).thenReturn(true);
+
+        Vote vote = service.prepareVote(agendaId, voteDto);
+
+        assertSame(associate, vote.getAssociate());
+        verify(associateService, never()).getEntityById(any());
+    }
 
-        Set<Vote> votes = new HashSet<>();
+    @Test
+    void vote_shouldThrowException_whenAssociateAlreadyVoted(){
+        Long agendaId = 1L;
+        VoteDto voteDto = new VoteDto(0L, "YES", new AssociateDto(1L, "97525134090"));
+
+        LocalDateTime expiration = LocalDateTime.now().plusHours(1);
         Associate associate = new Associate(1L, "97525134090");
+        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon details", expiration, new HashSet<>(), true);
 
-        votes.add(new Vote(1L, "YES", associate, null));
+        when(agendaService.getEntityById(agendaId)).thenReturn(agenda);
+        when(associateService.getEntityById(1L)).thenReturn(associate);
+        when(voteIndex.register(agendaId, expiration, 1L)).thenReturn(false);
 
-        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon details", expiration, votes, true);
+        InvalidEntityException ex = assertThrows(InvalidEntityException.class, () -> {
+            service.vote(agendaId, voteDto);
+        });
+        assertEquals("Associate " + associate.getId() + " already voted", ex.getMessage());
+        verify(voteBatcher, never()).record(any());
+    }
 
+    @Test
+    void vote_shouldThrowException_whenVoteViolatesUniqueConstraint(){
+        Long agendaId = 1L;
+        VoteDto voteDto = new VoteDto(0L, "YES", new AssociateDto(1L, "97525134090"));
+
+        LocalDateTime expiration = LocalDateTime.now().plusHours(1);
+        Associate associate = new Associate(1L, "97525134090");
+        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon details", expiration, new HashSet<>(), true);
 
         when(agendaService.getEntityById(agendaId)).thenReturn(agenda);
         when(associateService.getEntityById(1L)).thenReturn(associate);
-        //doNothing().when(repository).save(any());
+        when(voteIndex.register(agendaId, expiration, 1L)).thenReturn(true);
+        when(voteBatcher.record(any())).thenThrow(new DataIntegrityViolationException("uk_vote_agenda_associate"));
 
         InvalidEntityException ex = assertThrows(InvalidEntityException.class, () -> {
             service.vote(agendaId, voteDto);
         });
         assertEquals("Associate " + associate.getId() + " already voted", ex.getMessage());
+        verify(voteIndex, never()).unregister(agendaId, 1L);
+    }
+
+    @Test
+    void vote_shouldReleaseIndex_whenSaveFails(){
+        Long agendaId = 1L;
+        VoteDto voteDto = new VoteDto(0L, "YES", new AssociateDto(1L, "97525134090"));
+
+        LocalDateTime expiration = LocalDateTime.now().plusHours(1);
+        Associate associate = new Associate(1L, "97525134090");
+        Agenda agenda = new Agenda(1L, "Pokemon", "Pokemon details", expiration, new HashSet<>(), true);
+
+        when(agendaService.getEntityById(agendaId)).thenReturn(agenda);
+        when(associateService.getEntityById(1L)).thenReturn(associate);
+        when(voteIndex.register(agendaId, expiration, 1L)).thenReturn(true);
+        when(voteBatcher.record(any())).thenThrow(new IllegalStateException("Connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> {
+            service.vote(agendaId, voteDto);
+        });
+        verify(voteIndex, times(1)).unregister(agendaId, 1L);
     }
 }
@@ -0,0 +1,60 @@
+package com.challenge.vote_challenge.unit.util.export;
+
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.util.export.ExportWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportWriterTest {
+
+    @Test
+    void writeRow_shouldWriteOneJsonObjectPerLine_whenFormatIsNdjson() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(ExportWriter writer = new ExportWriter(output, ExportFormatConstants.NDJSON, "id", "cpf")){
+            writer.writeRow(1L, "97525134090");
+            writer.writeRow(2L, null);
+        }
+
+        assertEquals("{\"id\":1,\"cpf\":\"97525134090\"}\n{\"id\":2,\"cpf\":null}\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeRow_shouldWriteHeaderAndEscapedValues_whenFormatIsCsv() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(ExportWriter writer = new ExportWriter(output, ExportFormatConstants.CSV, "id", "vote")){
+            writer.writeRow(1L, "YES");
+            writer.writeRow(2L, "say \"no\", please");
+            writer.writeRow(3L, null);
+        }
+
+        assertEquals("id,vote\r\n1,YES\r\n2,\"say \"\"no\"\", please\"\r\n3,\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void close_shouldNotCloseOutput() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close(){
+                fail("Output was closed");
+            }
+        };
+
+        new ExportWriter(output, ExportFormatConstants.NDJSON, "id").close();
+        new ExportWriter(output, ExportFormatConstants.CSV, "id").close();
+    }
+
+    @Test
+    void contentType_shouldThrowInvalidEntityException_whenFormatIsUnknown(){
+        assertEquals("application/x-ndjson", ExportWriter.contentType(ExportFormatConstants.NDJSON));
+        assertEquals("text/csv", ExportWriter.contentType(ExportFormatConstants.CSV));
+        assertThrows(InvalidEntityException.class, () -> ExportWriter.contentType("xml"));
+    }
+}
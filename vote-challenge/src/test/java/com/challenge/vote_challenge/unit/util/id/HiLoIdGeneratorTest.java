@@ -0,0 +1,98 @@
+package com.challenge.vote_challenge.unit.util.id;
+
+import com.challenge.vote_challenge.util.id.HiLoIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HiLoIdGeneratorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nextId_shouldQuerySequenceOncePerBlock(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L, 2L);
+        HiLoIdGenerator generator = new HiLoIdGenerator(jdbcTemplate, "associate_id_seq", 3, 0);
+
+        List<Long> ids = IntStream.range(0, 6).mapToObj(i -> generator.nextId()).toList();
+
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L), ids);
+        verify(jdbcTemplate, times(1)).execute(anyString());
+        verify(jdbcTemplate, times(2)).queryForObject("SELECT NEXT VALUE FOR associate_id_seq", Long.class);
+    }
+
+    @Test
+    void nextId_shouldHandOutIdsFromOffset(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L);
+        HiLoIdGenerator generator = new HiLoIdGenerator(jdbcTemplate, "associate_id_seq", 10, 1_000_000L);
+
+        long id = generator.nextId();
+
+        assertEquals(1_000_010L, id);
+        assertTrue(generator.isGeneratedRange(id));
+        assertFalse(generator.isGeneratedRange(999_999L));
+    }
+
+    @Test
+    void nextId_shouldReturnUniqueIds_whenCalledConcurrently() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(i -> sequence.incrementAndGet());
+        HiLoIdGenerator generator = new HiLoIdGenerator(jdbcTemplate, "associate_id_seq", 10, 0);
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try{
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t = 0; t < 8; t++)
+                futures.add(executor.submit(() -> {
+                    for(int i = 0; i < 1_000; i++)
+                        ids.add(generator.nextId());
+                }));
+
+            for(Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(8_000, ids.size());
+        assertEquals(800, sequence.get());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenSequenceNameIsInvalid(){
+        assertThrows(IllegalArgumentException.class, () -> new HiLoIdGenerator(jdbcTemplate, "seq; DROP TABLE associate", 10, 0));
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenOffsetIsNegative(){
+        assertThrows(IllegalArgumentException.class, () -> new HiLoIdGenerator(jdbcTemplate, "associate_id_seq", 10, -1));
+    }
+
+    @Test
+    void nextId_shouldThrowException_whenSequenceReturnsNothing(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(null);
+        HiLoIdGenerator generator = new HiLoIdGenerator(jdbcTemplate, "associate_id_seq", 10, 0);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.challenge.vote_challenge.unit.util.importer;
+
+import com.challenge.vote_challenge.constants.ExportFormatConstants;
+import com.challenge.vote_challenge.exceptions.InvalidEntityException;
+import com.challenge.vote_challenge.util.export.ExportWriter;
+import com.challenge.vote_challenge.util.importer.AssociateRowReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssociateRowReaderTest {
+
+    private List<AssociateRowReader.Row> readAll(String body, String format) throws IOException {
+        AssociateRowReader reader = new AssociateRowReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+        List<AssociateRowReader.Row> rows = new ArrayList<>();
+        AssociateRowReader.Row row;
+        while((row = reader.next()) != null)
+            rows.add(row);
+
+        return rows;
+    }
+
+    @Test
+    void next_shouldReadCpfColumn_whenFormatIsCsv() throws IOException {
+        List<AssociateRowReader.Row> rows = readAll("id,\"cpf\"\r\n1,97525134090\r\n\r\n2,\"12345678909\"\r\n3\r\n",
+                ExportFormatConstants.CSV);
+
+        assertEquals(List.of(
+                new AssociateRowReader.Row(2, "97525134090"),
+                new AssociateRowReader.Row(4, "12345678909"),
+                new AssociateRowReader.Row(5, null)), rows);
+    }
+
+    @Test
+    void next_shouldReadQuotedFields_whenTheyHaveSeparatorsQuotesAndLineBreaks() throws IOException {
+        List<AssociateRowReader.Row> rows = readAll("name,cpf\n\"Silva, Ana\",97525134090\n\"say \"\"hi\"\"\nbye\",\"12345678909\"\n\"\",52998224725\n",
+                ExportFormatConstants.CSV);
+
+        assertEquals(List.of(
+                new AssociateRowReader.Row(2, "97525134090"),
+                new AssociateRowReader.Row(3, "12345678909"),
+                new AssociateRowReader.Row(5, "52998224725")), rows);
+    }
+
+    @Test
+    void next_shouldReturnNullCpf_whenCsvRowIsMalformed() throws IOException {
+        List<AssociateRowReader.Row> rows = readAll("name,cpf\n\"a\"b,97525134090\nc,12345678909\n\"open,52998224725\n",
+                ExportFormatConstants.CSV);
+
+        assertEquals(List.of(
+                new AssociateRowReader.Row(2, null),
+                new AssociateRowReader.Row(3, "12345678909"),
+                new AssociateRowReader.Row(4, null)), rows);
+    }
+
+    @Test
+    void next_shouldReadRowsWrittenByTheExport() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(ExportWriter writer = new ExportWriter(output, ExportFormatConstants.CSV, "name", "cpf")){
+            writer.writeRow("Silva, \"Ana\"\r\nSouza", "97525134090");
+            writer.writeRow("Lima", "12345678909");
+        }
+
+        List<AssociateRowReader.Row> rows = readAll(output.toString(StandardCharsets.UTF_8), ExportFormatConstants.CSV);
+
+        assertEquals(List.of(
+                new AssociateRowReader.Row(2, "97525134090"),
+                new AssociateRowReader.Row(4, "12345678909")), rows);
+    }
+
+    @Test
+    void next_shouldReadCpfField_whenFormatIsNdjson() throws IOException {
+        List<AssociateRowReader.Row> rows = readAll("{\"id\":1,\"cpf\":\"97525134090\"}\n{\"cpf\":\"1234\n{\"name\":{\"a\":1},\"cpf\":\"12345678909\"}\n",
+                ExportFormatConstants.NDJSON);
+
+        assertEquals(List.of(
+                new AssociateRowReader.Row(1, "97525134090"),
+                new AssociateRowReader.Row(2, null),
+                new AssociateRowReader.Row(3, "12345678909")), rows);
+    }
+
+    @Test
+    void constructor_shouldThrowInvalidEntityException_whenCsvHasNoCpfColumn(){
+        assertThrows(InvalidEntityException.class, () -> readAll("id,name\n1,a\n", ExportFormatConstants.CSV));
+    }
+
+    @Test
+    void constructor_shouldThrowInvalidEntityException_whenFormatIsUnknown(){
+        assertThrows(InvalidEntityException.class, () -> readAll("", "xml"));
+    }
+}
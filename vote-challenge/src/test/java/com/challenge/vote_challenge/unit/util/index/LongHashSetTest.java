@@ -0,0 +1,68 @@
+package com.challenge.vote_challenge.unit.util.index;
+
+import com.challenge.vote_challenge.util.index.LongHashSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void add_shouldReturnFalse_whenValueAlreadyPresent(){
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void add_shouldAcceptZeroAndNegativeValues(){
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(0L));
+        assertTrue(set.add(-7L));
+        assertFalse(set.add(0L));
+
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(-7L));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void remove_shouldKeepOtherValuesReachable_afterGrowAndRemove(){
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7);
+
+        for(int i = 0; i < 10_000; i++){
+            long value = random.nextLong(-1_000, 1_000);
+            assertEquals(expected.add(value), set.add(value));
+
+            long toRemove = random.nextLong(-1_000, 1_000);
+            assertEquals(expected.remove(toRemove), set.remove(toRemove));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for(long value = -1_000; value < 1_000; value++){
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    void clear_shouldRemoveAllValues(){
+        LongHashSet set = new LongHashSet();
+        set.add(0L);
+        set.add(1L);
+
+        set.clear();
+
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+        assertFalse(set.contains(1L));
+    }
+}
@@ -0,0 +1,125 @@
+package com.challenge.vote_challenge.unit.util.validate;
+
+import com.challenge.vote_challenge.util.resilience.CircuitBreaker;
+import com.challenge.vote_challenge.util.validate.CpfValidationClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CpfValidationClientTest {
+    private static final String VALID_CPF = "97525134090";
+
+    private HttpServer server;
+    private AtomicInteger calls;
+    private volatile int status;
+    private volatile long delayMillis;
+    private CountDownLatch release;
+    private SimpleMeterRegistry meterRegistry;
+    private CpfValidationClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        calls = new AtomicInteger();
+        status = 200;
+        delayMillis = 0;
+        release = new CountDownLatch(0);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/cpf/valid/", exchange -> {
+            calls.incrementAndGet();
+            try{
+                release.await(5, TimeUnit.SECONDS);
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+
+            byte[] body = "{\"Valid\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try(OutputStream out = exchange.getResponseBody()){
+                out.write(body);
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CpfValidationClient("http://localhost:" + server.getAddress().getPort(),
+                Duration.ofSeconds(1), Duration.ofMillis(300), 10, 100, Duration.ofMinutes(1),
+                2, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void validate_shouldUseCache_whenCpfWasAlreadyValidated() {
+        assertTrue(client.validate(VALID_CPF).join());
+        assertTrue(client.validate(VALID_CPF).join());
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("cpf.validation.cache", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("cpf.validation.cache", "result", "miss").count());
+    }
+
+    @Test
+    void validate_shouldShareSingleCall_whenSameCpfIsValidatedConcurrently() {
+        release = new CountDownLatch(1);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for(int i = 0; i < 10; i++)
+            results.add(client.validate(VALID_CPF));
+
+        release.countDown();
+        results.forEach(result -> assertTrue(result.join()));
+
+        assertEquals(1, calls.get());
+        assertEquals(9.0, meterRegistry.counter("cpf.validation.deduplicated").count());
+    }
+
+    @Test
+    void validate_shouldFallbackToLocalValidationAndOpenCircuit_whenApiTimesOut() {
+        delayMillis = 1_000;
+
+        assertTrue(client.validate(VALID_CPF).join());
+        assertTrue(client.validate(VALID_CPF).join());
+
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertEquals(2.0, meterRegistry.counter("cpf.validation.fallback").count());
+
+        int callsBeforeOpen = calls.get();
+        assertTrue(client.validate(VALID_CPF).join());
+        assertEquals(callsBeforeOpen, calls.get());
+    }
+
+    @Test
+    void validate_shouldReturnFalseAndKeepCircuitClosed_whenApiRejectsCpf() {
+        status = 400;
+
+        assertFalse(client.validate(VALID_CPF).join());
+        assertFalse(client.validate(VALID_CPF).join());
+
+        assertEquals(1, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+}
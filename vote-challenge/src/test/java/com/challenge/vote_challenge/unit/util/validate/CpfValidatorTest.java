@@ -0,0 +1,44 @@
+package com.challenge.vote_challenge.unit.util.validate;
+
+import com.challenge.vote_challenge.util.validate.CpfValidator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CpfValidatorTest {
+
+    @Test
+    void isValid_shouldReturnTrue_whenCheckDigitsMatch(){
+        assertTrue(CpfValidator.isValid("97525134090"));
+        assertTrue(CpfValidator.isValid("52998224725"));
+    }
+
+    @Test
+    void isValid_shouldReturnFalse_whenCheckDigitsDoNotMatch(){
+        assertFalse(CpfValidator.isValid("12345678901"));
+        assertFalse(CpfValidator.isValid("97525134091"));
+        assertFalse(CpfValidator.isValid("97525134080"));
+    }
+
+    @Test
+    void isValid_shouldReturnFalse_whenAllDigitsAreEqual(){
+        for(char digit = '0'; digit <= '9'; digit++){
+            assertFalse(CpfValidator.isValid(String.valueOf(digit).repeat(11)));
+        }
+    }
+
+    @Test
+    void isValid_shouldReturnFalse_whenFormatIsInvalid(){
+        assertFalse(CpfValidator.isValid(null));
+        assertFalse(CpfValidator.isValid("975251340"));
+        assertFalse(CpfValidator.isValid("975.251.340-90"));
+        assertFalse(CpfValidator.isValid("9752513409a"));
+    }
+
+    @Test
+    void isNumeric_shouldReturnFalse_whenValueHasSymbols(){
+        assertTrue(CpfValidator.isNumeric("97525134090"));
+        assertFalse(CpfValidator.isNumeric("9752513409-"));
+        assertFalse(CpfValidator.isNumeric(""));
+    }
+}
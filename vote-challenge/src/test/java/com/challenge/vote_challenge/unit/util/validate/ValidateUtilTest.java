@@ -2,12 +2,16 @@ package com.challenge.vote_challenge.unit.util.validate;
 
 import com.challenge.vote_challenge.exceptions.InvalidEntityException;
 import com.challenge.vote_challenge.repositories.AssociateRepository;
+import com.challenge.vote_challenge.util.validate.CpfValidationClient;
 import com.challenge.vote_challenge.util.validate.ValidateUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,6 +22,9 @@ public class ValidateUtilTest {
     @Mock
     private AssociateRepository repository;
 
+    @Mock
+    private CpfValidationClient cpfValidationClient;
+
     @InjectMocks
     private ValidateUtil validateUtil;
 
@@ -80,4 +87,33 @@ public class ValidateUtilTest {
             validateUtil.isCpfValid(cpf);
         });
     }
+
+    @Test
+    void isCpfValid_shouldNotCallRemote_whenRemoteValidationIsDisabled() {
+        String cpf = "97525134090";
+        when(repository.existsByCpf(cpf)).thenReturn(false);
+
+        assertTrue(validateUtil.isCpfValid(cpf));
+        verifyNoInteractions(cpfValidationClient);
+    }
+
+    @Test
+    void isCpfValid_shouldReturnRemoteResult_whenRemoteValidationIsEnabled() {
+        String cpf = "97525134090";
+        ReflectionTestUtils.setField(validateUtil, "remoteValidationEnabled", true);
+        when(repository.existsByCpf(cpf)).thenReturn(false);
+        when(cpfValidationClient.validate(cpf)).thenReturn(CompletableFuture.completedFuture(false));
+
+        assertFalse(validateUtil.isCpfValid(cpf));
+        verify(cpfValidationClient).validate(cpf);
+    }
+
+    @Test
+    void isCpfValid_shouldNotCallRemote_whenCheckDigitsAreInvalid() {
+        ReflectionTestUtils.setField(validateUtil, "remoteValidationEnabled", true);
+
+        assertFalse(validateUtil.isCpfValid("12345678901"));
+        verifyNoInteractions(cpfValidationClient);
+        verify(repository, never()).existsByCpf(anyString());
+    }
 }
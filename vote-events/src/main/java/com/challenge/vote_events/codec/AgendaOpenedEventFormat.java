@@ -0,0 +1,57 @@
+package com.challenge.vote_events.codec;
+
+import com.challenge.vote_events.events.AgendaOpenedEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public final class AgendaOpenedEventFormat implements IEventFormat<AgendaOpenedEvent> {
+    private static final int AGENDA_ID = 1;
+    private static final int EXPIRATION = 1 << 1;
+    private static final int EXPIRES_AT = 1 << 2;
+
+    @Override
+    public int typeId(){
+        return 1;
+    }
+
+    @Override
+    public Class<AgendaOpenedEvent> type(){
+        return AgendaOpenedEvent.class;
+    }
+
+    @Override
+    public void write(AgendaOpenedEvent event, BinaryWriter writer){
+        int present = (event.agendaId() != null ? AGENDA_ID : 0)
+                | (event.expiration() != null ? EXPIRATION : 0)
+                | (event.expiresAt() != null ? EXPIRES_AT : 0);
+        writer.writeVarLong(present);
+
+        if(event.agendaId() != null)
+            writer.writeZigZagLong(event.agendaId());
+        if(event.expiration() != null){
+            writer.writeZigZagLong(event.expiration().toEpochSecond(ZoneOffset.UTC));
+            writer.writeVarLong(event.expiration().getNano());
+        }
+        if(event.expiresAt() != null){
+            writer.writeZigZagLong(event.expiresAt().getEpochSecond());
+            writer.writeVarLong(event.expiresAt().getNano());
+        }
+    }
+
+    @Override
+    public AgendaOpenedEvent read(BinaryReader reader, int version){
+        long present = reader.readVarLong();
+
+        Long agendaId = (present & AGENDA_ID) != 0 ? reader.readZigZagLong() : null;
+        LocalDateTime expiration = null;
+        if((present & EXPIRATION) != 0)
+            expiration = LocalDateTime.ofEpochSecond(reader.readZigZagLong(), reader.readVarInt(), ZoneOffset.UTC);
+        Instant expiresAt = null;
+        if((present & EXPIRES_AT) != 0)
+            expiresAt = Instant.ofEpochSecond(reader.readZigZagLong(), reader.readVarInt());
+
+        return new AgendaOpenedEvent(agendaId, expiration, expiresAt);
+    }
+}
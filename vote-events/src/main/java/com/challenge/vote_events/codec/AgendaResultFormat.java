@@ -0,0 +1,54 @@
+package com.challenge.vote_events.codec;
+
+import com.challenge.vote_events.events.AgendaResult;
+
+public final class AgendaResultFormat implements IEventFormat<AgendaResult> {
+    private static final int AGENDA_ID = 1;
+    private static final int AGENDA_NAME = 1 << 1;
+    private static final int AGENDA_DETAILS = 1 << 2;
+    private static final int VOTE_WIN = 1 << 3;
+
+    @Override
+    public int typeId(){
+        return 2;
+    }
+
+    @Override
+    public Class<AgendaResult> type(){
+        return AgendaResult.class;
+    }
+
+    @Override
+    public void write(AgendaResult event, BinaryWriter writer){
+        int present = (event.agendaId() != null ? AGENDA_ID : 0)
+                | (event.agendaName() != null ? AGENDA_NAME : 0)
+                | (event.agendaDetails() != null ? AGENDA_DETAILS : 0)
+                | (event.voteWin() != null ? VOTE_WIN : 0);
+        writer.writeVarLong(present);
+
+        if(event.agendaId() != null)
+            writer.writeZigZagLong(event.agendaId());
+        if(event.agendaName() != null)
+            writer.writeString(event.agendaName());
+        if(event.agendaDetails() != null)
+            writer.writeString(event.agendaDetails());
+        writer.writeZigZagLong(event.votesYes());
+        writer.writeZigZagLong(event.votesNo());
+        if(event.voteWin() != null)
+            writer.writeString(event.voteWin());
+    }
+
+    @Override
+    public AgendaResult read(BinaryReader reader, int version){
+        long present = reader.readVarLong();
+
+        Long agendaId = (present & AGENDA_ID) != 0 ? reader.readZigZagLong() : null;
+        String agendaName = (present & AGENDA_NAME) != 0 ? reader.readString() : null;
+        String agendaDetails = (present & AGENDA_DETAILS) != 0 ? reader.readString() : null;
+        int votesYes = Math.toIntExact(reader.readZigZagLong());
+        int votesNo = Math.toIntExact(reader.readZigZagLong());
+        String voteWin = (present & VOTE_WIN) != 0 ? reader.readString() : null;
+
+        return new AgendaResult(agendaId, agendaName, agendaDetails, votesYes, votesNo, voteWin);
+    }
+}
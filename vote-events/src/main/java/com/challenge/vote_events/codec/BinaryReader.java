@@ -0,0 +1,72 @@
+package com.challenge.vote_events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of the compact binary encoding written by BinaryWriter
+ * <p>
+ * It reads straight from the received array without copying it, and the same instance is reused by calling reset
+ * with the next array.
+ * </p>
+ */
+public final class BinaryReader {
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    public void reset(byte[] data){
+        this.buffer = data;
+        this.position = 0;
+        this.limit = data.length;
+    }
+
+    public int readByte(){
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong(){
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            int current = readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if((current & 0x80) == 0)
+                return value;
+        }
+
+        throw new SerializationException("Malformed varint");
+    }
+
+    public long readZigZagLong(){
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readVarInt(){
+        long value = readVarLong();
+        if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new SerializationException("Malformed varint, " + value + " does not fit an int");
+
+        return (int) value;
+    }
+
+    public String readString(){
+        int length = readVarInt();
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public boolean hasRemaining(){
+        return position < limit;
+    }
+
+    // compared with the remaining bytes, position + bytes overflows for a corrupted length close to Integer.MAX_VALUE
+    private void require(int bytes){
+        if(bytes < 0 || bytes > limit - position)
+            throw new SerializationException("Truncated event, needs " + bytes + " bytes at position " + position);
+    }
+}
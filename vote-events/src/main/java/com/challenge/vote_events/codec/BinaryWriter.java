@@ -0,0 +1,81 @@
+package com.challenge.vote_events.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable buffer that writes the compact binary encoding
+ * <p>
+ * Integers are written as varints, signed ones zigzag encoded first, so small values take a single byte. Strings are
+ * written as their UTF-8 length followed by the bytes. The buffer is kept between writes by calling reset.
+ * </p>
+ */
+public final class BinaryWriter {
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter(int initialCapacity){
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void reset(){
+        position = 0;
+    }
+
+    public void writeByte(int value){
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarLong(long value){
+        ensureCapacity(10);
+        while((value & ~0x7FL) != 0){
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeZigZagLong(long value){
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeString(String value){
+        int maxBytes = value.length() * 3;
+        ensureCapacity(5 + maxBytes);
+        if(isAscii(value)){
+            writeVarLong(value.length());
+            for(int i = 0; i < value.length(); i++)
+                buffer[position++] = (byte) value.charAt(i);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public byte[] toByteArray(){
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public int size(){
+        return position;
+    }
+
+    // ascii strings are the same in UTF-8, so they are copied without encoding
+    private static boolean isAscii(String value){
+        for(int i = 0; i < value.length(); i++){
+            if(value.charAt(i) >= 0x80)
+                return false;
+        }
+
+        return true;
+    }
+
+    private void ensureCapacity(int bytes){
+        if(position + bytes > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+    }
+}
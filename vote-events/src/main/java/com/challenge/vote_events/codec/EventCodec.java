@@ -0,0 +1,102 @@
+package com.challenge.vote_events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary codec of the events exchanged by the services
+ * <p>
+ * Every event starts with a magic byte, the encoding version and the type id of its format, followed by the fields
+ * written by the format. The magic byte is never the first byte of a JSON document, so a reader can tell both
+ * encodings apart. The writers and readers are kept per thread and reused.
+ * </p>
+ */
+public final class EventCodec {
+    public static final int MAGIC = 0xCE;
+    public static final int VERSION = 1;
+
+    private static final List<IEventFormat<?>> FORMATS = List.of(
+            new AgendaOpenedEventFormat(),
+            new AgendaResultFormat(),
+            new VoteCastCommandFormat());
+
+    private static final Map<Class<?>, IEventFormat<?>> FORMATS_BY_TYPE = new HashMap<>();
+    private static final Map<Integer, IEventFormat<?>> FORMATS_BY_ID = new HashMap<>();
+    private static final ThreadLocal<BinaryWriter> WRITERS = ThreadLocal.withInitial(() -> new BinaryWriter(256));
+    private static final ThreadLocal<BinaryReader> READERS = ThreadLocal.withInitial(BinaryReader::new);
+
+    static {
+        for(IEventFormat<?> format : FORMATS){
+            FORMATS_BY_TYPE.put(format.type(), format);
+            if(FORMATS_BY_ID.put(format.typeId(), format) != null)
+                throw new IllegalStateException("Duplicated event type id " + format.typeId());
+        }
+    }
+
+    private EventCodec(){}
+
+    /**
+     * Method that encodes an event
+     * @param event the event, of a type with a registered format
+     * @return the encoded event
+     */
+    public static byte[] encode(Object event){
+        IEventFormat<Object> format = formatOf(event.getClass());
+        BinaryWriter writer = WRITERS.get();
+        writer.reset();
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeVarLong(format.typeId());
+        format.write(event, writer);
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Method that decodes an event
+     * @param data the encoded event
+     * @param type the expected type of the event
+     * @return the decoded event
+     */
+    public static <T> T decode(byte[] data, Class<T> type){
+        if(!isEncoded(data))
+            throw new SerializationException("Data isn't a binary encoded event");
+
+        BinaryReader reader = READERS.get();
+        reader.reset(data);
+        reader.readByte();
+        int version = reader.readByte();
+        if(version > VERSION)
+            throw new SerializationException("Unsupported event encoding version " + version);
+
+        int typeId = reader.readVarInt();
+        IEventFormat<?> format = FORMATS_BY_ID.get(typeId);
+        if(format == null)
+            throw new SerializationException("Unknown event type id " + typeId);
+        if(!type.isAssignableFrom(format.type()))
+            throw new SerializationException("Expected " + type.getSimpleName() + " but got " + format.type().getSimpleName());
+
+        return type.cast(format.read(reader, version));
+    }
+
+    /**
+     * Method that checks if the data was written by this codec
+     * @param data the received data
+     * @return true if the data starts with the magic byte
+     */
+    public static boolean isEncoded(byte[] data){
+        return data != null && data.length > 2 && (data[0] & 0xFF) == MAGIC;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IEventFormat<Object> formatOf(Class<?> type){
+        IEventFormat<?> format = FORMATS_BY_TYPE.get(type);
+        if(format == null)
+            throw new SerializationException("No binary format for " + type.getName());
+
+        return (IEventFormat<Object>) format;
+    }
+}
@@ -0,0 +1,56 @@
+package com.challenge.vote_events.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka deserializer of the events with the compact binary codec
+ * <p>
+ * A fallback deserializer can be given to read the records written before the binary codec, like the JSON ones still
+ * in the topics during an upgrade.
+ * </p>
+ * @param <T> the type of the events
+ */
+public class EventDeserializer<T> implements Deserializer<T> {
+    private final Class<T> type;
+    private final Deserializer<T> fallback;
+
+    public EventDeserializer(Class<T> type){
+        this(type, null);
+    }
+
+    public EventDeserializer(Class<T> type, Deserializer<T> fallback){
+        this.type = type;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey){
+        if(fallback != null)
+            fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data){
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data){
+        if(data == null)
+            return null;
+
+        if(fallback != null && !EventCodec.isEncoded(data))
+            return headers == null ? fallback.deserialize(topic, data) : fallback.deserialize(topic, headers, data);
+
+        return EventCodec.decode(data, type);
+    }
+
+    @Override
+    public void close(){
+        if(fallback != null)
+            fallback.close();
+    }
+}
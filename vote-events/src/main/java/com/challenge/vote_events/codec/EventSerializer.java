@@ -0,0 +1,15 @@
+package com.challenge.vote_events.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer of the events with the compact binary codec
+ * @param <T> the type of the events
+ */
+public class EventSerializer<T> implements Serializer<T> {
+
+    @Override
+    public byte[] serialize(String topic, T data){
+        return data == null ? null : EventCodec.encode(data);
+    }
+}
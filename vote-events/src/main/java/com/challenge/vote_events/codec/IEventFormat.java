@@ -0,0 +1,19 @@
+package com.challenge.vote_events.codec;
+
+/**
+ * The binary format of one event type
+ * <p>
+ * The nullable fields are flagged in a presence bit set written before them. New fields must be appended at the end
+ * with a new presence bit, so readers of an older version ignore them and readers of a newer version find them unset.
+ * </p>
+ * @param <T> the type of the event
+ */
+public interface IEventFormat<T> {
+    int typeId();
+
+    Class<T> type();
+
+    void write(T event, BinaryWriter writer);
+
+    T read(BinaryReader reader, int version);
+}
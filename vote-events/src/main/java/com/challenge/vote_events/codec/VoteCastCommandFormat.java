@@ -0,0 +1,67 @@
+package com.challenge.vote_events.codec;
+
+import com.challenge.vote_events.events.VoteCastCommand;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public final class VoteCastCommandFormat implements IEventFormat<VoteCastCommand> {
+    private static final int RECEIPT_ID = 1;
+    private static final int AGENDA_ID = 1 << 1;
+    private static final int ASSOCIATE_ID = 1 << 2;
+    private static final int CPF = 1 << 3;
+    private static final int VOTE = 1 << 4;
+    private static final int ACCEPTED_AT = 1 << 5;
+
+    @Override
+    public int typeId(){
+        return 3;
+    }
+
+    @Override
+    public Class<VoteCastCommand> type(){
+        return VoteCastCommand.class;
+    }
+
+    @Override
+    public void write(VoteCastCommand event, BinaryWriter writer){
+        int present = (event.receiptId() != null ? RECEIPT_ID : 0)
+                | (event.agendaId() != null ? AGENDA_ID : 0)
+                | (event.associateId() != null ? ASSOCIATE_ID : 0)
+                | (event.cpf() != null ? CPF : 0)
+                | (event.vote() != null ? VOTE : 0)
+                | (event.acceptedAt() != null ? ACCEPTED_AT : 0);
+        writer.writeVarLong(present);
+
+        if(event.receiptId() != null)
+            writer.writeString(event.receiptId());
+        if(event.agendaId() != null)
+            writer.writeZigZagLong(event.agendaId());
+        if(event.associateId() != null)
+            writer.writeZigZagLong(event.associateId());
+        if(event.cpf() != null)
+            writer.writeString(event.cpf());
+        if(event.vote() != null)
+            writer.writeString(event.vote());
+        if(event.acceptedAt() != null){
+            writer.writeZigZagLong(event.acceptedAt().toEpochSecond(ZoneOffset.UTC));
+            writer.writeVarLong(event.acceptedAt().getNano());
+        }
+    }
+
+    @Override
+    public VoteCastCommand read(BinaryReader reader, int version){
+        long present = reader.readVarLong();
+
+        String receiptId = (present & RECEIPT_ID) != 0 ? reader.readString() : null;
+        Long agendaId = (present & AGENDA_ID) != 0 ? reader.readZigZagLong() : null;
+        Long associateId = (present & ASSOCIATE_ID) != 0 ? reader.readZigZagLong() : null;
+        String cpf = (present & CPF) != 0 ? reader.readString() : null;
+        String vote = (present & VOTE) != 0 ? reader.readString() : null;
+        LocalDateTime acceptedAt = null;
+        if((present & ACCEPTED_AT) != 0)
+            acceptedAt = LocalDateTime.ofEpochSecond(reader.readZigZagLong(), reader.readVarInt(), ZoneOffset.UTC);
+
+        return new VoteCastCommand(receiptId, agendaId, associateId, cpf, vote, acceptedAt);
+    }
+}
@@ -0,0 +1,5 @@
+package com.challenge.vote_events.constants;
+
+public class EventHeaderConstants {
+    public static final String IDEMPOTENCY_KEY = "idempotency-key";
+}
@@ -0,0 +1,13 @@
+package com.challenge.vote_events.events;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Represent the open Agenda event to send into kafka
+ * <p>
+ * The expiration is the local date time of the Agenda and expiresAt is the same moment as an absolute instant, so the
+ * delay until the close doesn't depend on the timezone of the services
+ * </p>
+ */
+public record AgendaOpenedEvent(Long agendaId, LocalDateTime expiration, Instant expiresAt) {}
@@ -1,6 +1,6 @@
-package com.challenge.vote_visualizer.dto;
+package com.challenge.vote_events.events;
 
 /**
- * Represents the Agendas that have been closed and will have the result displayed
+ * Represent the close Agenda event to send into kafka, with the result that will be displayed
  */
 public record AgendaResult(Long agendaId, String agendaName, String agendaDetails, int votesYes, int votesNo, String voteWin) {}
@@ -0,0 +1,13 @@
+package com.challenge.vote_events.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represent a vote accepted by the async intake, sent into kafka keyed by the Agenda id
+ * <p>
+ * The acceptedAt is the local date time when the vote was answered with its receipt, so the vote is checked against the
+ * expiration of the Agenda at that moment and not when it is consumed
+ * </p>
+ */
+public record VoteCastCommand(String receiptId, Long agendaId, Long associateId, String cpf, String vote,
+                              LocalDateTime acceptedAt) {}
@@ -0,0 +1,55 @@
+package com.challenge.vote_events.unit.codec;
+
+import com.challenge.vote_events.codec.BinaryReader;
+import com.challenge.vote_events.codec.BinaryWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryReaderTest {
+
+    @Test
+    void readString_shouldThrowException_whenLengthOverflowsPosition(){
+        BinaryWriter writer = new BinaryWriter(16);
+        writer.writeByte(1);
+        writer.writeVarLong(Integer.MAX_VALUE);
+        writer.writeByte('a');
+        BinaryReader reader = new BinaryReader();
+        reader.reset(writer.toByteArray());
+        reader.readByte();
+
+        assertThrows(SerializationException.class, reader::readString);
+    }
+
+    @Test
+    void readString_shouldThrowException_whenLengthIsNegative(){
+        BinaryWriter writer = new BinaryWriter(16);
+        writer.writeVarLong(-1L);
+        BinaryReader reader = new BinaryReader();
+        reader.reset(writer.toByteArray());
+
+        assertThrows(SerializationException.class, reader::readString);
+    }
+
+    @Test
+    void readString_shouldThrowException_whenLengthDoesNotFitInt(){
+        BinaryWriter writer = new BinaryWriter(16);
+        writer.writeVarLong(1L << 32);
+        BinaryReader reader = new BinaryReader();
+        reader.reset(writer.toByteArray());
+
+        assertThrows(SerializationException.class, reader::readString);
+    }
+
+    @Test
+    void readString_shouldReturnSameString_whenLengthFitsBuffer(){
+        BinaryWriter writer = new BinaryWriter(16);
+        writer.writeString("Pauta");
+        BinaryReader reader = new BinaryReader();
+        reader.reset(writer.toByteArray());
+
+        assertEquals("Pauta", reader.readString());
+        assertFalse(reader.hasRemaining());
+    }
+}
@@ -0,0 +1,88 @@
+package com.challenge.vote_events.unit.codec;
+
+import com.challenge.vote_events.codec.EventCodec;
+import com.challenge.vote_events.events.AgendaOpenedEvent;
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_events.events.VoteCastCommand;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventCodecTest {
+
+    @Test
+    void decode_shouldReturnSameAgendaOpenedEvent(){
+        AgendaOpenedEvent event = new AgendaOpenedEvent(42L, LocalDateTime.of(2025, 5, 20, 10, 30, 15, 123_456_789),
+                Instant.parse("2025-05-20T13:30:15.123456789Z"));
+
+        assertEquals(event, EventCodec.decode(EventCodec.encode(event), AgendaOpenedEvent.class));
+    }
+
+    @Test
+    void decode_shouldKeepNullFields(){
+        AgendaOpenedEvent event = new AgendaOpenedEvent(1L, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        AgendaResult result = new AgendaResult(null, "Agenda", null, 0, 0, null);
+
+        assertEquals(event, EventCodec.decode(EventCodec.encode(event), AgendaOpenedEvent.class));
+        assertEquals(result, EventCodec.decode(EventCodec.encode(result), AgendaResult.class));
+    }
+
+    @Test
+    void decode_shouldReturnSameAgendaResult_whenTextIsNotAscii(){
+        AgendaResult result = new AgendaResult(Long.MAX_VALUE, "Votação", "Descrição da pauta 🗳", 1_000_000, 3, "YES");
+
+        assertEquals(result, EventCodec.decode(EventCodec.encode(result), AgendaResult.class));
+    }
+
+    @Test
+    void decode_shouldReturnSameVoteCastCommand(){
+        VoteCastCommand command = new VoteCastCommand("8b5d5f0e-0f43-4a43-9a43-1d0f2a9e8c11", 7L, -1L, "97525134090", "NO",
+                LocalDateTime.of(2025, 5, 10, 14, 30, 15, 123_456_789));
+
+        assertEquals(command, EventCodec.decode(EventCodec.encode(command), VoteCastCommand.class));
+    }
+
+    @Test
+    void encode_shouldBeSmallerThanJson(){
+        AgendaResult result = new AgendaResult(12345L, "Agenda name", "Agenda details", 5021, 4312, "YES");
+        String json = "{\"agendaId\":12345,\"agendaName\":\"Agenda name\",\"agendaDetails\":\"Agenda details\","
+                + "\"votesYes\":5021,\"votesNo\":4312,\"voteWin\":\"YES\"}";
+
+        assertTrue(EventCodec.encode(result).length < json.getBytes(StandardCharsets.UTF_8).length / 2);
+    }
+
+    @Test
+    void decode_shouldThrowException_whenTypeIsNotExpected(){
+        byte[] data = EventCodec.encode(new VoteCastCommand("id", 1L, 1L, "97525134090", "YES", null));
+
+        assertThrows(SerializationException.class, () -> EventCodec.decode(data, AgendaResult.class));
+    }
+
+    @Test
+    void decode_shouldThrowException_whenVersionIsNewer(){
+        byte[] data = EventCodec.encode(new AgendaResult(1L, "Agenda", "", 1, 0, "YES"));
+        data[1] = (byte) (EventCodec.VERSION + 1);
+
+        assertThrows(SerializationException.class, () -> EventCodec.decode(data, AgendaResult.class));
+    }
+
+    @Test
+    void decode_shouldThrowException_whenDataIsTruncated(){
+        byte[] data = EventCodec.encode(new AgendaResult(1L, "Agenda", "Details", 1, 0, "YES"));
+        byte[] truncated = new byte[data.length - 3];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+
+        assertThrows(SerializationException.class, () -> EventCodec.decode(truncated, AgendaResult.class));
+    }
+
+    @Test
+    void isEncoded_shouldReturnFalse_whenDataIsJson(){
+        assertFalse(EventCodec.isEncoded("{\"agendaId\":1}".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(EventCodec.isEncoded(EventCodec.encode(new AgendaOpenedEvent(1L, null, null))));
+    }
+}
@@ -0,0 +1,53 @@
+package com.challenge.vote_events.unit.codec;
+
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.codec.EventSerializer;
+import com.challenge.vote_events.events.AgendaResult;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventDeserializerTest {
+    private static final String TOPIC = "agenda-result";
+
+    private final EventSerializer<AgendaResult> serializer = new EventSerializer<>();
+
+    @Test
+    void deserialize_shouldReadSerializedEvent(){
+        AgendaResult result = new AgendaResult(1L, "Agenda", "Details", 3, 2, "YES");
+        EventDeserializer<AgendaResult> deserializer = new EventDeserializer<>(AgendaResult.class);
+
+        assertEquals(result, deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, result)));
+    }
+
+    @Test
+    void deserialize_shouldReturnNull_whenDataIsNull(){
+        EventDeserializer<AgendaResult> deserializer = new EventDeserializer<>(AgendaResult.class);
+
+        assertNull(serializer.serialize(TOPIC, null));
+        assertNull(deserializer.deserialize(TOPIC, null));
+    }
+
+    @Test
+    void deserialize_shouldUseFallback_whenDataIsNotBinary(){
+        AgendaResult legacy = new AgendaResult(2L, "Legacy", "", 0, 1, "NO");
+        Deserializer<AgendaResult> fallback = (topic, data) -> legacy;
+        EventDeserializer<AgendaResult> deserializer = new EventDeserializer<>(AgendaResult.class, fallback);
+        AgendaResult binary = new AgendaResult(3L, "Binary", "", 1, 0, "YES");
+
+        assertEquals(legacy, deserializer.deserialize(TOPIC, "{\"agendaId\":2}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(binary, deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, binary)));
+    }
+
+    @Test
+    void deserialize_shouldThrowException_whenDataIsNotBinaryAndThereIsNoFallback(){
+        EventDeserializer<AgendaResult> deserializer = new EventDeserializer<>(AgendaResult.class);
+
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize(TOPIC, "{\"agendaId\":2}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.challenge.vote_visualizer.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Connection scaling test of the result stream, for each level N viewers stay connected at the same time
+ * <p>
+ * Every connection is held open for the given seconds, longer than the heartbeat interval, so the share of viewers
+ * reached by a heartbeat shows if the server still pushes to all of them. The heap and threads of the server are read
+ * from its actuator while the connections are open. Run it against a started vote-visualizer once with
+ * WEB_STACK=servlet and once with WEB_STACK=reactive and compare both, raising the open files limit of both sides:
+ * ./gradlew loadTest -PloadTestArgs="http://localhost:8082 1000,10000,50000 20"
+ * </p>
+ */
+public class SseConnectionLoadTest {
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8082";
+        int[] levels = Arrays.stream((args.length > 1 ? args[1] : "1000,10000,50000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration hold = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("%8s %10s %8s %10s %10s %12s %10s %8s%n",
+                "viewers", "connected", "errors", "p50 ms", "p99 ms", "heartbeat %", "heap MB", "threads");
+        for(int level : levels)
+            run(client, baseUrl, level, hold);
+    }
+
+    private static void run(HttpClient client, String baseUrl, int level, Duration hold) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/view/result-stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+        long[] latencies = new long[level];
+        AtomicInteger connected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger reached = new AtomicInteger();
+        Queue<InputStream> streams = new ConcurrentLinkedQueue<>();
+        CountDownLatch opened = new CountDownLatch(level);
+
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            for(int i = 0; i < level; i++){
+                int index = i;
+                executor.submit(() -> {
+                    long sent = System.nanoTime();
+                    InputStream body = null;
+                    try{
+                        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        latencies[index] = System.nanoTime() - sent;
+                        body = response.body();
+                        if(response.statusCode() != 200){
+                            errors.incrementAndGet();
+                            body.close();
+                            return null;
+                        }
+                        connected.incrementAndGet();
+                        streams.add(body);
+                    } catch (Exception ex){
+                        latencies[index] = System.nanoTime() - sent;
+                        errors.incrementAndGet();
+                        return null;
+                    } finally {
+                        opened.countDown();
+                    }
+
+                    readUntilHeartbeat(body, reached);
+                    return null;
+                });
+            }
+
+            opened.await(5, TimeUnit.MINUTES);
+            Thread.sleep(hold.toMillis());
+            double heap = metric(client, baseUrl, "jvm.memory.used?tag=area:heap") / (1024 * 1024);
+            double threads = metric(client, baseUrl, "jvm.threads.live");
+
+            Arrays.sort(latencies);
+            System.out.printf("%8d %10d %8d %10.1f %10.1f %12.1f %10.1f %8.0f%n",
+                    level,
+                    connected.get(),
+                    errors.get(),
+                    millis(percentile(latencies, 0.50)),
+                    millis(percentile(latencies, 0.99)),
+                    connected.get() == 0 ? 0 : 100.0 * reached.get() / connected.get(),
+                    heap,
+                    threads);
+
+            for(InputStream stream : streams)
+                close(stream);
+        }
+    }
+
+    private static void readUntilHeartbeat(InputStream body, AtomicInteger reached){
+        try{
+            byte[] buffer = new byte[512];
+            boolean counted = false;
+            int read;
+            while((read = body.read(buffer)) != -1){
+                if(!counted && new String(buffer, 0, read, StandardCharsets.UTF_8).contains(":heartbeat")){
+                    reached.incrementAndGet();
+                    counted = true;
+                }
+            }
+        } catch (IOException ex){
+            // closed by the end of the level
+        }
+    }
+
+    private static double metric(HttpClient client, String baseUrl, String name){
+        try{
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).build();
+            Matcher matcher = METRIC_VALUE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+        } catch (Exception ex){
+            return Double.NaN;
+        }
+    }
+
+    private static void close(InputStream stream){
+        try{
+            stream.close();
+        } catch (IOException ex){
+            // already closed
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile){
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static double millis(long nanos){
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
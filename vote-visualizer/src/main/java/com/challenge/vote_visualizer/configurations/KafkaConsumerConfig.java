@@ -1,39 +1,62 @@
 
 package com.challenge.vote_visualizer.configurations;
 
-import com.challenge.vote_visualizer.dto.AgendaResult;
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.constants.ConsumptionModeConstants;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Configuration of the agenda-finished consumers
+ * <p>
+ * In the broadcast mode every instance has its own consumer group, so each one reads all the partitions and every SSE
+ * client receives all the results, whatever instance the load balancer sent it to. In the group mode the instances
+ * share the vote-visualizer group and split the partitions.
+ * </p>
+ */
 @Configuration
 public class KafkaConsumerConfig {
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+    private static final String GROUP_ID = "vote-visualizer";
 
     @Value("${KAFKA_URL}")
     private String kafkaUtl;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${visualizer.consumption.mode:broadcast}")
+    private String consumptionMode;
+
+    @Value("${visualizer.instance-id:}")
+    private String instanceId;
+
     @Bean
     public ConsumerFactory<String, AgendaResult> agendaResultConsumerFactory(){
-        JsonDeserializer<AgendaResult> deserializer = new JsonDeserializer<>(AgendaResult.class);
-        deserializer.setRemoveTypeHeaders(false);
-        deserializer.addTrustedPackages("*");
-        deserializer.setUseTypeMapperForKey(true);
+        // reads the JSON records still in the topic from before the binary codec
+        JsonDeserializer<AgendaResult> legacyDeserializer = new JsonDeserializer<>(AgendaResult.class, false);
+        EventDeserializer<AgendaResult> deserializer = new EventDeserializer<>(AgendaResult.class, legacyDeserializer);
+
+        String groupId = groupId(consumptionMode, instanceId);
+        log.info("Consume agenda results in '{}' mode with group '{}'", consumptionMode, groupId);
 
         return new DefaultKafkaConsumerFactory<>(
-                Map.of(
-                        ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaUtl + ":9092",
-                        ConsumerConfig.GROUP_ID_CONFIG, "vote-visualizer",
-                        ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
-                        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, deserializer
-                ),
+                consumerProperties(kafkaUtl + ":9092", consumptionMode, groupId),
                 new StringDeserializer(),
                 deserializer
         );
@@ -44,6 +67,47 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, AgendaResult> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(agendaResultConsumerFactory());
+        if(virtualThreads)
+            factory.getContainerProperties().setListenerTaskExecutor(virtualThreadExecutor("agenda-result-"));
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Method that gives the consumer group of this instance
+     * @param consumptionMode broadcast or group
+     * @param instanceId the stable id of the instance, like the pod name, or empty to use a random one
+     * @return the group id
+     */
+    public static String groupId(String consumptionMode, String instanceId){
+        if(!ConsumptionModeConstants.BROADCAST.equals(consumptionMode))
+            return GROUP_ID;
+
+        return GROUP_ID + "-" + (instanceId == null || instanceId.isBlank() ? UUID.randomUUID() : instanceId);
+    }
+
+    /**
+     * Method that builds the properties of the agenda result consumers
+     * @param bootstrapServers the kafka servers
+     * @param consumptionMode broadcast or group
+     * @param groupId the consumer group
+     * @return the consumer properties
+     */
+    public static Map<String, Object> consumerProperties(String bootstrapServers, String consumptionMode, String groupId){
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        properties.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EventDeserializer.class);
+        // a broadcast group only lives while its instance runs, the starting offset is chosen by the consumer
+        if(ConsumptionModeConstants.BROADCAST.equals(consumptionMode))
+            properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        return properties;
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix){
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,6 @@
+package com.challenge.vote_visualizer.constants;
+
+public class ConsumptionModeConstants {
+    public static final String BROADCAST = "broadcast";
+    public static final String GROUP = "group";
+}
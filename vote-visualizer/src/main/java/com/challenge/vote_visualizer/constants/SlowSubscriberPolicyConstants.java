@@ -0,0 +1,6 @@
+package com.challenge.vote_visualizer.constants;
+
+public class SlowSubscriberPolicyConstants {
+    public static final String DROP_OLDEST = "drop-oldest";
+    public static final String DISCONNECT = "disconnect";
+}
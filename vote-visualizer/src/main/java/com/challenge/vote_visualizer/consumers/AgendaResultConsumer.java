@@ -1,35 +1,131 @@
 package com.challenge.vote_visualizer.consumers;
 
-import com.challenge.vote_visualizer.controllers.AgendaResultSseController;
-import com.challenge.vote_visualizer.dto.AgendaResult;
+import com.challenge.vote_events.constants.EventHeaderConstants;
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.constants.ConsumptionModeConstants;
+import com.challenge.vote_visualizer.interfaces.IAgendaResultPublisher;
+import com.challenge.vote_visualizer.services.AgendaResultStore;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 
 /**
  * Class with consumers of the agenda closing events
+ * <p>
+ * In the broadcast mode the first time a partition is assigned to this instance the consumer resumes from the offset
+ * saved by the result store, so a restarted replica doesn't leave a gap in it. A partition the store never consumed is
+ * moved to its end, or to the records of the last lookback when it is configured, so a new replica starts with the
+ * recent results instead of the whole topic
+ * </p>
+ * <p>
+ * A close retried after its transaction failed publishes the same result again with the same idempotency key, the
+ * keys of the last results are kept so the repeated ones aren't shown twice
+ * </p>
  */
 @Service
-public class AgendaResultConsumer {
+public class AgendaResultConsumer implements ConsumerSeekAware {
     private static final Logger log = LoggerFactory.getLogger(AgendaResultConsumer.class);
 
-    private final AgendaResultSseController controller;
+    public static final String AGENDA_FINISHED_TOPIC = "agenda-finished";
+
+    private final List<IAgendaResultPublisher> publishers;
+    private final AgendaResultStore store;
+    private final boolean broadcast;
+    private final Duration lookback;
+    private final Set<TopicPartition> positioned;
+    private final Set<String> recentKeys;
 
     @Autowired
-    public AgendaResultConsumer(AgendaResultSseController controller) {
-        this.controller = controller;
+    public AgendaResultConsumer(List<IAgendaResultPublisher> publishers,
+                                AgendaResultStore store,
+                                @Value("${visualizer.consumption.mode:broadcast}") String consumptionMode,
+                                @Value("${visualizer.consumption.lookback:0s}") Duration lookback,
+                                @Value("${visualizer.consumption.dedupe-window:10000}") int dedupeWindow) {
+        this.publishers = publishers;
+        this.store = store;
+        this.broadcast = ConsumptionModeConstants.BROADCAST.equals(consumptionMode);
+        this.lookback = lookback;
+        this.positioned = ConcurrentHashMap.newKeySet();
+        this.recentKeys = Collections.synchronizedSet(Collections.newSetFromMap(new LinkedHashMap<>(){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest){
+                return size() > dedupeWindow;
+            }
+        }));
     }
 
     /**
-     * Method to get data from the closed Agenda and send it to SSE connections
+     * Method to get data from the closed Agenda, store it and send it to SSE connections
      * @param result the AgendaResult represent the closed Agenda
+     * @param partition the partition of the record
+     * @param offset the offset of the record
+     * @param idempotencyKey the key of the close that published the result, or null for the older records
      */
-    @KafkaListener(topics = "agenda-finished", groupId = "vote-visualizer", containerFactory = "agendaResultKafkaListenerContainerFactory")
-    public void showAgendaResult(AgendaResult result){
-        log.info("Agenda with agendaId: '{}' was closed and listened to show her results", result.agendaId());
-        controller.sendResultToClients(result);
+    @KafkaListener(topics = AGENDA_FINISHED_TOPIC, containerFactory = "agendaResultKafkaListenerContainerFactory")
+    public void showAgendaResult(AgendaResult result,
+                                 @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                 @Header(KafkaHeaders.OFFSET) long offset,
+                                 @Header(name = EventHeaderConstants.IDEMPOTENCY_KEY, required = false) byte[] idempotencyKey){
+        String key = idempotencyKey == null ? null : new String(idempotencyKey, StandardCharsets.UTF_8);
+        if(key != null && !recentKeys.add(key)){
+            log.info("Result of the agenda '{}' was already received, ignore the repeated one", result.agendaId());
+        } else {
+            log.info("Agenda with agendaId: '{}' was closed and listened to show her results", result.agendaId());
+            for(IAgendaResultPublisher publisher : publishers)
+                publisher.publish(result, key);
+        }
+
+        store.checkpoint(partition, offset);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback){
+        if(!broadcast)
+            return;
+
+        List<TopicPartition> partitions = new ArrayList<>();
+        for(TopicPartition partition : assignments.keySet()){
+            if(!positioned.add(partition))
+                continue;
+
+            Optional<Long> resumeOffset = store.resumeOffset(partition.partition());
+            if(resumeOffset.isPresent()){
+                log.info("Resume partition {} from the stored offset {}", partition, resumeOffset.get());
+                callback.seek(partition.topic(), partition.partition(), resumeOffset.get());
+            } else {
+                partitions.add(partition);
+            }
+        }
+        if(partitions.isEmpty())
+            return;
+
+        if(lookback.isZero() || lookback.isNegative()){
+            log.info("Start partitions {} from their end", partitions);
+            callback.seekToEnd(partitions);
+            return;
+        }
+
+        long timestamp = System.currentTimeMillis() - lookback.toMillis();
+        log.info("Start partitions {} from the results of the last {}", partitions, lookback);
+        callback.seekToTimestamp(partitions, timestamp);
     }
 }
@@ -0,0 +1,53 @@
+package com.challenge.vote_visualizer.controllers;
+
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.services.AgendaResultStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Control class that serves the stored results of the finished Agendas, on both web stacks
+ */
+@RestController
+@RequestMapping("/api/v1/results")
+public class AgendaResultController {
+
+    private final AgendaResultStore store;
+
+    @Autowired
+    public AgendaResultController(AgendaResultStore store){
+        this.store = store;
+    }
+
+    /**
+     * Method that gives the last finished Agendas
+     * @param limit the number of results
+     * @return the results from the newest to the oldest
+     */
+    @GetMapping
+    public ResponseEntity<List<AgendaResult>> getLatest(@RequestParam(value = "limit", defaultValue = "20") int limit){
+        if(limit < 1)
+            return ResponseEntity.badRequest().build();
+
+        return ResponseEntity.ok(store.findLatest(limit));
+    }
+
+    /**
+     * Method that gives the result of an Agenda
+     * @param agendaId the id of the Agenda
+     * @return the AgendaResult, or not found when the Agenda wasn't closed yet
+     */
+    @GetMapping("/{agendaId}")
+    public ResponseEntity<AgendaResult> getByAgendaId(@PathVariable("agendaId") Long agendaId){
+        return store.findByAgendaId(agendaId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,61 +1,48 @@
 package com.challenge.vote_visualizer.controllers;
 
-import com.challenge.vote_visualizer.dto.AgendaResult;
+import com.challenge.vote_visualizer.services.SseBroadcaster;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
 
 /**
- * Control class that provides an SSE connection
+ * Control class that provides an SSE connection on the servlet stack
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/view")
 public class AgendaResultSseController {
     private static final Logger log = LoggerFactory.getLogger(AgendaResultSseController.class);
 
-    private final CopyOnWriteArrayList<SseEmitter> emitters;
+    private final SseBroadcaster broadcaster;
 
-    public AgendaResultSseController(){
-        emitters = new CopyOnWriteArrayList<>();
+    @Autowired
+    public AgendaResultSseController(SseBroadcaster broadcaster){
+        this.broadcaster = broadcaster;
     }
 
     /**
      * Method that establishes an SSE connection
+     * @param lastEventId the id of the last result received, sent by the browser when it reconnects
+     * @param agendaIds the Agendas whose results will be received, all of them when not informed
      * @return the SseEmitter to establishes the SSE connection
      */
     @GetMapping("/result-stream")
-    public SseEmitter streamResults(){
-        log.info("Trying to establish SSE connection");
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        emitters.add(emitter);
+    public SseEmitter streamResults(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(value = "agendaIds", required = false) Set<Long> agendaIds){
+        log.debug("Trying to establish SSE connection");
+        SseEmitter emitter = broadcaster.subscribe(lastEventId, agendaIds);
 
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
-
-        log.info("SSE connection established");
+        log.debug("SSE connection established");
         return emitter;
     }
-
-    /**
-     * Sends the result of the closed agenda to all open SSE connections
-     * @param result the Closed Agenda result
-     */
-    public void sendResultToClients(AgendaResult result) {
-        log.info("Send result to emitters");
-        for (SseEmitter emitter : emitters) {
-            try {
-                emitter.send(result);
-                log.debug("Result sent");
-            } catch (IOException e) {
-                log.warn("Connection with emitter '{}' lost", emitter.hashCode());
-                emitters.remove(emitter);
-            }
-        }
-    }
 }
@@ -0,0 +1,47 @@
+package com.challenge.vote_visualizer.controllers;
+
+import com.challenge.vote_visualizer.services.ReactiveResultBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Control class that provides an SSE connection on the reactive stack
+ */
+@RestController
+@RequestMapping("/api/v1/view")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAgendaResultSseController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAgendaResultSseController.class);
+
+    private final ReactiveResultBroadcaster broadcaster;
+
+    @Autowired
+    public ReactiveAgendaResultSseController(ReactiveResultBroadcaster broadcaster){
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Method that establishes an SSE connection
+     * @param lastEventId the id of the last result received, sent by the browser when it reconnects
+     * @param agendaIds the Agendas whose results will be received, all of them when not informed
+     * @return the Flux with the closed Agenda results
+     */
+    @GetMapping(path = "/result-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamResults(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                       @RequestParam(value = "agendaIds", required = false) Set<Long> agendaIds){
+        log.debug("Trying to establish SSE connection");
+        return broadcaster.subscribe(lastEventId, agendaIds);
+    }
+}
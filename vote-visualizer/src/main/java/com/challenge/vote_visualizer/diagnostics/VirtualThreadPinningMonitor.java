@@ -0,0 +1,68 @@
+package com.challenge.vote_visualizer.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Component that logs the virtual threads pinned to their carrier thread, read from the jdk.VirtualThreadPinned
+ * JFR event
+ * <p>
+ * A virtual thread that blocks inside a synchronized block or a native call keeps its carrier busy, enough of them
+ * and the virtual thread mode is slower than the thread pool it replaced. Only active with spring.threads.virtual.enabled
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 8;
+
+    private final Duration threshold;
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(@Value("${diagnostics.pinning.threshold:20ms}") Duration threshold){
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start(){
+        log.info("Start virtual thread pinning monitor, threshold {} ms", threshold.toMillis());
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::report);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    public void stop(){
+        if(recording != null)
+            recording.close();
+    }
+
+    private void report(RecordedEvent event){
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String frames = stackTrace == null ? "unknown" : stackTrace.getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat "));
+
+        log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String format(RecordedFrame frame){
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
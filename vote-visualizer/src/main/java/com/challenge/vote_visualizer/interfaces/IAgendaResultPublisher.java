@@ -0,0 +1,11 @@
+package com.challenge.vote_visualizer.interfaces;
+
+import com.challenge.vote_events.events.AgendaResult;
+
+public interface IAgendaResultPublisher {
+    void publish(AgendaResult result);
+
+    default void publish(AgendaResult result, String idempotencyKey){
+        publish(result);
+    }
+}
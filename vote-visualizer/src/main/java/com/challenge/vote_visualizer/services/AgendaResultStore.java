@@ -0,0 +1,121 @@
+package com.challenge.vote_visualizer.services;
+
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.interfaces.IAgendaResultPublisher;
+import com.challenge.vote_visualizer.util.store.AgendaResultLog;
+import com.challenge.vote_visualizer.util.store.OffsetCheckpoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service that keeps the materialized view of the finished Agendas, so the dashboards read the results from here
+ * instead of loading the Agendas and their votes from vote-challenge
+ * <p>
+ * It receives each result before the SSE broadcasters, so a client notified of a result can already fetch it. The
+ * next offset of each partition is saved next to the log, so a restarted broadcast instance resumes from it and the
+ * results closed while it was down aren't missing from the view.
+ * </p>
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AgendaResultStore implements IAgendaResultPublisher {
+    private static final Logger log = LoggerFactory.getLogger(AgendaResultStore.class);
+
+    private final AgendaResultLog resultLog;
+    private final OffsetCheckpoint checkpoint;
+    private final int maxLatest;
+
+    @Autowired
+    public AgendaResultStore(@Value("${results.store.path:data/results.log}") String path,
+                             @Value("${results.store.chunk-size:16777216}") int chunkSize,
+                             @Value("${results.store.max-latest:500}") int maxLatest,
+                             MeterRegistry meterRegistry) throws IOException {
+        long start = System.nanoTime();
+        this.resultLog = new AgendaResultLog(Path.of(path), chunkSize);
+        this.checkpoint = new OffsetCheckpoint(Path.of(path + ".offsets"));
+        this.maxLatest = maxLatest;
+        log.info("Result store '{}' loaded with {} results in {}ms", path, resultLog.size(), (System.nanoTime() - start) / 1_000_000);
+
+        Gauge.builder("results.store.size", resultLog, AgendaResultLog::size).register(meterRegistry);
+        Gauge.builder("results.store.bytes", resultLog, AgendaResultLog::sizeInBytes).register(meterRegistry);
+    }
+
+    /**
+     * Method to store the result of a closed Agenda published without an idempotency key
+     * @param result the AgendaResult represent the closed Agenda
+     */
+    @Override
+    public void publish(AgendaResult result){
+        publish(result, null);
+    }
+
+    /**
+     * Method to store the result of a closed Agenda, a close already stored is ignored and a later close of a reopened
+     * Agenda replaces its result
+     * @param result the AgendaResult represent the closed Agenda
+     * @param idempotencyKey the key of the close that published the result, or null for the older records
+     */
+    @Override
+    public void publish(AgendaResult result, String idempotencyKey){
+        if(!resultLog.append(result, idempotencyKey))
+            log.debug("Result of the agenda '{}' was already stored", result.agendaId());
+    }
+
+    /**
+     * Method to save the position of a partition after its result was published
+     * @param partition the partition of the agenda-finished topic
+     * @param offset the offset of the consumed record
+     */
+    public void checkpoint(int partition, long offset){
+        checkpoint.update(partition, offset + 1);
+    }
+
+    /**
+     * Method to get where a partition has to be resumed
+     * @param partition the partition of the agenda-finished topic
+     * @return the offset after the last stored result, or empty when the partition was never consumed
+     */
+    public Optional<Long> resumeOffset(int partition){
+        return checkpoint.get(partition);
+    }
+
+    /**
+     * Method to get the result of an Agenda
+     * @param agendaId the id of the Agenda
+     * @return the AgendaResult, or empty when the Agenda wasn't closed yet
+     */
+    public Optional<AgendaResult> findByAgendaId(Long agendaId){
+        return resultLog.find(agendaId);
+    }
+
+    /**
+     * Method to get the last closed Agendas
+     * @param limit the number of results, bounded by results.store.max-latest
+     * @return the results from the newest to the oldest
+     */
+    public List<AgendaResult> findLatest(int limit){
+        return resultLog.latest(Math.min(limit, maxLatest));
+    }
+
+    @PreDestroy
+    public void close(){
+        try{
+            resultLog.close();
+        } catch (IOException e){
+            log.error("Could not close the result store", e);
+        }
+    }
+}
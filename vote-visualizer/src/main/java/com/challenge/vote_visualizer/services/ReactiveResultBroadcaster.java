@@ -0,0 +1,215 @@
+package com.challenge.vote_visualizer.services;
+
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.constants.SlowSubscriberPolicyConstants;
+import com.challenge.vote_visualizer.interfaces.IAgendaResultPublisher;
+import com.challenge.vote_visualizer.util.replay.ReplayRingBuffer;
+import com.challenge.vote_visualizer.util.subscription.SubscriptionIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Component that broadcasts the Agenda results to the SSE subscribers of the reactive stack
+ * <p>
+ * The results are serialized once and kept in a replay buffer shared by every subscriber. A publish only signals the
+ * subscribers following the Agenda, found through the SubscriptionIndex, and each signaled subscriber reads the
+ * results after the last id it sent. A client that reconnects with Last-Event-ID first receives the ones it missed,
+ * and no result is lost or repeated between the replay and the live ones.
+ * </p>
+ * <p>
+ * Each subscriber reads through its own bounded buffer, drained as fast as Netty can write to that connection, so a
+ * slow client only delays itself: when its buffer is full the policy drops its oldest frame or disconnects it. No
+ * thread is held by a connected client. The heartbeats go to every subscriber through a shared multicast sink.
+ * </p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveResultBroadcaster implements IAgendaResultPublisher {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveResultBroadcaster.class);
+
+    private static final ServerSentEvent<String> HEARTBEAT = ServerSentEvent.<String>builder().comment("heartbeat").build();
+    private static final ServerSentEvent<String> REPLAY = ServerSentEvent.<String>builder().comment("replay").build();
+    private static final Sinks.EmitFailureHandler RETRY_CONCURRENT_EMIT = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final ObjectMapper objectMapper;
+    private final int bufferCapacity;
+    private final int maxSubscribers;
+    private final String slowSubscriberPolicy;
+    private final Duration heartbeatInterval;
+    private final int maxAgendas;
+
+    private final ReplayRingBuffer<ResultFrame> replay;
+    private final SubscriptionIndex<Sinks.Many<ServerSentEvent<String>>> index;
+    private final Sinks.Many<ServerSentEvent<String>> heartbeatSink;
+    private final AtomicInteger subscribers;
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter evicted;
+
+    private Disposable heartbeats;
+
+    @Autowired
+    public ReactiveResultBroadcaster(ObjectMapper objectMapper,
+                                     @Value("${sse.subscriber.queue-capacity:64}") int bufferCapacity,
+                                     @Value("${sse.max-subscribers:50000}") int maxSubscribers,
+                                     @Value("${sse.slow-subscriber-policy:drop-oldest}") String slowSubscriberPolicy,
+                                     @Value("${sse.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                     @Value("${sse.replay.capacity:256}") int replayCapacity,
+                                     @Value("${sse.filter.max-agendas:100}") int maxAgendas,
+                                     MeterRegistry meterRegistry){
+        this.objectMapper = objectMapper;
+        this.bufferCapacity = bufferCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.slowSubscriberPolicy = slowSubscriberPolicy;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxAgendas = maxAgendas;
+
+        this.replay = new ReplayRingBuffer<>(replayCapacity);
+        this.index = new SubscriptionIndex<>();
+        this.heartbeatSink = Sinks.many().multicast().directBestEffort();
+        this.subscribers = new AtomicInteger();
+        this.delivered = meterRegistry.counter("sse.frames", "result", "delivered");
+        this.dropped = meterRegistry.counter("sse.frames", "result", "dropped");
+        this.evicted = meterRegistry.counter("sse.subscribers.evicted");
+        Gauge.builder("sse.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("sse.subscribed.agendas", index, SubscriptionIndex::agendaCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start(){
+        log.info("Start reactive SSE broadcaster with buffer capacity {} and policy '{}'", bufferCapacity, slowSubscriberPolicy);
+        heartbeats = Flux.interval(heartbeatInterval)
+                .subscribe(tick -> heartbeatSink.emitNext(HEARTBEAT, RETRY_CONCURRENT_EMIT));
+    }
+
+    @PreDestroy
+    public void stop(){
+        if(heartbeats != null)
+            heartbeats.dispose();
+        heartbeatSink.tryEmitComplete();
+    }
+
+    /**
+     * Method that registers a new SSE subscriber
+     * @param lastEventId the id of the last event received by a reconnecting client, or null
+     * @param agendaIds the Agendas followed by the subscriber, or null to follow all of them
+     * @return the Flux with the events of the new connection
+     */
+    public Flux<ServerSentEvent<String>> subscribe(String lastEventId, Set<Long> agendaIds){
+        if(subscribers.get() >= maxSubscribers){
+            log.warn("Refuse SSE connection, {} subscribers connected", subscribers.get());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many SSE connections");
+        }
+
+        Set<Long> followed = SubscriptionIndex.normalize(agendaIds);
+        if(followed != null && followed.size() > maxAgendas)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot follow more than " + maxAgendas + " agendas");
+
+        Long lastId = ReplayRingBuffer.parseLastEventId(lastEventId);
+        // an id from another replica or from before a restart resumes from the live results
+        AtomicLong cursor = new AtomicLong(lastId != null && replay.isOwnId(lastId) ? lastId : replay.latestId());
+        int capacity = bufferCapacity + replay.countSince(cursor.get());
+
+        // the signals published before the subscription are kept by the unicast sink, and the REPLAY signal reads
+        // everything published before it, so no result is lost while the connection is set up
+        Sinks.Many<ServerSentEvent<String>> signals = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<ServerSentEvent<String>> results = Flux.merge(signals.asFlux(), heartbeatSink.asFlux(), Flux.just(REPLAY))
+                .concatMapIterable(signal -> signal == HEARTBEAT ? withHeartbeat(readAfter(cursor, followed)) : readAfter(cursor, followed));
+
+        Flux<ServerSentEvent<String>> events = SlowSubscriberPolicyConstants.DISCONNECT.equals(slowSubscriberPolicy)
+                ? results
+                        .onBackpressureBuffer(capacity, event -> dropped.increment(), BufferOverflowStrategy.ERROR)
+                        .onErrorResume(Exceptions::isOverflow, error -> {
+                            log.warn("Disconnect slow SSE subscriber");
+                            evicted.increment();
+                            return Flux.empty();
+                        })
+                : results
+                        .onBackpressureBuffer(capacity, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+
+        return events
+                .doOnNext(event -> delivered.increment())
+                .doOnSubscribe(subscription -> {
+                    subscribers.incrementAndGet();
+                    index.add(signals, followed);
+                })
+                .doFinally(signal -> {
+                    index.remove(signals, followed);
+                    subscribers.decrementAndGet();
+                });
+    }
+
+    /**
+     * Method that sends the result of a closed Agenda to the subscribers following it
+     * @param result the closed Agenda result
+     */
+    @Override
+    public void publish(AgendaResult result){
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            log.error("Fail to serialize result of Agenda '{}'", result.agendaId(), e);
+            return;
+        }
+
+        replay.append(id -> new ResultFrame(result.agendaId(), ServerSentEvent.builder(data).id(String.valueOf(id)).build()));
+        int signaled = index.forEachInterested(result.agendaId(), signals -> signals.emitNext(REPLAY, RETRY_CONCURRENT_EMIT));
+        log.info("Sent result of Agenda '{}' to {} subscribers", result.agendaId(), signaled);
+    }
+
+    public int subscriberCount(){
+        return subscribers.get();
+    }
+
+    private List<ServerSentEvent<String>> readAfter(AtomicLong cursor, Set<Long> followed){
+        List<ReplayRingBuffer.Entry<ResultFrame>> entries = replay.since(cursor.get());
+        if(entries.isEmpty())
+            return List.of();
+
+        cursor.set(entries.get(entries.size() - 1).id());
+        return entries.stream()
+                .map(ReplayRingBuffer.Entry::frame)
+                .filter(frame -> followed == null || followed.contains(frame.agendaId()))
+                .map(ResultFrame::event)
+                .toList();
+    }
+
+    // a heartbeat also reads the results, a safety net for any signal lost by a subscriber
+    private List<ServerSentEvent<String>> withHeartbeat(List<ServerSentEvent<String>> results){
+        if(results.isEmpty())
+            return List.of(HEARTBEAT);
+
+        List<ServerSentEvent<String>> events = new ArrayList<>(results);
+        events.add(HEARTBEAT);
+        return events;
+    }
+
+    private record ResultFrame(Long agendaId, ServerSentEvent<String> event) {}
+}
@@ -0,0 +1,399 @@
+package com.challenge.vote_visualizer.services;
+
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.constants.SlowSubscriberPolicyConstants;
+import com.challenge.vote_visualizer.interfaces.IAgendaResultPublisher;
+import com.challenge.vote_visualizer.util.replay.ReplayRingBuffer;
+import com.challenge.vote_visualizer.util.subscription.SubscriptionIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Component that broadcasts the Agenda results to the SSE subscribers
+ * <p>
+ * Each result is serialized once and the same frame is queued to every subscriber. Every subscriber has its own
+ * bounded queue drained by the send workers, so a slow client only delays itself: when its queue is full the policy
+ * drops its oldest frame or disconnects it. A write blocked on a client that stopped reading gives up after the send
+ * timeout and disconnects it, so it doesn't keep a send worker. Heartbeats go through the same queues, which keeps the
+ * proxies from closing idle connections and finds the dead ones. The last results are kept in a replay buffer, a
+ * client that reconnects with Last-Event-ID first receives the ones it missed. A subscriber can follow only some
+ * Agendas, the results are dispatched through the SubscriptionIndex to the interested subscribers only. Used by the
+ * servlet stack, see ReactiveResultBroadcaster for the reactive one.
+ * </p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SseBroadcaster implements IAgendaResultPublisher {
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final String slowSubscriberPolicy;
+    private final Duration heartbeatInterval;
+    private final Duration sendTimeout;
+    private final int workers;
+    private final boolean virtualThreads;
+
+    private final int maxAgendas;
+
+    private final ReplayRingBuffer<ResultFrame> replay;
+    private final SubscriptionIndex<Subscriber> index;
+    private final ReentrantLock publishLock;
+    private final Map<Long, Subscriber> subscribers;
+    private final AtomicLong sequence;
+    private final AtomicLong queuedFrames;
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter evicted;
+
+    private ExecutorService senders;
+    private ExecutorService writes;
+    private ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public SseBroadcaster(ObjectMapper objectMapper,
+                          @Value("${sse.subscriber.queue-capacity:64}") int queueCapacity,
+                          @Value("${sse.max-subscribers:50000}") int maxSubscribers,
+                          @Value("${sse.slow-subscriber-policy:drop-oldest}") String slowSubscriberPolicy,
+                          @Value("${sse.heartbeat-interval:15s}") Duration heartbeatInterval,
+                          @Value("${sse.send-timeout:10s}") Duration sendTimeout,
+                          @Value("${sse.send-workers:32}") int workers,
+                          @Value("${sse.replay.capacity:256}") int replayCapacity,
+                          @Value("${sse.filter.max-agendas:100}") int maxAgendas,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                          MeterRegistry meterRegistry){
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.slowSubscriberPolicy = slowSubscriberPolicy;
+        this.heartbeatInterval = heartbeatInterval;
+        this.sendTimeout = sendTimeout;
+        this.workers = workers;
+        this.virtualThreads = virtualThreads;
+        this.maxAgendas = maxAgendas;
+
+        this.replay = new ReplayRingBuffer<>(replayCapacity);
+        this.index = new SubscriptionIndex<>();
+        this.publishLock = new ReentrantLock();
+        this.subscribers = new ConcurrentHashMap<>();
+        this.sequence = new AtomicLong();
+        this.queuedFrames = new AtomicLong();
+        this.delivered = meterRegistry.counter("sse.frames", "result", "delivered");
+        this.dropped = meterRegistry.counter("sse.frames", "result", "dropped");
+        this.evicted = meterRegistry.counter("sse.subscribers.evicted");
+        Gauge.builder("sse.subscribers", subscribers, Map::size).register(meterRegistry);
+        Gauge.builder("sse.queue.depth", queuedFrames, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("sse.subscribed.agendas", index, SubscriptionIndex::agendaCount).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start(){
+        log.info("Start SSE broadcaster with {} workers, queue capacity {} and policy '{}'",
+                virtualThreads ? "virtual" : workers, queueCapacity, slowSubscriberPolicy);
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-sender-", 0).factory())
+                : Executors.newFixedThreadPool(workers, r -> new Thread(r, "sse-sender-" + threadCount.incrementAndGet()));
+        // a blocked write stays on its own virtual thread until the container gives up, the sender only waits the timeout
+        writes = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-write-", 0).factory());
+        heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop(){
+        if(heartbeats != null)
+            heartbeats.shutdownNow();
+        if(senders != null)
+            senders.shutdownNow();
+        if(writes != null)
+            writes.shutdownNow();
+
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        index.clear();
+    }
+
+    /**
+     * Method that registers a new SSE subscriber
+     * @param lastEventId the id of the last event received by a reconnecting client, or null
+     * @param agendaIds the Agendas followed by the subscriber, or null to follow all of them
+     * @return the SseEmitter of the new connection
+     */
+    public SseEmitter subscribe(String lastEventId, Set<Long> agendaIds){
+        if(subscribers.size() >= maxSubscribers){
+            log.warn("Refuse SSE connection, {} subscribers connected", subscribers.size());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many SSE connections");
+        }
+
+        Set<Long> followed = SubscriptionIndex.normalize(agendaIds);
+        if(followed != null && followed.size() > maxAgendas)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot follow more than " + maxAgendas + " agendas");
+
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        Long lastId = ReplayRingBuffer.parseLastEventId(lastEventId);
+
+        // holding the publish lock, no result is published between the replay and the registration
+        publishLock.lock();
+        try{
+            List<ResultFrame> missed = lastId == null ? List.of() : replay.since(lastId).stream()
+                    .map(ReplayRingBuffer.Entry::frame)
+                    .filter(frame -> followed == null || followed.contains(frame.agendaId()))
+                    .toList();
+            Subscriber subscriber = new Subscriber(sequence.incrementAndGet(), emitter, followed,
+                    Math.max(queueCapacity, missed.size()));
+            for(ResultFrame frame : missed)
+                subscriber.queue.offer(frame.data());
+            queuedFrames.addAndGet(missed.size());
+            subscribers.put(subscriber.id, subscriber);
+            index.add(subscriber, followed);
+
+            emitter.onCompletion(() -> remove(subscriber));
+            emitter.onTimeout(() -> remove(subscriber));
+            emitter.onError(error -> remove(subscriber));
+
+            if(!missed.isEmpty()){
+                log.debug("Replay {} results to SSE subscriber '{}'", missed.size(), subscriber.id);
+                schedule(subscriber);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Method that sends the result of a closed Agenda to the subscribers following it
+     * @param result the closed Agenda result
+     */
+    @Override
+    public void publish(AgendaResult result){
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            log.error("Fail to serialize result of Agenda '{}'", result.agendaId(), e);
+            return;
+        }
+
+        publishLock.lock();
+        try{
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = replay.append(id -> new ResultFrame(result.agendaId(),
+                    SseEmitter.event()
+                            .id(String.valueOf(id))
+                            .data(data, MediaType.APPLICATION_JSON)
+                            .build())).frame().data();
+
+            int sent = index.forEachInterested(result.agendaId(), subscriber -> enqueue(subscriber, frame, true));
+            log.info("Sent result of Agenda '{}' to {} subscribers", result.agendaId(), sent);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    public int subscriberCount(){
+        return subscribers.size();
+    }
+
+    public long queuedFrames(){
+        return queuedFrames.get();
+    }
+
+    private void heartbeat(){
+        for(Subscriber subscriber : subscribers.values())
+            enqueue(subscriber, HEARTBEAT, false);
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame, boolean applyPolicy){
+        if(!subscriber.active.get())
+            return;
+
+        if(!subscriber.queue.offer(frame)){
+            // a full queue already keeps the connection busy, the heartbeat isn't needed
+            if(!applyPolicy)
+                return;
+
+            if(SlowSubscriberPolicyConstants.DISCONNECT.equals(slowSubscriberPolicy)){
+                log.warn("Disconnect slow SSE subscriber '{}'", subscriber.id);
+                evicted.increment();
+                dropped.increment();
+                remove(subscriber);
+                // its queue is only full while a write is blocked, completing it here would wait for that write
+                complete(subscriber, null);
+                return;
+            }
+
+            if(subscriber.queue.poll() != null){
+                queuedFrames.decrementAndGet();
+                dropped.increment();
+            }
+            if(!subscriber.queue.offer(frame)){
+                dropped.increment();
+                return;
+            }
+        }
+
+        queuedFrames.incrementAndGet();
+        // the subscriber may have been removed while the frame was queued
+        if(!subscriber.active.get()){
+            discard(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber){
+        if(!subscriber.draining.compareAndSet(false, true))
+            return;
+
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber){
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while(subscriber.active.get() && (frame = subscriber.queue.poll()) != null){
+                queuedFrames.decrementAndGet();
+                send(subscriber, frame);
+                delivered.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE subscriber '{}' disconnected: {}", subscriber.id, e.toString());
+            remove(subscriber);
+        } catch (TimeoutException e) {
+            log.warn("Disconnect SSE subscriber '{}', a send took more than {}", subscriber.id, sendTimeout);
+            evicted.increment();
+            remove(subscriber);
+            complete(subscriber, e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // a frame may have been queued after the last poll and before the flag was cleared
+        if(subscriber.active.get() && !subscriber.queue.isEmpty())
+            schedule(subscriber);
+    }
+
+    private void send(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) throws IOException, TimeoutException {
+        Future<?> write = writes.submit(() -> {
+            subscriber.emitter.send(frame);
+            return null;
+        });
+
+        try {
+            write.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException cause)
+                throw cause;
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("SSE send failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.cancel(true);
+            throw new IllegalStateException("SSE send was interrupted", e);
+        } catch (TimeoutException e) {
+            write.cancel(true);
+            throw e;
+        }
+    }
+
+    // the blocked write holds the emitter, it is completed once the write gives up, with the error when there is one
+    private void complete(Subscriber subscriber, Throwable error){
+        try {
+            writes.execute(() -> {
+                if(error == null)
+                    subscriber.emitter.complete();
+                else
+                    subscriber.emitter.completeWithError(error);
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("SSE subscriber '{}' is completed by the shutdown", subscriber.id);
+        }
+    }
+
+    private void remove(Subscriber subscriber){
+        if(!subscriber.active.compareAndSet(true, false))
+            return;
+
+        subscribers.remove(subscriber.id);
+        index.remove(subscriber, subscriber.agendaIds);
+        discard(subscriber);
+    }
+
+    private void discard(Subscriber subscriber){
+        while(subscriber.queue.poll() != null){
+            queuedFrames.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    private record ResultFrame(Long agendaId, Set<ResponseBodyEmitter.DataWithMediaType> data) {}
+
+    private static final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final Set<Long> agendaIds;
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining;
+        private final AtomicBoolean active;
+
+        private Subscriber(long id, SseEmitter emitter, Set<Long> agendaIds, int queueCapacity){
+            this.id = id;
+            this.emitter = emitter;
+            this.agendaIds = agendaIds;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.draining = new AtomicBoolean();
+            this.active = new AtomicBoolean(true);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.challenge.vote_visualizer.util.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded ring buffer of the last frames sent to the SSE subscribers, used to replay the frames a reconnecting client
+ * missed
+ * <p>
+ * Each frame gets the next id of a monotonic sequence. Every buffer starts its sequence at a random block of 2^40
+ * ids, so the ids of two replicas, or of one replica before and after a restart, don't overlap. An id this buffer
+ * didn't give is from another sequence and nothing is replayed for it, the frames of two sequences can't be compared
+ * and replaying would repeat results the client already has. An id of this sequence older than the buffer gets
+ * everything still buffered.
+ * </p>
+ * @param <F> the type of the buffered frames
+ */
+public class ReplayRingBuffer<F> {
+    private static final int SEQUENCE_BITS = 40;
+    private static final int MAX_BLOCK = 1 << 22;
+
+    private final Entry<F>[] entries;
+    private final long firstId;
+    private final ReentrantReadWriteLock lock;
+    private long nextId;
+    private int size;
+    private int head;
+
+    public ReplayRingBuffer(int capacity){
+        this(capacity, (long) ThreadLocalRandom.current().nextInt(1, MAX_BLOCK) << SEQUENCE_BITS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ReplayRingBuffer(int capacity, long firstId){
+        if(capacity < 1)
+            throw new IllegalArgumentException("Replay capacity must be positive");
+
+        this.entries = (Entry<F>[]) new Entry[capacity];
+        this.lock = new ReentrantReadWriteLock();
+        this.firstId = firstId;
+        this.nextId = firstId;
+    }
+
+    /**
+     * Method to add a frame to the buffer, replacing the oldest one when full
+     * @param frameFactory builds the frame with the id given to it
+     * @return the added entry
+     */
+    public Entry<F> append(LongFunction<F> frameFactory){
+        lock.writeLock().lock();
+        try{
+            long id = nextId++;
+            Entry<F> entry = new Entry<>(id, frameFactory.apply(id));
+            entries[(head + size) % entries.length] = entry;
+            if(size < entries.length)
+                size++;
+            else
+                head = (head + 1) % entries.length;
+
+            return entry;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method to get the frames sent after the given id, from the oldest to the newest
+     * @param lastId the id of the last frame the client received
+     * @return the buffered entries after the id, or none when the id isn't from this sequence
+     */
+    public List<Entry<F>> since(long lastId){
+        lock.readLock().lock();
+        try{
+            int skip = skip(lastId);
+            List<Entry<F>> missed = new ArrayList<>(size - skip);
+            for(int i = skip; i < size; i++)
+                missed.add(entries[(head + i) % entries.length]);
+
+            return missed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method to count the frames sent after the given id
+     * @param lastId the id of the last frame the client received
+     * @return the number of entries since would return
+     */
+    public int countSince(long lastId){
+        lock.readLock().lock();
+        try{
+            return size - skip(lastId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method to check if an id was given by this buffer
+     * @param id the id sent by the client
+     * @return true if it is from this sequence, including the id before the first frame
+     */
+    public boolean isOwnId(long id){
+        lock.readLock().lock();
+        try{
+            return ownId(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long latestId(){
+        lock.readLock().lock();
+        try{
+            return nextId - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method to read the Last-Event-ID header sent by a reconnecting client
+     * @param lastEventId the value of the header
+     * @return the id, or null when the header is missing or isn't an id
+     */
+    public static Long parseLastEventId(String lastEventId){
+        if(lastEventId == null || lastEventId.isBlank())
+            return null;
+
+        try{
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e){
+            return null;
+        }
+    }
+
+    // ids are contiguous, so the position of the first missed entry comes straight from the id of the oldest one
+    private int skip(long lastId){
+        if(size == 0)
+            return 0;
+        if(!ownId(lastId))
+            return size;
+
+        long oldestId = entries[head].id();
+        if(lastId < oldestId)
+            return 0;
+
+        return (int) (lastId - oldestId + 1);
+    }
+
+    private boolean ownId(long id){
+        return id >= firstId - 1 && id < nextId;
+    }
+
+    public record Entry<F>(long id, F frame) {}
+}
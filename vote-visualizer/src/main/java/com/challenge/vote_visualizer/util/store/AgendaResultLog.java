@@ -0,0 +1,305 @@
+package com.challenge.vote_visualizer.util.store;
+
+import com.challenge.vote_events.codec.EventCodec;
+import com.challenge.vote_events.events.AgendaResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the finished Agenda results, kept in a memory-mapped file
+ * <p>
+ * Each record is written as its payload length, the agendaId, a CRC32 of the payload and the payload, made of the
+ * idempotency key of the close and the result encoded by the binary EventCodec. The file grows by whole chunks and
+ * the unused end is zeroed, so a zero length marks the end of the log. At startup the records are scanned once to
+ * rebuild the indexes without decoding the results, and the scan stops at the first record whose checksum doesn't
+ * match, which drops a write torn by a crash.
+ * </p>
+ * <p>
+ * An Agenda can be reopened and closed again, so a result is only ignored when its idempotency key was already
+ * stored, and the newest result of an Agenda replaces the older ones in the index. The logs of the first format,
+ * without the keys, are rewritten in this format when opened.
+ * </p>
+ */
+public class AgendaResultLog implements Closeable {
+    private static final int LEGACY_FILE_MAGIC = 0x56524c31;
+    private static final int FILE_MAGIC = 0x56524c32;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final int KEY_HEADER_SIZE = 2;
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final Map<Long, Integer> offsetsByAgenda;
+    private final Set<String> keys;
+    private final ReentrantReadWriteLock lock;
+    private final CRC32 crc;
+    private MappedByteBuffer buffer;
+    private int[] offsets;
+    private int size;
+    private int position;
+
+    public AgendaResultLog(Path path, int chunkSize) throws IOException {
+        if(chunkSize < 1024)
+            throw new IllegalArgumentException("Result log chunk size must be at least 1024 bytes");
+
+        if(path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        if(isLegacyLog(path))
+            upgrade(path, chunkSize);
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.chunkSize = chunkSize;
+        this.offsetsByAgenda = new HashMap<>();
+        this.keys = new HashSet<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.crc = new CRC32();
+        this.offsets = new int[256];
+
+        long fileSize = channel.size();
+        map(fileSize == 0 ? chunkSize : roundToChunk(fileSize));
+        if(fileSize == 0){
+            buffer.putInt(0, FILE_MAGIC);
+            buffer.putInt(4, EventCodec.VERSION);
+        } else if(buffer.getInt(0) != FILE_MAGIC){
+            channel.close();
+            throw new IOException("File " + path + " isn't a result log");
+        }
+
+        rebuildIndex();
+    }
+
+    /**
+     * Method to add a result to the end of the log
+     * @param result the AgendaResult of the closed Agenda
+     * @param idempotencyKey the key of the close that published the result, null for the results published without one
+     * @return true if it was added, false if the close was already stored
+     */
+    public boolean append(AgendaResult result, String idempotencyKey){
+        byte[] key = idempotencyKey == null ? new byte[0] : idempotencyKey.getBytes(StandardCharsets.UTF_8);
+        if(key.length > 0xFFFF)
+            throw new IllegalArgumentException("Idempotency key longer than " + 0xFFFF + " bytes");
+
+        byte[] encoded = EventCodec.encode(result);
+        byte[] payload = new byte[KEY_HEADER_SIZE + key.length + encoded.length];
+        payload[0] = (byte) (key.length >>> 8);
+        payload[1] = (byte) key.length;
+        System.arraycopy(key, 0, payload, KEY_HEADER_SIZE, key.length);
+        System.arraycopy(encoded, 0, payload, KEY_HEADER_SIZE + key.length, encoded.length);
+
+        lock.writeLock().lock();
+        try{
+            // without a key a repeated close can't be told from a reopened Agenda, so only the first one is kept
+            if(idempotencyKey == null ? offsetsByAgenda.containsKey(result.agendaId()) : keys.contains(idempotencyKey))
+                return false;
+
+            int recordSize = RECORD_HEADER_SIZE + payload.length;
+            ensureCapacity((long) position + recordSize + 4);
+
+            crc.reset();
+            crc.update(payload);
+            buffer.putLong(position + 4, result.agendaId());
+            buffer.putInt(position + 12, (int) crc.getValue());
+            buffer.put(position + RECORD_HEADER_SIZE, payload);
+            // the length goes last and the next one is cleared, so a torn write reads as the end of the log
+            buffer.putInt(position + recordSize, 0);
+            buffer.putInt(position, payload.length);
+
+            index(result.agendaId(), idempotencyKey, position);
+            position += recordSize;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method to find the result of an Agenda
+     * @param agendaId the id of the Agenda
+     * @return the last stored AgendaResult, or empty when the Agenda wasn't closed yet
+     */
+    public Optional<AgendaResult> find(long agendaId){
+        lock.readLock().lock();
+        try{
+            Integer offset = offsetsByAgenda.get(agendaId);
+            return offset == null ? Optional.empty() : Optional.of(read(offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method to get the last results added to the log, the results replaced by a later close are left out
+     * @param limit the maximum number of results
+     * @return the results from the newest to the oldest
+     */
+    public List<AgendaResult> latest(int limit){
+        lock.readLock().lock();
+        try{
+            List<AgendaResult> results = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+            for(int i = size - 1; i >= 0 && results.size() < limit; i--){
+                int offset = offsets[i];
+                if(offsetsByAgenda.get(buffer.getLong(offset + 4)) == offset)
+                    results.add(read(offset));
+            }
+
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the number of stored results, the replaced ones included
+    public int size(){
+        lock.readLock().lock();
+        try{
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes(){
+        lock.readLock().lock();
+        try{
+            return position;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try{
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildIndex(){
+        int offset = FILE_HEADER_SIZE;
+        byte[] payload = new byte[0];
+        while(offset + RECORD_HEADER_SIZE <= buffer.capacity()){
+            int length = buffer.getInt(offset);
+            if(length < KEY_HEADER_SIZE || offset + RECORD_HEADER_SIZE + length > buffer.capacity())
+                break;
+
+            if(payload.length < length)
+                payload = new byte[Math.max(length, payload.length * 2)];
+            buffer.get(offset + RECORD_HEADER_SIZE, payload, 0, length);
+            crc.reset();
+            crc.update(payload, 0, length);
+            if((int) crc.getValue() != buffer.getInt(offset + 12))
+                break;
+
+            int keyLength = ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
+            if(keyLength > length - KEY_HEADER_SIZE)
+                break;
+
+            String key = keyLength == 0 ? null : new String(payload, KEY_HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+            index(buffer.getLong(offset + 4), key, offset);
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        position = offset;
+    }
+
+    private void index(long agendaId, String key, int offset){
+        offsetsByAgenda.put(agendaId, offset);
+        if(key != null)
+            keys.add(key);
+
+        if(size == offsets.length)
+            offsets = Arrays.copyOf(offsets, size * 2);
+        offsets[size++] = offset;
+    }
+
+    private AgendaResult read(int offset){
+        int keyLength = buffer.getShort(offset + RECORD_HEADER_SIZE) & 0xFFFF;
+        byte[] encoded = new byte[buffer.getInt(offset) - KEY_HEADER_SIZE - keyLength];
+        buffer.get(offset + RECORD_HEADER_SIZE + KEY_HEADER_SIZE + keyLength, encoded);
+        return EventCodec.decode(encoded, AgendaResult.class);
+    }
+
+    private void ensureCapacity(long required){
+        if(required <= buffer.capacity())
+            return;
+        if(required > Integer.MAX_VALUE)
+            throw new IllegalStateException("Result log is full");
+
+        try{
+            map(roundToChunk(required));
+        } catch (IOException e){
+            throw new IllegalStateException("Could not grow the result log", e);
+        }
+    }
+
+    // mapping past the end extends the file with zeros, which is what marks the end of the log
+    private void map(long mappedSize) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(mappedSize, Integer.MAX_VALUE));
+    }
+
+    private long roundToChunk(long bytes){
+        return ((bytes + chunkSize - 1) / chunkSize) * chunkSize;
+    }
+
+    private static boolean isLegacyLog(Path path) throws IOException {
+        if(!Files.exists(path) || Files.size(path) < FILE_HEADER_SIZE)
+            return false;
+
+        try(FileChannel legacy = FileChannel.open(path, StandardOpenOption.READ)){
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            legacy.read(magic, 0);
+            return magic.getInt(0) == LEGACY_FILE_MAGIC;
+        }
+    }
+
+    // the upgraded log is written next to the old one and moved over it, so a crash leaves one of them whole
+    private static void upgrade(Path path, int chunkSize) throws IOException {
+        Path upgraded = path.resolveSibling(path.getFileName() + ".upgrade");
+        Files.deleteIfExists(upgraded);
+
+        ByteBuffer legacy = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32 crc = new CRC32();
+        try(AgendaResultLog log = new AgendaResultLog(upgraded, chunkSize)){
+            int offset = FILE_HEADER_SIZE;
+            while(offset + RECORD_HEADER_SIZE <= legacy.capacity()){
+                int length = legacy.getInt(offset);
+                if(length <= 0 || length > legacy.capacity() - offset - RECORD_HEADER_SIZE)
+                    break;
+
+                byte[] payload = new byte[length];
+                legacy.get(offset + RECORD_HEADER_SIZE, payload);
+                crc.reset();
+                crc.update(payload);
+                if((int) crc.getValue() != legacy.getInt(offset + 12))
+                    break;
+
+                log.append(EventCodec.decode(payload, AgendaResult.class), null);
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        }
+
+        Files.move(upgraded, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,89 @@
+package com.challenge.vote_visualizer.util.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * File with the next offset to consume of each partition, kept next to the result log
+ * <p>
+ * Each line holds a partition and its offset. The whole file is written to a temporary file and moved over the old
+ * one, so a crash leaves either the previous or the new checkpoint. The offset is saved after the result is appended
+ * to the log, a crash between both redelivers the result and the log ignores it.
+ * </p>
+ */
+public class OffsetCheckpoint {
+    private final Path path;
+    private final Path temporary;
+    private final Map<Integer, Long> offsets;
+
+    public OffsetCheckpoint(Path path) throws IOException {
+        if(path.getParent() != null)
+            Files.createDirectories(path.getParent());
+
+        this.path = path;
+        this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        this.offsets = new TreeMap<>();
+
+        if(Files.exists(path))
+            load();
+    }
+
+    /**
+     * Method to get the next offset to consume of a partition
+     * @param partition the partition of the topic
+     * @return the offset, or empty when the partition was never consumed
+     */
+    public synchronized Optional<Long> get(int partition){
+        return Optional.ofNullable(offsets.get(partition));
+    }
+
+    /**
+     * Method to save the next offset to consume of a partition, an offset behind the saved one is ignored
+     * @param partition the partition of the topic
+     * @param offset the offset after the last consumed record
+     */
+    public synchronized void update(int partition, long offset){
+        Long current = offsets.get(partition);
+        if(current != null && current >= offset)
+            return;
+
+        offsets.put(partition, offset);
+        write();
+    }
+
+    private void load() throws IOException {
+        for(String line : Files.readAllLines(path, StandardCharsets.UTF_8)){
+            if(line.isBlank())
+                continue;
+
+            String[] fields = line.trim().split(" ");
+            if(fields.length != 2)
+                throw new IOException("Invalid line '" + line + "' in the offset checkpoint " + path);
+
+            try{
+                offsets.put(Integer.parseInt(fields[0]), Long.parseLong(fields[1]));
+            } catch (NumberFormatException e){
+                throw new IOException("Invalid line '" + line + "' in the offset checkpoint " + path, e);
+            }
+        }
+    }
+
+    private void write(){
+        StringBuilder content = new StringBuilder();
+        offsets.forEach((partition, offset) -> content.append(partition).append(' ').append(offset).append('\n'));
+
+        try{
+            Files.writeString(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e){
+            throw new UncheckedIOException("Could not write the offset checkpoint " + path, e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.challenge.vote_visualizer.util.subscription;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the SSE subscribers by the Agendas they follow
+ * <p>
+ * The subscribers without a filter are kept in a separate broadcast set, so a result only visits the subscribers of
+ * its Agenda and the broadcast ones, never the whole list of connections. The Agenda sets are created with the first
+ * subscriber and dropped with the last one.
+ * </p>
+ * @param <S> the type of the subscribers
+ */
+public class SubscriptionIndex<S> {
+    private final Set<S> broadcast;
+    private final ConcurrentHashMap<Long, Set<S>> byAgenda;
+
+    public SubscriptionIndex(){
+        this.broadcast = ConcurrentHashMap.newKeySet();
+        this.byAgenda = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method to add a subscriber into the index
+     * @param subscriber the subscriber
+     * @param agendaIds the Agendas it follows, or null to follow all of them
+     */
+    public void add(S subscriber, Set<Long> agendaIds){
+        if(agendaIds == null){
+            broadcast.add(subscriber);
+            return;
+        }
+
+        for(Long agendaId : agendaIds)
+            byAgenda.compute(agendaId, (id, subscribers) -> {
+                Set<S> current = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                current.add(subscriber);
+                return current;
+            });
+    }
+
+    /**
+     * Method to remove a subscriber from the index
+     * @param subscriber the subscriber
+     * @param agendaIds the same Agendas it was added with
+     */
+    public void remove(S subscriber, Set<Long> agendaIds){
+        if(agendaIds == null){
+            broadcast.remove(subscriber);
+            return;
+        }
+
+        for(Long agendaId : agendaIds)
+            byAgenda.computeIfPresent(agendaId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+    }
+
+    /**
+     * Method to visit the subscribers interested in the result of an Agenda
+     * @param agendaId the id of the Agenda
+     * @param action the action applied to each subscriber
+     * @return the number of visited subscribers
+     */
+    public int forEachInterested(Long agendaId, Consumer<S> action){
+        int visited = 0;
+        for(S subscriber : broadcast){
+            action.accept(subscriber);
+            visited++;
+        }
+
+        Set<S> subscribers = agendaId == null ? null : byAgenda.get(agendaId);
+        if(subscribers != null)
+            for(S subscriber : subscribers){
+                action.accept(subscriber);
+                visited++;
+            }
+
+        return visited;
+    }
+
+    public int agendaCount(){
+        return byAgenda.size();
+    }
+
+    public void clear(){
+        broadcast.clear();
+        byAgenda.clear();
+    }
+
+    /**
+     * Method to normalize the Agendas asked by a subscriber
+     * @param agendaIds the asked Agendas
+     * @return an immutable copy of them, or null when none was asked
+     */
+    public static Set<Long> normalize(Set<Long> agendaIds){
+        if(agendaIds == null)
+            return null;
+
+        Set<Long> ids = agendaIds.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+        return ids.isEmpty() ? null : ids;
+    }
+}
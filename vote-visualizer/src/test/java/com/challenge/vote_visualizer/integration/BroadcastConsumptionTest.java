@@ -0,0 +1,264 @@
+package com.challenge.vote_visualizer.integration;
+
+import com.challenge.vote_events.codec.EventDeserializer;
+import com.challenge.vote_events.codec.EventSerializer;
+import com.challenge.vote_events.constants.EventHeaderConstants;
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.configurations.KafkaConsumerConfig;
+import com.challenge.vote_visualizer.constants.ConsumptionModeConstants;
+import com.challenge.vote_visualizer.consumers.AgendaResultConsumer;
+import com.challenge.vote_visualizer.services.AgendaResultStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two vote-visualizer instances in the broadcast mode against an embedded broker and checks that each one
+ * receives every result, starting from the configured lookback or from the offsets saved by the result store
+ */
+public class BroadcastConsumptionTest {
+    private static final int PARTITIONS = 4;
+    private static final String TOPIC = AgendaResultConsumer.AGENDA_FINISHED_TOPIC;
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedKafkaBroker broker;
+    private KafkaTemplate<String, AgendaResult> template;
+
+    @BeforeEach
+    void setUp(){
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventSerializer.class)));
+    }
+
+    @AfterEach
+    void tearDown(){
+        template.destroy();
+        broker.destroy();
+    }
+
+    @Test
+    void instances_shouldEachReceiveAllResults(){
+        Instance first = new Instance("first", Duration.ofMinutes(1));
+        Instance second = new Instance("second", Duration.ofMinutes(1));
+        try{
+            first.start();
+            second.start();
+
+            LongStream.rangeClosed(1, 20).forEach(this::send);
+
+            Set<Long> expected = LongStream.rangeClosed(1, 20).boxed().collect(Collectors.toSet());
+            await().atMost(Duration.ofSeconds(30)).until(() ->
+                    first.received.equals(expected) && second.received.equals(expected));
+        } finally {
+            first.stop();
+            second.stop();
+        }
+    }
+
+    @Test
+    void lateInstance_shouldReceiveEarlierResults_whenLookbackIsConfigured(){
+        LongStream.rangeClosed(1, 5).forEach(this::send);
+
+        Instance late = new Instance("late", Duration.ofMinutes(1));
+        try{
+            late.start();
+
+            await().atMost(Duration.ofSeconds(30)).until(() -> late.received.size() == 5);
+            assertEquals(LongStream.rangeClosed(1, 5).boxed().collect(Collectors.toSet()), late.received);
+        } finally {
+            late.stop();
+        }
+    }
+
+    @Test
+    void lateInstance_shouldReceiveOnlyNewResults_whenLookbackIsZero(){
+        LongStream.rangeClosed(1, 5).forEach(this::send);
+
+        Instance late = new Instance("late", Duration.ZERO);
+        try{
+            late.start();
+
+            // the end offsets are resolved by the first poll after the assignment, keep publishing until it is done
+            AtomicLong next = new AtomicLong(100);
+            await().atMost(Duration.ofSeconds(30)).pollInterval(Duration.ofMillis(200)).until(() -> {
+                send(next.getAndIncrement());
+                return !late.received.isEmpty();
+            });
+
+            assertTrue(late.received.stream().allMatch(agendaId -> agendaId >= 100));
+        } finally {
+            late.stop();
+        }
+    }
+
+    @Test
+    void restartedInstance_shouldResumeFromStoredOffsets_whenLookbackIsZero(){
+        Path storePath = directory.resolve("restarted.log");
+        Instance instance = new Instance("restarted-1", Duration.ZERO, storePath);
+        try{
+            instance.start();
+
+            // stored offsets are only saved for consumed partitions, keep publishing until all of them have one
+            AtomicLong next = new AtomicLong(100);
+            await().atMost(Duration.ofSeconds(30)).pollInterval(Duration.ofMillis(200)).until(() -> {
+                send(next.getAndIncrement());
+                return IntStream.range(0, PARTITIONS).allMatch(partition -> instance.store.resumeOffset(partition).isPresent());
+            });
+        } finally {
+            instance.stop();
+        }
+
+        LongStream.rangeClosed(1, 5).forEach(this::send);
+
+        // a new group, like a replica without a stable instance id, so only the stored offsets can resume it
+        Instance restarted = new Instance("restarted-2", Duration.ZERO, storePath);
+        try{
+            restarted.start();
+
+            Set<Long> expected = LongStream.rangeClosed(1, 5).boxed().collect(Collectors.toSet());
+            await().atMost(Duration.ofSeconds(30)).until(() -> restarted.received.containsAll(expected));
+            expected.forEach(agendaId -> assertTrue(restarted.store.findByAgendaId(agendaId).isPresent()));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void instance_shouldIgnoreRepeatedResult_whenIdempotencyKeyWasReceived(){
+        Instance instance = new Instance("dedupe", Duration.ofMinutes(1));
+        try{
+            instance.start();
+
+            // same record key, so the three records are read in order from the same partition
+            sendWithKey(7, "7-2026-01-01T12:00");
+            sendWithKey(7, "7-2026-01-01T12:00");
+            sendWithKey(8, "8-2026-01-01T12:00");
+
+            await().atMost(Duration.ofSeconds(30)).until(() -> instance.received.contains(8L));
+            assertEquals(2, instance.deliveries.get());
+        } finally {
+            instance.stop();
+        }
+    }
+
+    private void sendWithKey(long agendaId, String idempotencyKey){
+        ProducerRecord<String, AgendaResult> record = new ProducerRecord<>(TOPIC, "7",
+                new AgendaResult(agendaId, "Agenda " + agendaId, "", 1, 0, "YES"));
+        record.headers().add(EventHeaderConstants.IDEMPOTENCY_KEY, idempotencyKey.getBytes(StandardCharsets.UTF_8));
+        template.send(record);
+    }
+
+    private void send(long agendaId){
+        template.send(TOPIC, String.valueOf(agendaId),
+                new AgendaResult(agendaId, "Agenda " + agendaId, "", 1, 0, "YES"));
+    }
+
+    private class Instance {
+        private final Set<Long> received;
+        private final AtomicInteger deliveries;
+        private final AgendaResultStore store;
+        private final KafkaMessageListenerContainer<String, AgendaResult> container;
+
+        private Instance(String name, Duration lookback){
+            this(name, lookback, directory.resolve(name + ".log"));
+        }
+
+        private Instance(String name, Duration lookback, Path storePath){
+            received = ConcurrentHashMap.newKeySet();
+            deliveries = new AtomicInteger();
+            try{
+                store = new AgendaResultStore(storePath.toString(), 1024 * 1024, 500, new SimpleMeterRegistry());
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+            AgendaResultConsumer consumer = new AgendaResultConsumer(
+                    List.of(store, result -> {
+                        deliveries.incrementAndGet();
+                        received.add(result.agendaId());
+                    }),
+                    store, ConsumptionModeConstants.BROADCAST, lookback, 100);
+
+            String groupId = KafkaConsumerConfig.groupId(ConsumptionModeConstants.BROADCAST, name);
+            DefaultKafkaConsumerFactory<String, AgendaResult> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                    KafkaConsumerConfig.consumerProperties(broker.getBrokersAsString(), ConsumptionModeConstants.BROADCAST, groupId),
+                    new StringDeserializer(),
+                    new EventDeserializer<>(AgendaResult.class)
+            );
+
+            ContainerProperties properties = new ContainerProperties(TOPIC);
+            properties.setMessageListener(new SeekingListener(consumer));
+            container = new KafkaMessageListenerContainer<>(consumerFactory, properties);
+        }
+
+        private void start(){
+            container.start();
+            ContainerTestUtils.waitForAssignment(container, PARTITIONS);
+        }
+
+        private void stop(){
+            container.stop();
+            store.close();
+        }
+    }
+
+    // the container only calls the seeks of its own message listener, like the @KafkaListener adapter does
+    private record SeekingListener(AgendaResultConsumer consumer)
+            implements MessageListener<String, AgendaResult>, ConsumerSeekAware {
+
+        @Override
+        public void onMessage(ConsumerRecord<String, AgendaResult> record){
+            Header idempotencyKey = record.headers().lastHeader(EventHeaderConstants.IDEMPOTENCY_KEY);
+            consumer.showAgendaResult(record.value(), record.partition(), record.offset(),
+                    idempotencyKey == null ? null : idempotencyKey.value());
+        }
+
+        @Override
+        public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback){
+            consumer.onPartitionsAssigned(assignments, callback);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.challenge.vote_visualizer.unit.services;
+
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.constants.SlowSubscriberPolicyConstants;
+import com.challenge.vote_visualizer.services.ReactiveResultBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReactiveResultBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveResultBroadcaster broadcaster(ObjectMapper objectMapper, int bufferCapacity, String policy){
+        return new ReactiveResultBroadcaster(objectMapper, bufferCapacity, 2, policy, Duration.ofSeconds(15), 8, 3, meterRegistry);
+    }
+
+    private AgendaResult result(long agendaId){
+        return new AgendaResult(agendaId, "Agenda " + agendaId, "Details", 3, 1, "YES");
+    }
+
+    @Test
+    void publish_shouldSendSameSerializedEventToEverySubscriber() throws Exception {
+        ObjectMapper objectMapper = spy(new ObjectMapper());
+        ReactiveResultBroadcaster broadcaster = broadcaster(objectMapper, 4, SlowSubscriberPolicyConstants.DROP_OLDEST);
+        List<ServerSentEvent<String>> first = new ArrayList<>();
+        List<ServerSentEvent<String>> second = new ArrayList<>();
+        broadcaster.subscribe(null, null).subscribe(first::add);
+        broadcaster.subscribe(null, null).subscribe(second::add);
+
+        broadcaster.publish(result(1L));
+
+        verify(objectMapper, times(1)).writeValueAsString(result(1L));
+        assertEquals(1, first.size());
+        assertSame(first.get(0), second.get(0));
+        assertTrue(first.get(0).data().contains("\"agendaId\":1"));
+    }
+
+    @Test
+    void publish_shouldKeepNewestEvents_whenSubscriberIsSlowAndPolicyIsDropOldest(){
+        ReactiveResultBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST);
+
+        StepVerifier.create(broadcaster.subscribe(null, null), 0)
+                .then(() -> {
+                    for(long id = 1; id <= 5; id++)
+                        broadcaster.publish(result(id));
+                })
+                .thenRequest(2)
+                .assertNext(event -> assertTrue(event.data().contains("\"agendaId\":4")))
+                .assertNext(event -> assertTrue(event.data().contains("\"agendaId\":5")))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(3, meterRegistry.counter("sse.frames", "result", "dropped").count());
+    }
+
+    @Test
+    void publish_shouldDisconnectSubscriber_whenSubscriberIsSlowAndPolicyIsDisconnect(){
+        ReactiveResultBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DISCONNECT);
+
+        StepVerifier.create(broadcaster.subscribe(null, null), 0)
+                .then(() -> {
+                    for(long id = 1; id <= 3; id++)
+                        broadcaster.publish(result(id));
+                })
+                .thenRequest(5)
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, meterRegistry.counter("sse.subscribers.evicted").count());
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void subscribe_shouldThrowException_whenMaxSubscribersIsReached(){
+        ReactiveResultBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST);
+        broadcaster.subscribe(null, null).subscribe();
+        broadcaster.subscribe(null, null).subscribe();
+
+        assertThrows(ResponseStatusException.class, () -> broadcaster.subscribe(null, null));
+    }
+
+    @Test
+    void subscribe_shouldReplayOnlyMissedResults_whenLastEventIdIsSent(){
+        ReactiveResultBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST);
+        List<ServerSentEvent<String>> first = new ArrayList<>();
+        broadcaster.subscribe(null, null).subscribe(first::add);
+        for(long id = 1; id <= 5; id++)
+            broadcaster.publish(result(id));
+
+        StepVerifier.create(broadcaster.subscribe(first.get(1).id(), null))
+                .assertNext(event -> assertEquals(first.get(2).id(), event.id()))
+                .assertNext(event -> assertEquals(first.get(3).id(), event.id()))
+                .assertNext(event -> assertEquals(first.get(4).id(), event.id()))
+                .then(() -> broadcaster.publish(result(6L)))
+                .assertNext(event -> assertTrue(event.data().contains("\"agendaId\":6")))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void publish_shouldSendOnlyFollowedAgendas_whenSubscriberFiltersAgendas(){
+        ReactiveResultBroadcaster broadcaster = broadcaster(new ObjectMapper(), 4, SlowSubscriberPolicyConstants.DROP_OLDEST);
+        List<ServerSentEvent<String>> kiosk = new ArrayList<>();
+        List<ServerSentEvent<String>> all = new ArrayList<>();
+        broadcaster.subscribe(null, Set.of(2L)).subscribe(kiosk::add);
+        broadcaster.subscribe(null, null).subscribe(all::add);
+
+        for(long id = 1; id <= 3; id++)
+            broadcaster.publish(result(id));
+
+        assertEquals(1, kiosk.size());
+        assertTrue(kiosk.get(0).data().contains("\"agendaId\":2"));
+        assertEquals(3, all.size());
+    }
+}
@@ -0,0 +1,172 @@
+package com.challenge.vote_visualizer.unit.services;
+
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.constants.SlowSubscriberPolicyConstants;
+import com.challenge.vote_visualizer.services.SseBroadcaster;
+import com.challenge.vote_visualizer.util.replay.ReplayRingBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class SseBroadcasterTest {
+    private static final AgendaResult RESULT = new AgendaResult(1L, "Agenda", "Details", 3, 1, "YES");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // the senders never run, so every queued frame stays in the subscriber queue
+    private SseBroadcaster broadcaster(ObjectMapper objectMapper, int queueCapacity, String policy, ExecutorService senders){
+        SseBroadcaster broadcaster = new SseBroadcaster(objectMapper, queueCapacity, 2, policy, Duration.ofSeconds(15),
+                Duration.ofSeconds(10), 1, 8, 3, false, meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "senders", senders);
+        return broadcaster;
+    }
+
+    @Test
+    void publish_shouldSerializeResultOnce_whenThereAreManySubscribers() throws Exception {
+        ObjectMapper objectMapper = spy(new ObjectMapper());
+        SseBroadcaster broadcaster = broadcaster(objectMapper, 4, SlowSubscriberPolicyConstants.DROP_OLDEST, mock(ExecutorService.class));
+        broadcaster.subscribe(null, null);
+        broadcaster.subscribe(null, null);
+
+        broadcaster.publish(RESULT);
+
+        verify(objectMapper, times(1)).writeValueAsBytes(RESULT);
+        assertEquals(2, broadcaster.queuedFrames());
+    }
+
+    @Test
+    void publish_shouldScheduleSubscriberOnce_whenItIsAlreadyDraining(){
+        ExecutorService senders = mock(ExecutorService.class);
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 4, SlowSubscriberPolicyConstants.DROP_OLDEST, senders);
+        broadcaster.subscribe(null, null);
+
+        broadcaster.publish(RESULT);
+        broadcaster.publish(RESULT);
+
+        verify(senders, times(1)).execute(any());
+    }
+
+    @Test
+    void publish_shouldDropOldestFrames_whenQueueIsFullAndPolicyIsDropOldest(){
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST, mock(ExecutorService.class));
+        broadcaster.subscribe(null, null);
+
+        for(int i = 0; i < 5; i++)
+            broadcaster.publish(RESULT);
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(2, broadcaster.queuedFrames());
+        assertEquals(3, meterRegistry.counter("sse.frames", "result", "dropped").count());
+    }
+
+    @Test
+    void publish_shouldDisconnectSubscriber_whenQueueIsFullAndPolicyIsDisconnect(){
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DISCONNECT, mock(ExecutorService.class));
+        ExecutorService writes = mock(ExecutorService.class);
+        ReflectionTestUtils.setField(broadcaster, "writes", writes);
+        broadcaster.subscribe(null, null);
+
+        for(int i = 0; i < 3; i++)
+            broadcaster.publish(RESULT);
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(0, broadcaster.queuedFrames());
+        assertEquals(1, meterRegistry.counter("sse.subscribers.evicted").count());
+        // the emitter is completed by the writes executor, never by the publishing thread
+        verify(writes).execute(any());
+    }
+
+    @Test
+    void publish_shouldDisconnectSubscriber_whenSendTimesOut() throws Exception {
+        ExecutorService senders = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(senders).execute(any());
+        Future<?> write = mock(Future.class);
+        when(write.get(anyLong(), any(TimeUnit.class))).thenThrow(new TimeoutException());
+        ExecutorService writes = mock(ExecutorService.class);
+        doReturn(write).when(writes).submit(any(Callable.class));
+
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 4, SlowSubscriberPolicyConstants.DROP_OLDEST, senders);
+        ReflectionTestUtils.setField(broadcaster, "writes", writes);
+        broadcaster.subscribe(null, null);
+
+        broadcaster.publish(RESULT);
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1, meterRegistry.counter("sse.subscribers.evicted").count());
+        verify(write).cancel(true);
+        verify(writes).execute(any());
+    }
+
+    @Test
+    void subscribe_shouldThrowException_whenMaxSubscribersIsReached(){
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST, mock(ExecutorService.class));
+        broadcaster.subscribe(null, null);
+        broadcaster.subscribe(null, null);
+
+        assertThrows(ResponseStatusException.class, () -> broadcaster.subscribe(null, null));
+    }
+
+    @Test
+    void subscribe_shouldReplayMissedResults_whenLastEventIdIsSent(){
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST, mock(ExecutorService.class));
+        for(int i = 0; i < 5; i++)
+            broadcaster.publish(RESULT);
+        ReplayRingBuffer<?> replay = (ReplayRingBuffer<?>) ReflectionTestUtils.getField(broadcaster, "replay");
+        long latestId = replay.latestId();
+
+        broadcaster.subscribe(String.valueOf(latestId - 3), null);
+        broadcaster.subscribe(null, null);
+
+        assertEquals(3, broadcaster.queuedFrames());
+    }
+
+    @Test
+    void subscribe_shouldReplayNothing_whenLastEventIdIsFromAnotherReplica(){
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST, mock(ExecutorService.class));
+        for(int i = 0; i < 5; i++)
+            broadcaster.publish(RESULT);
+
+        broadcaster.subscribe("1", null);
+
+        assertEquals(0, broadcaster.queuedFrames());
+    }
+
+    @Test
+    void publish_shouldQueueOnlyForInterestedSubscribers_whenSubscribersFilterAgendas(){
+        SseBroadcaster broadcaster = new SseBroadcaster(new ObjectMapper(), 4, 10, SlowSubscriberPolicyConstants.DROP_OLDEST,
+                Duration.ofSeconds(15), Duration.ofSeconds(10), 1, 8, 3, false, meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "senders", mock(ExecutorService.class));
+        broadcaster.subscribe(null, Set.of(1L));
+        broadcaster.subscribe(null, Set.of(2L, 3L));
+        broadcaster.subscribe(null, null);
+
+        broadcaster.publish(RESULT);
+
+        assertEquals(2, broadcaster.queuedFrames());
+    }
+
+    @Test
+    void subscribe_shouldThrowException_whenTooManyAgendasAreFollowed(){
+        SseBroadcaster broadcaster = broadcaster(new ObjectMapper(), 2, SlowSubscriberPolicyConstants.DROP_OLDEST, mock(ExecutorService.class));
+
+        assertThrows(ResponseStatusException.class, () -> broadcaster.subscribe(null, Set.of(1L, 2L, 3L, 4L)));
+    }
+}
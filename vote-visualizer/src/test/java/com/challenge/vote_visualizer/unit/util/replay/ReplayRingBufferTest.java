@@ -0,0 +1,85 @@
+package com.challenge.vote_visualizer.unit.util.replay;
+
+import com.challenge.vote_visualizer.util.replay.ReplayRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayRingBufferTest {
+
+    private List<String> frames(List<ReplayRingBuffer.Entry<String>> entries){
+        return entries.stream().map(ReplayRingBuffer.Entry::frame).toList();
+    }
+
+    @Test
+    void append_shouldGiveIncreasingIds(){
+        ReplayRingBuffer<String> buffer = new ReplayRingBuffer<>(4, 100);
+
+        assertEquals(100, buffer.append(id -> "a").id());
+        assertEquals(101, buffer.append(id -> "b").id());
+        assertEquals(101, buffer.latestId());
+    }
+
+    @Test
+    void since_shouldReturnOnlyFramesAfterId(){
+        ReplayRingBuffer<String> buffer = new ReplayRingBuffer<>(4, 100);
+        for(String frame : List.of("a", "b", "c"))
+            buffer.append(id -> frame);
+
+        assertEquals(List.of("b", "c"), frames(buffer.since(100)));
+        assertEquals(List.of(), frames(buffer.since(102)));
+        assertEquals(2, buffer.countSince(100));
+    }
+
+    @Test
+    void since_shouldReturnOnlyNewestFrames_whenBufferWrapped(){
+        ReplayRingBuffer<String> buffer = new ReplayRingBuffer<>(3, 100);
+        for(String frame : List.of("a", "b", "c", "d", "e"))
+            buffer.append(id -> frame);
+
+        assertEquals(List.of("c", "d", "e"), frames(buffer.since(100)));
+        assertEquals(List.of("d", "e"), frames(buffer.since(102)));
+    }
+
+    @Test
+    void since_shouldReturnNothing_whenIdIsNotFromThisSequence(){
+        ReplayRingBuffer<String> buffer = new ReplayRingBuffer<>(3, 100);
+        buffer.append(id -> "a");
+        buffer.append(id -> "b");
+
+        assertEquals(List.of(), frames(buffer.since(500)));
+        assertEquals(List.of(), frames(buffer.since(50)));
+        assertEquals(0, buffer.countSince(500));
+        assertFalse(buffer.isOwnId(500));
+        assertTrue(buffer.isOwnId(99));
+    }
+
+    @Test
+    void constructor_shouldStartReplicasInDifferentSequences(){
+        ReplayRingBuffer<String> first = new ReplayRingBuffer<>(3);
+        ReplayRingBuffer<String> second = new ReplayRingBuffer<>(3);
+        long firstId = first.append(id -> "a").id();
+        second.append(id -> "b");
+
+        assertTrue(first.isOwnId(firstId));
+        assertFalse(second.isOwnId(firstId));
+        assertEquals(List.of(), frames(second.since(firstId)));
+    }
+
+    @Test
+    void append_shouldBuildFrameWithItsId(){
+        ReplayRingBuffer<String> buffer = new ReplayRingBuffer<>(3, 7);
+
+        assertEquals("id:7", buffer.append(id -> "id:" + id).frame());
+    }
+
+    @Test
+    void parseLastEventId_shouldReturnNull_whenHeaderIsNotAnId(){
+        assertNull(ReplayRingBuffer.parseLastEventId(null));
+        assertNull(ReplayRingBuffer.parseLastEventId(" "));
+        assertNull(ReplayRingBuffer.parseLastEventId("abc"));
+        assertEquals(42L, ReplayRingBuffer.parseLastEventId("42"));
+    }
+}
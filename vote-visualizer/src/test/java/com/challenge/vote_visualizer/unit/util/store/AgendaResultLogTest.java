@@ -0,0 +1,180 @@
+package com.challenge.vote_visualizer.unit.util.store;
+
+import com.challenge.vote_events.codec.EventCodec;
+import com.challenge.vote_events.events.AgendaResult;
+import com.challenge.vote_visualizer.util.store.AgendaResultLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgendaResultLogTest {
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private AgendaResult result(long agendaId){
+        return new AgendaResult(agendaId, "Agenda " + agendaId, "Details", (int) agendaId, 1, "YES");
+    }
+
+    private String key(long agendaId){
+        return agendaId + "-2025-05-10T14:30";
+    }
+
+    @Test
+    void find_shouldReturnStoredResult() throws IOException {
+        try(AgendaResultLog log = new AgendaResultLog(directory.resolve("results.log"), CHUNK_SIZE)){
+            log.append(result(1), key(1));
+            log.append(result(2), key(2));
+
+            assertEquals(Optional.of(result(2)), log.find(2));
+            assertEquals(Optional.empty(), log.find(3));
+        }
+    }
+
+    @Test
+    void append_shouldIgnoreResult_whenCloseIsAlreadyStored() throws IOException {
+        try(AgendaResultLog log = new AgendaResultLog(directory.resolve("results.log"), CHUNK_SIZE)){
+            assertTrue(log.append(result(1), key(1)));
+            assertFalse(log.append(result(1), key(1)));
+
+            assertEquals(1, log.size());
+        }
+    }
+
+    @Test
+    void append_shouldReplaceResult_whenAgendaIsReopenedAndClosedAgain() throws IOException {
+        Path path = directory.resolve("results.log");
+        AgendaResult reclosed = new AgendaResult(1L, "Agenda 1", "Details", 0, 9, "NO");
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            log.append(result(1), key(1));
+            log.append(result(2), key(2));
+            assertTrue(log.append(reclosed, "1-2025-05-11T09:00"));
+
+            assertEquals(Optional.of(reclosed), log.find(1));
+            assertEquals(List.of(reclosed, result(2)), log.latest(10));
+        }
+
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            assertEquals(Optional.of(reclosed), log.find(1));
+            assertEquals(List.of(reclosed, result(2)), log.latest(10));
+            assertFalse(log.append(result(1), key(1)));
+        }
+    }
+
+    @Test
+    void append_shouldIgnoreResultWithoutKey_whenAgendaIsAlreadyStored() throws IOException {
+        try(AgendaResultLog log = new AgendaResultLog(directory.resolve("results.log"), CHUNK_SIZE)){
+            assertTrue(log.append(result(1), null));
+            assertFalse(log.append(result(1), null));
+
+            assertEquals(1, log.size());
+        }
+    }
+
+    @Test
+    void latest_shouldReturnNewestFirst() throws IOException {
+        try(AgendaResultLog log = new AgendaResultLog(directory.resolve("results.log"), CHUNK_SIZE)){
+            for(long id = 1; id <= 5; id++)
+                log.append(result(id), key(id));
+
+            assertEquals(List.of(result(5), result(4), result(3)), log.latest(3));
+            assertEquals(5, log.latest(10).size());
+        }
+    }
+
+    @Test
+    void append_shouldGrowFile_whenChunkIsFull() throws IOException {
+        try(AgendaResultLog log = new AgendaResultLog(directory.resolve("results.log"), CHUNK_SIZE)){
+            for(long id = 1; id <= 200; id++)
+                log.append(result(id), key(id));
+
+            assertEquals(200, log.size());
+            assertTrue(log.sizeInBytes() > CHUNK_SIZE);
+            assertEquals(Optional.of(result(1)), log.find(1));
+            assertEquals(Optional.of(result(200)), log.find(200));
+        }
+    }
+
+    @Test
+    void open_shouldRebuildIndex_whenFileExists() throws IOException {
+        Path path = directory.resolve("results.log");
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            for(long id = 1; id <= 100; id++)
+                log.append(result(id), key(id));
+        }
+
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            assertEquals(100, log.size());
+            assertEquals(Optional.of(result(42)), log.find(42));
+            assertEquals(List.of(result(100), result(99)), log.latest(2));
+            assertFalse(log.append(result(7), key(7)));
+        }
+    }
+
+    @Test
+    void open_shouldDropRecord_whenItsPayloadIsCorrupted() throws IOException {
+        Path path = directory.resolve("results.log");
+        long secondOffset;
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            log.append(result(1), key(1));
+            secondOffset = log.sizeInBytes();
+            log.append(result(2), key(2));
+        }
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f, 0x7f}), secondOffset + 20);
+        }
+
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            assertEquals(1, log.size());
+            assertEquals(Optional.empty(), log.find(2));
+            assertTrue(log.append(result(2), key(2)));
+            assertEquals(Optional.of(result(2)), log.find(2));
+        }
+    }
+
+    @Test
+    void open_shouldUpgradeLog_whenFileHasFirstFormat() throws IOException {
+        Path path = directory.resolve("results.log");
+        ByteBuffer legacy = ByteBuffer.allocate(CHUNK_SIZE);
+        legacy.putInt(0x56524c31).putInt(EventCodec.VERSION);
+        for(long id = 1; id <= 3; id++){
+            byte[] payload = EventCodec.encode(result(id));
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            legacy.putInt(payload.length).putLong(id).putInt((int) crc.getValue()).put(payload);
+        }
+        Files.write(path, legacy.array());
+
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            assertEquals(3, log.size());
+            assertEquals(List.of(result(3), result(2), result(1)), log.latest(10));
+            assertFalse(log.append(result(2), null));
+            assertTrue(log.append(result(2), key(2)));
+        }
+
+        try(AgendaResultLog log = new AgendaResultLog(path, CHUNK_SIZE)){
+            assertEquals(4, log.size());
+        }
+    }
+
+    @Test
+    void open_shouldFail_whenFileIsNotResultLog() throws IOException {
+        Path path = directory.resolve("other.log");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThrows(IOException.class, () -> new AgendaResultLog(path, CHUNK_SIZE));
+    }
+}
@@ -0,0 +1,50 @@
+package com.challenge.vote_visualizer.unit.util.store;
+
+import com.challenge.vote_visualizer.util.store.OffsetCheckpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffsetCheckpointTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void get_shouldReturnSavedOffsets_whenCheckpointIsReopened() throws IOException {
+        Path path = directory.resolve("results.log.offsets");
+        OffsetCheckpoint checkpoint = new OffsetCheckpoint(path);
+        checkpoint.update(0, 10);
+        checkpoint.update(3, 7);
+
+        OffsetCheckpoint reopened = new OffsetCheckpoint(path);
+
+        assertEquals(Optional.of(10L), reopened.get(0));
+        assertEquals(Optional.of(7L), reopened.get(3));
+        assertEquals(Optional.empty(), reopened.get(1));
+    }
+
+    @Test
+    void update_shouldKeepSavedOffset_whenOffsetIsBehind() throws IOException {
+        Path path = directory.resolve("results.log.offsets");
+        OffsetCheckpoint checkpoint = new OffsetCheckpoint(path);
+        checkpoint.update(0, 10);
+        checkpoint.update(0, 4);
+
+        assertEquals(Optional.of(10L), checkpoint.get(0));
+        assertEquals(Optional.of(10L), new OffsetCheckpoint(path).get(0));
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenFileIsCorrupted() throws IOException {
+        Path path = directory.resolve("results.log.offsets");
+        Files.writeString(path, "0 10\nnot an offset\n");
+
+        assertThrows(IOException.class, () -> new OffsetCheckpoint(path));
+    }
+}
@@ -0,0 +1,56 @@
+package com.challenge.vote_visualizer.unit.util.subscription;
+
+import com.challenge.vote_visualizer.util.subscription.SubscriptionIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubscriptionIndexTest {
+
+    private List<String> interested(SubscriptionIndex<String> index, Long agendaId){
+        List<String> visited = new ArrayList<>();
+        index.forEachInterested(agendaId, visited::add);
+        return visited;
+    }
+
+    @Test
+    void forEachInterested_shouldVisitAgendaAndBroadcastSubscribersOnly(){
+        SubscriptionIndex<String> index = new SubscriptionIndex<>();
+        index.add("kiosk-1", Set.of(1L));
+        index.add("kiosk-2", Set.of(2L, 3L));
+        index.add("all", null);
+
+        assertEquals(Set.of("kiosk-1", "all"), new HashSet<>(interested(index, 1L)));
+        assertEquals(Set.of("kiosk-2", "all"), new HashSet<>(interested(index, 3L)));
+        assertEquals(List.of("all"), interested(index, 4L));
+        assertEquals(List.of("all"), interested(index, null));
+    }
+
+    @Test
+    void remove_shouldDropAgenda_whenLastSubscriberLeaves(){
+        SubscriptionIndex<String> index = new SubscriptionIndex<>();
+        index.add("kiosk-1", Set.of(1L, 2L));
+        index.add("kiosk-2", Set.of(2L));
+
+        index.remove("kiosk-1", Set.of(1L, 2L));
+
+        assertEquals(1, index.agendaCount());
+        assertEquals(List.of("kiosk-2"), interested(index, 2L));
+    }
+
+    @Test
+    void normalize_shouldReturnNull_whenNoAgendaIsAsked(){
+        Set<Long> withNull = new HashSet<>();
+        withNull.add(null);
+
+        assertNull(SubscriptionIndex.normalize(null));
+        assertNull(SubscriptionIndex.normalize(Set.of()));
+        assertNull(SubscriptionIndex.normalize(withNull));
+        assertEquals(Set.of(1L), SubscriptionIndex.normalize(Set.of(1L)));
+    }
+}